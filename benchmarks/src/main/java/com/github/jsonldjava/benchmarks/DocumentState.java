@@ -0,0 +1,91 @@
+package com.github.jsonldjava.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.jsonldjava.core.JsonLdConsts;
+import com.github.jsonldjava.core.JsonLdOptions;
+import com.github.jsonldjava.core.JsonLdProcessor;
+import com.github.jsonldjava.core.RDFDataset;
+import com.github.jsonldjava.core.RDFDatasetUtils;
+
+/**
+ * Shared benchmark state holding a synthetic document and everything derived
+ * from it, so that each benchmark only measures the algorithm under test.
+ *
+ * Override the parameters from the command line, e.g.
+ * {@code java -jar benchmarks.jar -p nodes=10000 -p depth=0}.
+ */
+@State(Scope.Benchmark)
+public class DocumentState {
+
+    /**
+     * Number of top level nodes in the document.
+     */
+    @Param({ "10", "1000" })
+    public int nodes;
+
+    /**
+     * Number of term definitions in the context.
+     */
+    @Param({ "10", "200" })
+    public int terms;
+
+    /**
+     * Fraction of node identifiers that are blank nodes.
+     */
+    @Param({ "0.0", "0.5" })
+    public double blankNodeRatio;
+
+    /**
+     * Depth of the embedded node chain below every top level node.
+     */
+    @Param({ "0", "3" })
+    public int depth;
+
+    public Map<String, Object> document;
+    public Map<String, Object> context;
+    public Map<String, Object> frame;
+    public List<Object> expanded;
+    public RDFDataset dataset;
+    public String nquads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SyntheticDocuments generator = new SyntheticDocuments(nodes, terms,
+                blankNodeRatio, depth);
+        document = generator.document();
+        context = generator.context();
+        frame = generator.frame();
+        expanded = JsonLdProcessor.expand(document, options());
+        dataset = (RDFDataset) JsonLdProcessor.toRDF(document, options());
+        nquads = RDFDatasetUtils.toNQuads(dataset);
+    }
+
+    /**
+     * Creates fresh options for every invocation, as some of the processor
+     * entry points modify the options they are given.
+     *
+     * @return New options using the synthetic document base.
+     */
+    public JsonLdOptions options() {
+        return new JsonLdOptions(SyntheticDocuments.BASE);
+    }
+
+    /**
+     * Creates fresh options for parsing N-Quads input.
+     *
+     * @return New options with the N-Quads format set.
+     */
+    public JsonLdOptions nquadsOptions() {
+        final JsonLdOptions options = options();
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        return options;
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.jsonldjava.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jsonldjava.core.JsonLdApi;
+import com.github.jsonldjava.core.JsonLdConsts;
+import com.github.jsonldjava.core.JsonLdOptions;
+import com.github.jsonldjava.core.JsonLdProcessor;
+
+/**
+ * Benchmarks for matching the nodes of graphs of increasing size against a
+ * frame, by type, by id, by property and with an empty frame.
+ *
+ * Both the input and the frame are expanded beforehand, and the framed nodes
+ * are not compacted, so only {@link JsonLdApi#frame(Object, List)} is
+ * measured. Nodes are never embedded, as every node links to the next one and
+ * embedding would follow the whole chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class FramingBenchmark {
+
+    private static final String EX = "http://example.com/";
+
+    @Param({ "1000", "10000", "100000" })
+    public int nodes;
+
+    @Param({ "type", "id", "property", "empty" })
+    public String frame;
+
+    private List<Object> expanded;
+    private List<Object> expandedFrame;
+    private List<Object> input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expanded = JsonLdProcessor.expand(graph(nodes), options());
+        final JsonLdOptions frameOptions = options();
+        frameOptions.setFrameExpansion(true);
+        expandedFrame = JsonLdProcessor.expand(frame(frame), frameOptions);
+    }
+
+    /**
+     * Framing removes members from the node objects of its input, so every
+     * invocation frames a copy of the expanded graph.
+     */
+    @Setup(Level.Invocation)
+    public void copyInput() {
+        input = (List<Object>) copy(expanded);
+    }
+
+    @Benchmark
+    public Object frame() {
+        return new JsonLdApi(options()).frame(input, expandedFrame);
+    }
+
+    private static JsonLdOptions options() {
+        final JsonLdOptions options = new JsonLdOptions(SyntheticDocuments.BASE);
+        options.setEmbed(false);
+        return options;
+    }
+
+    private static List<Object> graph(int size) {
+        final List<Object> graph = new ArrayList<Object>();
+        for (int i = 0; i < size; i++) {
+            final Map<String, Object> node = new LinkedHashMap<String, Object>();
+            node.put(JsonLdConsts.ID, EX + "n" + i);
+            node.put(JsonLdConsts.TYPE, EX + "T" + (i % 3));
+            if (i % 2 == 0) {
+                node.put(EX + "name", "Node " + i);
+            }
+            node.put(EX + "knows",
+                    Collections.singletonMap(JsonLdConsts.ID, EX + "n" + ((i + 1) % size)));
+            graph.add(node);
+        }
+        return graph;
+    }
+
+    private static Map<String, Object> frame(String shape) {
+        final Map<String, Object> frame = new LinkedHashMap<String, Object>();
+        if ("type".equals(shape)) {
+            frame.put(JsonLdConsts.TYPE, EX + "T1");
+        } else if ("id".equals(shape)) {
+            frame.put(JsonLdConsts.ID, EX + "n1");
+        } else if ("property".equals(shape)) {
+            frame.put(EX + "name", new LinkedHashMap<String, Object>());
+        } else if (!"empty".equals(shape)) {
+            throw new IllegalArgumentException("Unknown frame: " + shape);
+        }
+        return frame;
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof Map) {
+            final Map<String, Object> map = (Map<String, Object>) value;
+            final Map<String, Object> result = new LinkedHashMap<String, Object>(map.size() * 2);
+            for (final Map.Entry<String, Object> entry : map.entrySet()) {
+                result.put(entry.getKey(), copy(entry.getValue()));
+            }
+            return result;
+        }
+        if (value instanceof List) {
+            final List<Object> list = (List<Object>) value;
+            final List<Object> result = new ArrayList<Object>(list.size());
+            for (final Object item : list) {
+                result.add(copy(item));
+            }
+            return result;
+        }
+        return value;
+    }
+}
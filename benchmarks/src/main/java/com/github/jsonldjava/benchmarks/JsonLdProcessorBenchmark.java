@@ -0,0 +1,68 @@
+package com.github.jsonldjava.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jsonldjava.core.JsonLdApi;
+import com.github.jsonldjava.core.JsonLdProcessor;
+
+/**
+ * Benchmarks for the {@link JsonLdProcessor} entry points over synthetic
+ * documents of varying size, context size, blank node density and nesting
+ * depth.
+ *
+ * Normalization is benchmarked separately in {@link NormalizeBenchmark} as
+ * its cost grows much faster with the number of blank nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JsonLdProcessorBenchmark {
+
+    @Benchmark
+    public Object expand(DocumentState state) {
+        return JsonLdProcessor.expand(state.document, state.options());
+    }
+
+    @Benchmark
+    public Object compact(DocumentState state) {
+        return JsonLdProcessor.compact(state.expanded, state.context, state.options());
+    }
+
+    @Benchmark
+    public Object flatten(DocumentState state) {
+        return JsonLdProcessor.flatten(state.expanded, state.context, state.options());
+    }
+
+    @Benchmark
+    public Object frame(DocumentState state) {
+        return JsonLdProcessor.frame(state.expanded, state.frame, state.options());
+    }
+
+    @Benchmark
+    public Object toRDF(DocumentState state) {
+        return JsonLdProcessor.toRDF(state.expanded, state.options());
+    }
+
+    @Benchmark
+    public Object fromRDF(DocumentState state) {
+        return JsonLdProcessor.fromRDF(state.nquads, state.nquadsOptions());
+    }
+
+    /**
+     * Measures the RDF to JSON-LD conversion alone, without N-Quads parsing.
+     */
+    @Benchmark
+    public Object fromRDFDataset(DocumentState state) {
+        return new JsonLdApi(state.options()).fromRDF(state.dataset);
+    }
+}
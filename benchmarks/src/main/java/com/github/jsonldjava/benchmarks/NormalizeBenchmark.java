@@ -0,0 +1,61 @@
+package com.github.jsonldjava.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jsonldjava.core.JsonLdConsts;
+import com.github.jsonldjava.core.JsonLdOptions;
+import com.github.jsonldjava.core.JsonLdProcessor;
+
+/**
+ * Benchmarks for RDF dataset normalization. Uses smaller documents than
+ * {@link JsonLdProcessorBenchmark}, as normalization time is dominated by the
+ * number of blank nodes that need to be labelled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class NormalizeBenchmark {
+
+    @Param({ "10", "100" })
+    public int nodes;
+
+    @Param({ "10" })
+    public int terms;
+
+    @Param({ "0.1", "0.5", "1.0" })
+    public double blankNodeRatio;
+
+    @Param({ "0", "2" })
+    public int depth;
+
+    private Map<String, Object> document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        document = new SyntheticDocuments(nodes, terms, blankNodeRatio, depth).document();
+    }
+
+    @Benchmark
+    public Object normalize() {
+        final JsonLdOptions options = new JsonLdOptions(SyntheticDocuments.BASE);
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        return JsonLdProcessor.normalize(document, options);
+    }
+}
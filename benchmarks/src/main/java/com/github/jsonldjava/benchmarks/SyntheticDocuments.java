@@ -0,0 +1,169 @@
+package com.github.jsonldjava.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.github.jsonldjava.core.JsonLdConsts;
+
+/**
+ * Generates deterministic synthetic JSON-LD documents for the benchmarks.
+ *
+ * The shape of the generated documents is controlled by four knobs:
+ * <ul>
+ * <li>the number of top level nodes (document size)</li>
+ * <li>the number of term definitions in the context (context size)</li>
+ * <li>the fraction of nodes that are blank nodes (blank node density)</li>
+ * <li>the depth of the embedded node chain hanging off every top level node
+ * (nesting depth)</li>
+ * </ul>
+ *
+ * The same parameters and seed always produce the same document, so results
+ * from different runs and different branches are comparable.
+ */
+public final class SyntheticDocuments {
+
+    public static final String BASE = "http://example.org/";
+    public static final String VOCAB = "http://schema.example.org/";
+
+    private static final int TYPES = 8;
+    private static final int PROPERTIES_PER_NODE = 6;
+    private static final long SEED = 0x4a534f4e4c44L;
+
+    private final int nodes;
+    private final int terms;
+    private final double blankNodeRatio;
+    private final int depth;
+    private final Random random = new Random(SEED);
+
+    private int blankNodeCounter = 0;
+
+    public SyntheticDocuments(int nodes, int terms, double blankNodeRatio, int depth) {
+        if (nodes < 1 || terms < 1 || depth < 0 || blankNodeRatio < 0 || blankNodeRatio > 1) {
+            throw new IllegalArgumentException("Invalid document shape: nodes=" + nodes
+                    + " terms=" + terms + " blankNodeRatio=" + blankNodeRatio + " depth="
+                    + depth);
+        }
+        this.nodes = nodes;
+        this.terms = terms;
+        this.blankNodeRatio = blankNodeRatio;
+        this.depth = depth;
+    }
+
+    /**
+     * Builds the context object (the value of the @context key) with the
+     * configured number of term definitions. Terms cycle through plain,
+     * {@code @id} typed, datatyped and language tagged definitions so that
+     * both expansion and compaction have to do real work selecting terms.
+     *
+     * @return A new context object.
+     */
+    public Map<String, Object> context() {
+        final Map<String, Object> context = new LinkedHashMap<String, Object>();
+        context.put(JsonLdConsts.VOCAB, VOCAB);
+        context.put("ex", BASE);
+        context.put("xsd", "http://www.w3.org/2001/XMLSchema#");
+        for (int i = 0; i < terms; i++) {
+            final Map<String, Object> definition = new LinkedHashMap<String, Object>();
+            definition.put(JsonLdConsts.ID, VOCAB + "property" + i);
+            switch (i % 4) {
+            case 1:
+                definition.put(JsonLdConsts.TYPE, JsonLdConsts.ID);
+                break;
+            case 2:
+                definition.put(JsonLdConsts.TYPE, "xsd:integer");
+                break;
+            case 3:
+                definition.put(JsonLdConsts.LANGUAGE, "en");
+                break;
+            default:
+                break;
+            }
+            context.put(term(i), definition);
+        }
+        for (int i = 0; i < TYPES; i++) {
+            context.put("Type" + i, VOCAB + "Type" + i);
+        }
+        return context;
+    }
+
+    /**
+     * Builds a document with its own embedded context.
+     *
+     * @return A new JSON-LD document.
+     */
+    public Map<String, Object> document() {
+        final List<Object> graph = new ArrayList<Object>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            graph.add(node(i, depth));
+        }
+        final Map<String, Object> document = new LinkedHashMap<String, Object>();
+        document.put(JsonLdConsts.CONTEXT, context());
+        document.put(JsonLdConsts.GRAPH, graph);
+        return document;
+    }
+
+    /**
+     * Builds a frame matching every node of the first type. Referenced nodes
+     * are not embedded, as the randomly linked synthetic graphs make the
+     * default embedding of the last reference explode combinatorially, which
+     * would hide the cost of matching nodes against the frame.
+     *
+     * @return A new JSON-LD frame.
+     */
+    public Map<String, Object> frame() {
+        final Map<String, Object> frame = new LinkedHashMap<String, Object>();
+        frame.put(JsonLdConsts.CONTEXT, context());
+        frame.put(JsonLdConsts.TYPE, "Type0");
+        frame.put(JsonLdConsts.EMBED, "@never");
+        return frame;
+    }
+
+    private Map<String, Object> node(int index, int remainingDepth) {
+        final Map<String, Object> node = new LinkedHashMap<String, Object>();
+        node.put(JsonLdConsts.ID, id(index));
+        node.put(JsonLdConsts.TYPE, "Type" + (index % TYPES));
+        for (int p = 0; p < PROPERTIES_PER_NODE; p++) {
+            final int term = random.nextInt(terms);
+            node.put(term(term), value(term));
+        }
+        if (remainingDepth > 0) {
+            node.put(term(0), node(nodes + random.nextInt(nodes), remainingDepth - 1));
+        }
+        return node;
+    }
+
+    private Object value(int term) {
+        switch (term % 4) {
+        case 1:
+            // node reference, possibly to a blank node
+            return id(random.nextInt(nodes));
+        case 2:
+            return Integer.toString(random.nextInt(100000));
+        case 3:
+            return "value " + random.nextInt(1000);
+        default:
+            switch (random.nextInt(3)) {
+            case 0:
+                return random.nextInt(1000);
+            case 1:
+                return random.nextDouble() * 1000;
+            default:
+                return random.nextBoolean();
+            }
+        }
+    }
+
+    private String id(int index) {
+        if (random.nextDouble() < blankNodeRatio) {
+            return "_:b" + (blankNodeCounter++ % (nodes * (depth + 1)));
+        }
+        return "ex:node" + index;
+    }
+
+    private static String term(int index) {
+        return "property" + index;
+    }
+}
@@ -0,0 +1,4 @@
+package com.github.jsonldjava.benchmarks.jmh_generated;
+public class DocumentState_jmhType extends DocumentState_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.github.jsonldjava.benchmarks.jmh_generated;
+public class FramingBenchmark_jmhType extends FramingBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.github.jsonldjava.benchmarks.jmh_generated;
+public class JsonLdProcessorBenchmark_jmhType extends JsonLdProcessorBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.github.jsonldjava.benchmarks.jmh_generated;
+public class NormalizeBenchmark_jmhType extends NormalizeBenchmark_jmhType_B3 {
+}
+
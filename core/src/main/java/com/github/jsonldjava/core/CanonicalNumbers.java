@@ -0,0 +1,251 @@
+package com.github.jsonldjava.core;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formats numbers as the lexical forms of xsd:double and xsd:integer literals.
+ *
+ * The output is the same as that of {@code DecimalFormat("0.0###############E0")}
+ * and {@code DecimalFormat("0")}, which were used to create these literals
+ * before. Doubles, floats and the integer types up to {@code long} are
+ * formatted by hand: the digits of a double are those that
+ * {@link Double#toString(double)} finds, and only their layout is changed,
+ * rounding them to 17 significant digits when needed. Ties in that rounding,
+ * and numbers such as {@link java.math.BigDecimal}, are still formatted with a
+ * {@link DecimalFormat} kept per thread.
+ *
+ * This relies on {@link Double#toString(double)} and {@link DecimalFormat}
+ * finding the same digits, which they do up to JDK 18. From JDK 19,
+ * {@link Double#toString(double)} finds the shortest digits that round trip
+ * (JDK-4511638), so that {@code 2.0E23} is no longer written
+ * {@code 1.9999999999999998E23}, and {@link DecimalFormat} may not find the
+ * same ones. Whether they agree is checked once on such numbers, and doubles
+ * are all formatted with {@link DecimalFormat} when they do not.
+ */
+final class CanonicalNumbers {
+
+    // the significant digits of the xsd:double form
+    private static final int MAX_DIGITS = 17;
+
+    private static final ThreadLocal<DecimalFormat> DOUBLE_FORMAT =
+            new ThreadLocal<DecimalFormat>() {
+                @Override
+                protected DecimalFormat initialValue() {
+                    return new DecimalFormat("0.0###############E0",
+                            DecimalFormatSymbols.getInstance(Locale.US));
+                }
+            };
+
+    private static final ThreadLocal<DecimalFormat> INTEGER_FORMAT =
+            new ThreadLocal<DecimalFormat>() {
+                @Override
+                protected DecimalFormat initialValue() {
+                    return new DecimalFormat("0", DecimalFormatSymbols.getInstance(Locale.US));
+                }
+            };
+
+    /**
+     * Whether the digits of {@link Double#toString(double)} are those of
+     * {@link DecimalFormat}, tested on numbers for which the two algorithms
+     * used by the JDK over time differ.
+     */
+    static final boolean TO_STRING_DIGITS = sameDigits(2.0E23) && sameDigits(8.41E21)
+            && sameDigits(5.0E-324);
+
+    private CanonicalNumbers() {
+    }
+
+    /**
+     * @param value
+     *            the number to format.
+     * @return the canonical xsd:double form of the number, such as
+     *         {@code 1.5E2}.
+     */
+    static String formatDouble(Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            return formatDouble(value.doubleValue());
+        }
+        if (isLong(value)) {
+            return formatDouble(value.longValue());
+        }
+        return DOUBLE_FORMAT.get().format(value);
+    }
+
+    /**
+     * @param value
+     *            the number to format.
+     * @return the canonical xsd:double form of the number, such as
+     *         {@code 1.5E2}.
+     */
+    static String formatDouble(double value) {
+        if (!TO_STRING_DIGITS || Double.isNaN(value) || Double.isInfinite(value)) {
+            return DOUBLE_FORMAT.get().format(value);
+        }
+        return formatToStringDigits(value);
+    }
+
+    private static boolean sameDigits(double value) {
+        return DOUBLE_FORMAT.get().format(value).equals(formatToStringDigits(value));
+    }
+
+    /**
+     * Lays out the digits of {@link Double#toString(double)} for a finite
+     * double.
+     */
+    private static String formatToStringDigits(double value) {
+        final String string = Double.toString(value);
+        final int length = string.length();
+        // the shortest digits may need one more than the canonical form keeps
+        final char[] digits = new char[MAX_DIGITS + 2];
+        int count = 0;
+        int i = 0;
+        final boolean negative = string.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+        // the exponent of the first significant digit, relative to the
+        // decimal point
+        int exponent = -1;
+        boolean point = false;
+        for (; i < length; i++) {
+            final char c = string.charAt(i);
+            if (c == '.') {
+                point = true;
+            } else if (c == 'E') {
+                exponent += Integer.parseInt(string.substring(i + 1));
+                break;
+            } else if (count == 0 && c == '0') {
+                // a leading zero
+                if (point) {
+                    exponent--;
+                }
+            } else {
+                if (count < digits.length) {
+                    digits[count++] = c;
+                }
+                if (!point) {
+                    exponent++;
+                }
+            }
+        }
+        if (count == 0) {
+            return negative ? "-0.0E0" : "0.0E0";
+        }
+        if (count > MAX_DIGITS) {
+            final int cmp = compareToHalf(digits, count, MAX_DIGITS);
+            if (cmp == 0) {
+                // a tie in the shortest digits is decided by whether they
+                // were rounded up from the exact value, which only the
+                // conversion used by DecimalFormat knows
+                return DOUBLE_FORMAT.get().format(value);
+            }
+            if (cmp > 0) {
+                exponent += increment(digits);
+            }
+            count = MAX_DIGITS;
+        }
+        return format(negative, digits, count, exponent);
+    }
+
+    /**
+     * @param value
+     *            the number to format.
+     * @return the canonical xsd:double form of the number, such as
+     *         {@code 1.5E2}.
+     */
+    static String formatDouble(long value) {
+        if (value == 0) {
+            return "0.0E0";
+        }
+        final String string = Long.toString(value);
+        final boolean negative = value < 0;
+        final int start = negative ? 1 : 0;
+        final int length = string.length() - start;
+        int exponent = length - 1;
+        final char[] digits = new char[MAX_DIGITS];
+        final int count = Math.min(length, MAX_DIGITS);
+        string.getChars(start, start + count, digits, 0);
+        if (length > MAX_DIGITS) {
+            final int cmp = compareToHalf(string.toCharArray(), string.length(),
+                    start + MAX_DIGITS);
+            // round half even
+            if (cmp > 0 || (cmp == 0 && (digits[MAX_DIGITS - 1] - '0') % 2 == 1)) {
+                exponent += increment(digits);
+            }
+        }
+        return format(negative, digits, count, exponent);
+    }
+
+    /**
+     * @param value
+     *            the number to format.
+     * @return the canonical xsd:integer form of the number.
+     */
+    static String formatInteger(Number value) {
+        if (isLong(value)) {
+            return Long.toString(value.longValue());
+        }
+        return INTEGER_FORMAT.get().format(value);
+    }
+
+    private static boolean isLong(Number value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte;
+    }
+
+    /**
+     * Compares the dropped digits, from the given position, with half a unit
+     * of the last kept digit.
+     *
+     * @return a positive number if they are more than half, zero if they are
+     *         exactly half, and a negative number if they are less.
+     */
+    private static int compareToHalf(char[] digits, int count, int from) {
+        if (digits[from] != '5') {
+            return digits[from] - '5';
+        }
+        for (int i = from + 1; i < count; i++) {
+            if (digits[i] != '0') {
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Adds one to the last of the kept digits.
+     *
+     * @return 1 if the digits overflowed into a new first digit, else 0.
+     */
+    private static int increment(char[] digits) {
+        int i = MAX_DIGITS - 1;
+        while (i >= 0 && digits[i] == '9') {
+            digits[i--] = '0';
+        }
+        if (i < 0) {
+            digits[0] = '1';
+            return 1;
+        }
+        digits[i]++;
+        return 0;
+    }
+
+    private static String format(boolean negative, char[] digits, int count, int exponent) {
+        while (count > 1 && digits[count - 1] == '0') {
+            count--;
+        }
+        final StringBuilder result = new StringBuilder(count + 8);
+        if (negative) {
+            result.append('-');
+        }
+        result.append(digits[0]).append('.');
+        if (count == 1) {
+            result.append('0');
+        } else {
+            result.append(digits, 1, count - 1);
+        }
+        return result.append('E').append(exponent).toString();
+    }
+}
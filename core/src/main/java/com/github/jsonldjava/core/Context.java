@@ -4,8 +4,6 @@ import static com.github.jsonldjava.core.JsonLdUtils.compareShortestLeast;
 import static com.github.jsonldjava.utils.Obj.newMap;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,8 +26,10 @@ public class Context extends LinkedHashMap<String, Object> {
 
     private static final Pattern URL_PATTERN = Pattern.compile("^https?://.*$", Pattern.CASE_INSENSITIVE);
     private JsonLdOptions options;
-    private Map<String, Object> termDefinitions;
+    private TermDefinitions termDefinitions;
     public Map<String, Object> inverse = null;
+    private transient volatile InverseContext inverseContext;
+    private transient volatile IriCache iriCache;
 
     public Context() {
         this(new JsonLdOptions());
@@ -63,7 +63,7 @@ public class Context extends LinkedHashMap<String, Object> {
         if (options.getBase() != null) {
             this.put(JsonLdConsts.BASE, options.getBase());
         }
-        this.termDefinitions = newMap();
+        this.termDefinitions = new TermDefinitions();
     }
 
     /**
@@ -147,9 +147,37 @@ public class Context extends LinkedHashMap<String, Object> {
         if (remoteContexts == null) {
             remoteContexts = new ArrayList<String>();
         }
+        final ContextCache cache = options.getContextCache();
+        if (cache != null && remoteContexts.isEmpty() && isInitial()) {
+            final ContextCache.Key key = cache.key(this, localContext, options);
+            if (key != null) {
+                Context cached = cache.get(key);
+                if (cached == null) {
+                    cached = parse(localContext, remoteContexts, false);
+                    // create the inverse context up front, so that it is
+                    // shared by all copies handed out
+                    cached.getInverseContext();
+                    cache.put(key, cached);
+                }
+                // never hand out the cached instance, and make sure the copy
+                // uses the options it was requested with
+                final Context result = cached.clone();
+                result.options = options;
+                return result;
+            }
+        }
         return parse(localContext, remoteContexts, false);
     }
 
+    /**
+     * @return True if this context has not been modified since it was created
+     *         from the options, and so only contains the base IRI.
+     */
+    private boolean isInitial() {
+        return termDefinitions.isEmpty()
+                && (isEmpty() || (size() == 1 && containsKey(JsonLdConsts.BASE)));
+    }
+
     /**
      * Helper method used to work around logic errors related to the recursive
      * nature of the JSONLD-API Context Processing Algorithm.
@@ -289,6 +317,11 @@ public class Context extends LinkedHashMap<String, Object> {
                 result.createTermDefinition((Map<String, Object>) context, key, defined);
             }
         }
+        // the result may have been modified, so it needs its own inverse
+        // context and IRI cache
+        result.inverse = null;
+        result.inverseContext = null;
+        result.iriCache = null;
         return result;
     }
 
@@ -331,6 +364,7 @@ public class Context extends LinkedHashMap<String, Object> {
             throw new JsonLdError(Error.KEYWORD_REDEFINITION, term);
         }
 
+        this.termDefinitions = this.termDefinitions.writable();
         this.termDefinitions.remove(term);
         Object value = context.get(term);
         if (value == null || (value instanceof Map
@@ -513,6 +547,22 @@ public class Context extends LinkedHashMap<String, Object> {
         if (value == null || JsonLdUtils.isKeyword(value)) {
             return value;
         }
+        // outside of context processing the result only depends on this
+        // context, so vocabulary IRIs are memoized
+        if (context == null && vocab) {
+            final Map<String, String> results = getIriCache().expanded(relative);
+            final String cached = results.get(value);
+            if (cached != null) {
+                return IriCache.result(cached);
+            }
+            return IriCache.put(results, value,
+                    expandIriUncached(value, relative, vocab, null, null));
+        }
+        return expandIriUncached(value, relative, vocab, context, defined);
+    }
+
+    private String expandIriUncached(String value, boolean relative, boolean vocab,
+            Map<String, Object> context, Map<String, Boolean> defined) throws JsonLdError {
         // 2)
         if (context != null && context.containsKey(value)
                 && !Boolean.TRUE.equals(defined.get(value))) {
@@ -589,9 +639,24 @@ public class Context extends LinkedHashMap<String, Object> {
         if (iri == null) {
             return null;
         }
+        // without a value the result only depends on this context, so
+        // vocabulary IRIs are memoized
+        if (value == null && relativeToVocab && !reverse) {
+            final Map<String, String> results = getIriCache().compacted();
+            final String cached = results.get(iri);
+            if (cached != null) {
+                return IriCache.result(cached);
+            }
+            return IriCache.put(results, iri, compactIriUncached(iri, null, true, false));
+        }
+        return compactIriUncached(iri, value, relativeToVocab, reverse);
+    }
+
+    private String compactIriUncached(String iri, Object value, boolean relativeToVocab,
+            boolean reverse) {
 
         // 2)
-        if (relativeToVocab && getInverse().containsKey(iri)) {
+        if (relativeToVocab && getInverseContext().containsIri(iri)) {
             // 2.1)
             String defaultLanguage = (String) this.get(JsonLdConsts.LANGUAGE);
             if (defaultLanguage == null) {
@@ -785,25 +850,22 @@ public class Context extends LinkedHashMap<String, Object> {
         // 4)
         String compactIRI = null;
         // 5)
-        for (final String term : termDefinitions.keySet()) {
-            final Map<String, Object> termDefinition = (Map<String, Object>) termDefinitions
-                    .get(term);
-            // 5.1)
-            if (term.contains(":")) {
+        // NOTE: only the terms whose IRI is a prefix of the IRI are visited,
+        // which does not change the result as the candidates are distinct
+        final PrefixIndex prefixes = getInverseContext().getPrefixes();
+        for (int i = prefixes.longest(iri); i >= 0; i = prefixes.shorter(i)) {
+            // 5.1 + 5.2)
+            final String prefix = prefixes.iri(i);
+            if (prefix.length() == iri.length()) {
                 continue;
             }
-            // 5.2)
-            if (termDefinition == null || iri.equals(termDefinition.get(JsonLdConsts.ID))
-                    || !iri.startsWith((String) termDefinition.get(JsonLdConsts.ID))) {
-                continue;
+            for (final String term : prefixes.terms(i)) {
+                // 5.3)
+                final String candidate = term + ":" + iri.substring(prefix.length());
+                // 5.4)
+                compactIRI = _iriCompactionStep5point4(iri, value, compactIRI, candidate,
+                        termDefinitions);
             }
-
-            // 5.3)
-            final String candidate = term + ":"
-                    + iri.substring(((String) termDefinition.get(JsonLdConsts.ID)).length());
-            // 5.4)
-            compactIRI = _iriCompactionStep5point4(iri, value, compactIRI, candidate,
-                    termDefinitions);
         }
 
         // 6)
@@ -890,9 +952,9 @@ public class Context extends LinkedHashMap<String, Object> {
     @Override
     public Context clone() {
         final Context rval = (Context) super.clone();
-        // TODO: is this shallow copy enough? probably not, but it passes all
-        // the tests!
-        rval.termDefinitions = new LinkedHashMap<String, Object>(this.termDefinitions);
+        // the term definitions are copied on write, by whichever of the two
+        // contexts changes them first
+        rval.termDefinitions = this.termDefinitions.share();
         return rval;
     }
 
@@ -905,114 +967,49 @@ public class Context extends LinkedHashMap<String, Object> {
      * already generated for the given active context.
      *
      * @return the inverse context.
+     * @deprecated The nested map form is only kept for compatibility; it is
+     *             created from the immutable inverse context used by the
+     *             compaction algorithm, and changes to it have no effect.
      */
+    @Deprecated
     public Map<String, Object> getInverse() {
-
         // lazily create inverse
-        if (inverse != null) {
-            return inverse;
+        if (inverse == null) {
+            inverse = getInverseContext().toMap();
         }
+        return inverse;
+    }
 
-        // 1)
-        inverse = newMap();
-
-        // 2)
-        String defaultLanguage = (String) this.get(JsonLdConsts.LANGUAGE);
-        if (defaultLanguage == null) {
-            defaultLanguage = JsonLdConsts.NONE;
+    /**
+     * Gets the inverse context, creating it if it has not been created for
+     * this context yet. The inverse context is immutable, so it is shared with
+     * any clones of this context that are not modified afterwards.
+     *
+     * @return the inverse context.
+     */
+    InverseContext getInverseContext() {
+        InverseContext result = inverseContext;
+        if (result == null) {
+            result = InverseContext.create(termDefinitions);
+            inverseContext = result;
         }
+        return result;
+    }
 
-        // create term selections for each mapping in the context, ordererd by
-        // shortest and then lexicographically least
-        final List<String> terms = new ArrayList<String>(termDefinitions.keySet());
-        Collections.sort(terms, new Comparator<String>() {
-            @Override
-            public int compare(String a, String b) {
-                return compareShortestLeast(a, b);
-            }
-        });
-
-        for (final String term : terms) {
-            final Map<String, Object> definition = (Map<String, Object>) termDefinitions.get(term);
-            // 3.1)
-            if (definition == null) {
-                continue;
-            }
-
-            // 3.2)
-            String container = (String) definition.get(JsonLdConsts.CONTAINER);
-            if (container == null) {
-                container = JsonLdConsts.NONE;
-            }
-
-            // 3.3)
-            final String iri = (String) definition.get(JsonLdConsts.ID);
-
-            // 3.4 + 3.5)
-            Map<String, Object> containerMap = (Map<String, Object>) inverse.get(iri);
-            if (containerMap == null) {
-                containerMap = newMap();
-                inverse.put(iri, containerMap);
-            }
-
-            // 3.6 + 3.7)
-            Map<String, Object> typeLanguageMap = (Map<String, Object>) containerMap.get(container);
-            if (typeLanguageMap == null) {
-                typeLanguageMap = newMap();
-                typeLanguageMap.put(JsonLdConsts.LANGUAGE, newMap());
-                typeLanguageMap.put(JsonLdConsts.TYPE, newMap());
-                containerMap.put(container, typeLanguageMap);
-            }
-
-            // 3.8)
-            if (Boolean.TRUE.equals(definition.get(JsonLdConsts.REVERSE))) {
-                final Map<String, Object> typeMap = (Map<String, Object>) typeLanguageMap
-                        .get(JsonLdConsts.TYPE);
-                if (!typeMap.containsKey(JsonLdConsts.REVERSE)) {
-                    typeMap.put(JsonLdConsts.REVERSE, term);
-                }
-                // 3.9)
-            } else if (definition.containsKey(JsonLdConsts.TYPE)) {
-                final Map<String, Object> typeMap = (Map<String, Object>) typeLanguageMap
-                        .get(JsonLdConsts.TYPE);
-                if (!typeMap.containsKey(definition.get(JsonLdConsts.TYPE))) {
-                    typeMap.put((String) definition.get(JsonLdConsts.TYPE), term);
-                }
-                // 3.10)
-            } else if (definition.containsKey(JsonLdConsts.LANGUAGE)) {
-                final Map<String, Object> languageMap = (Map<String, Object>) typeLanguageMap
-                        .get(JsonLdConsts.LANGUAGE);
-                String language = (String) definition.get(JsonLdConsts.LANGUAGE);
-                if (language == null) {
-                    language = JsonLdConsts.NULL;
-                }
-                if (!languageMap.containsKey(language)) {
-                    languageMap.put(language, term);
-                }
-                // 3.11)
-            } else {
-                // 3.11.1)
-                final Map<String, Object> languageMap = (Map<String, Object>) typeLanguageMap
-                        .get(JsonLdConsts.LANGUAGE);
-                // 3.11.2)
-                if (!languageMap.containsKey(JsonLdConsts.LANGUAGE)) {
-                    languageMap.put(JsonLdConsts.LANGUAGE, term);
-                }
-                // 3.11.3)
-                if (!languageMap.containsKey(JsonLdConsts.NONE)) {
-                    languageMap.put(JsonLdConsts.NONE, term);
-                }
-                // 3.11.4)
-                final Map<String, Object> typeMap = (Map<String, Object>) typeLanguageMap
-                        .get(JsonLdConsts.TYPE);
-                // 3.11.5)
-                if (!typeMap.containsKey(JsonLdConsts.NONE)) {
-                    typeMap.put(JsonLdConsts.NONE, term);
-                }
-            }
+    /**
+     * Gets the memoized IRI expansions and compactions of this context, which
+     * like the inverse context are shared with any clones of this context
+     * that are not modified afterwards.
+     *
+     * @return the IRI cache.
+     */
+    private IriCache getIriCache() {
+        IriCache result = iriCache;
+        if (result == null) {
+            result = new IriCache();
+            iriCache = result;
         }
-        // 4)
-        return inverse;
+        return result;
     }
 
     /**
@@ -1030,33 +1027,7 @@ public class Context extends LinkedHashMap<String, Object> {
      */
     private String selectTerm(String iri, List<String> containers, String typeLanguage,
             List<String> preferredValues) {
-        final Map<String, Object> inv = getInverse();
-        // 1)
-        final Map<String, Object> containerMap = (Map<String, Object>) inv.get(iri);
-        // 2)
-        for (final String container : containers) {
-            // 2.1)
-            if (!containerMap.containsKey(container)) {
-                continue;
-            }
-            // 2.2)
-            final Map<String, Object> typeLanguageMap = (Map<String, Object>) containerMap
-                    .get(container);
-            // 2.3)
-            final Map<String, Object> valueMap = (Map<String, Object>) typeLanguageMap
-                    .get(typeLanguage);
-            // 2.4 )
-            for (final String item : preferredValues) {
-                // 2.4.1
-                if (!valueMap.containsKey(item)) {
-                    continue;
-                }
-                // 2.4.2
-                return (String) valueMap.get(item);
-            }
-        }
-        // 3)
-        return null;
+        return getInverseContext().selectTerm(iri, containers, typeLanguage, preferredValues);
     }
 
     /**
@@ -0,0 +1,182 @@
+package com.github.jsonldjava.core;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.github.jsonldjava.utils.JsonUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * A bounded, thread safe cache of processed {@link Context}s, so that the
+ * term definitions of a context are only created once, no matter how many
+ * documents use it.
+ *
+ * A cache is enabled by setting it on the {@link JsonLdOptions} using
+ * {@link JsonLdOptions#setContextCache(ContextCache)}, and can be shared
+ * between any number of options objects and threads. It is consulted by
+ * {@link Context#parse(Object)} whenever a local context is processed against
+ * an initial context, which is the case for the context arguments to
+ * {@link JsonLdProcessor} and for top level @context entries in documents.
+ *
+ * Entries are keyed by the local context, either the remote context URL or
+ * the structure of an inline context, together with the base IRI and the
+ * options affecting context processing. Local contexts referring to remote
+ * contexts are also keyed by the {@link DocumentLoader} of the options, so
+ * options with different loaders never share the contexts they loaded. Remote
+ * contexts are assumed to be stable: once a remote context has been cached, it
+ * is not loaded again through the same loader until it is evicted or the cache
+ * is {@link #clear() cleared}.
+ *
+ * The cached contexts themselves are never handed out; callers receive a
+ * copy, so modifying a parsed context does not affect the cache.
+ */
+public class ContextCache {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 100;
+
+    private final Cache<Key, Context> cache;
+
+    /**
+     * Creates a cache holding up to {@link #DEFAULT_MAXIMUM_SIZE} contexts.
+     */
+    public ContextCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a cache holding up to the given number of contexts. The least
+     * recently used contexts are evicted first.
+     *
+     * @param maximumSize
+     *            The maximum number of contexts to hold.
+     */
+    public ContextCache(long maximumSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Creates the key for processing the given local context against the
+     * given initial context.
+     *
+     * @return The key, or null if the local context can not be cached.
+     */
+    Key key(Context initial, Object localContext, JsonLdOptions options) {
+        if (localContext instanceof Context) {
+            // already processed
+            return null;
+        }
+        boolean remote = localContext instanceof String;
+        if (localContext instanceof List) {
+            for (final Object context : (List<Object>) localContext) {
+                if (context instanceof Context) {
+                    return null;
+                }
+                remote |= context instanceof String;
+            }
+        }
+        final String json;
+        try {
+            json = JsonUtils.toString(localContext);
+        } catch (final IOException | RuntimeException e) {
+            // not plain JSON, so can not be keyed by its structure
+            return null;
+        }
+        final Object base = initial.get(JsonLdConsts.BASE);
+        return new Key(remote ? options.getDocumentLoader() : null,
+                (base == null ? "" : base) + "\n" + options.getAllowContainerSetOnType() + "\n"
+                        + json);
+    }
+
+    Context get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    void put(Key key, Context context) {
+        cache.put(key, context);
+    }
+
+    /**
+     * @return The number of contexts currently held by this cache.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * @return The number of times a processed context was found in this
+     *         cache.
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * @return The number of times a context had to be processed because it
+     *         was not found in this cache.
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * @return The ratio of lookups that were hits, or 1.0 if there were no
+     *         lookups yet.
+     */
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * @return The number of contexts evicted to keep within the maximum size.
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Removes all contexts from this cache. The hit and miss counts are not
+     * reset.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * The key of a processed context: the document loader it was loaded
+     * through, compared by identity, if it refers to remote contexts, and the
+     * description of the local context and of what it was processed against.
+     */
+    static final class Key {
+
+        private final DocumentLoader loader;
+        private final String context;
+
+        Key(DocumentLoader loader, String context) {
+            this.loader = loader;
+            this.context = context;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return loader == other.loader && context.equals(other.context);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(loader) + context.hashCode();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final CacheStats stats = cache.stats();
+        return "ContextCache{size=" + cache.size() + ", hits=" + stats.hitCount() + ", misses="
+                + stats.missCount() + ", evictions=" + stats.evictionCount() + "}";
+    }
+}
@@ -0,0 +1,292 @@
+package com.github.jsonldjava.core;
+
+import static com.github.jsonldjava.core.JsonLdUtils.compareShortestLeast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable inverse context, as created by the
+ * <a href="http://www.w3.org/TR/json-ld-api/#inverse-context-creation">Inverse
+ * Context Creation algorithm</a>, and used by the Term Selection algorithm.
+ *
+ * Instead of nested maps, each IRI maps to an array with a slot per container
+ * mapping, and each slot holds the type and language selections as small
+ * arrays of parallel keys and terms, which are scanned linearly as they
+ * rarely hold more than a handful of entries.
+ *
+ * Instances are built once per {@link Context} and are safe to share between
+ * threads.
+ */
+final class InverseContext {
+
+    // the only container mappings allowed by createTermDefinition
+    private static final String[] CONTAINERS = { JsonLdConsts.NONE, JsonLdConsts.SET,
+            JsonLdConsts.LIST, JsonLdConsts.INDEX, JsonLdConsts.LANGUAGE };
+
+    private final Map<String, Selections[]> iris;
+    private final PrefixIndex prefixes;
+
+    private InverseContext(Map<String, Selections[]> iris, PrefixIndex prefixes) {
+        this.iris = iris;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * Inverse Context Creation
+     *
+     * http://json-ld.org/spec/latest/json-ld-api/#inverse-context-creation
+     *
+     * @param termDefinitions
+     *            The term definitions of the active context.
+     * @return The inverse context.
+     */
+    static InverseContext create(Map<String, Object> termDefinitions) {
+        final Map<String, Builder[]> builders = new LinkedHashMap<String, Builder[]>();
+
+        // create term selections for each mapping in the context, ordererd by
+        // shortest and then lexicographically least
+        final List<String> terms = new ArrayList<String>(termDefinitions.keySet());
+        Collections.sort(terms, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                return compareShortestLeast(a, b);
+            }
+        });
+
+        for (final String term : terms) {
+            final Map<String, Object> definition = (Map<String, Object>) termDefinitions.get(term);
+            // 3.1)
+            if (definition == null) {
+                continue;
+            }
+
+            // 3.2)
+            final int container = containerIndex((String) definition.get(JsonLdConsts.CONTAINER));
+            if (container < 0) {
+                continue;
+            }
+
+            // 3.3)
+            final String iri = (String) definition.get(JsonLdConsts.ID);
+
+            // 3.4 + 3.5)
+            Builder[] containerMap = builders.get(iri);
+            if (containerMap == null) {
+                containerMap = new Builder[CONTAINERS.length];
+                builders.put(iri, containerMap);
+            }
+
+            // 3.6 + 3.7)
+            Builder typeLanguage = containerMap[container];
+            if (typeLanguage == null) {
+                typeLanguage = new Builder();
+                containerMap[container] = typeLanguage;
+            }
+
+            // 3.8)
+            if (Boolean.TRUE.equals(definition.get(JsonLdConsts.REVERSE))) {
+                typeLanguage.type.putIfAbsent(JsonLdConsts.REVERSE, term);
+            }
+            // 3.9)
+            else if (definition.containsKey(JsonLdConsts.TYPE)) {
+                typeLanguage.type.putIfAbsent((String) definition.get(JsonLdConsts.TYPE), term);
+            }
+            // 3.10)
+            else if (definition.containsKey(JsonLdConsts.LANGUAGE)) {
+                final String language = (String) definition.get(JsonLdConsts.LANGUAGE);
+                typeLanguage.language.putIfAbsent(language == null ? JsonLdConsts.NULL : language,
+                        term);
+            }
+            // 3.11)
+            else {
+                // 3.11.2)
+                // NOTE: keyed by @language rather than by the default
+                // language of the active context
+                typeLanguage.language.putIfAbsent(JsonLdConsts.LANGUAGE, term);
+                // 3.11.3)
+                typeLanguage.language.putIfAbsent(JsonLdConsts.NONE, term);
+                // 3.11.5)
+                typeLanguage.type.putIfAbsent(JsonLdConsts.NONE, term);
+            }
+        }
+
+        // 4)
+        final Map<String, Selections[]> iris = new LinkedHashMap<String, Selections[]>(
+                builders.size() * 4 / 3 + 1);
+        for (final Map.Entry<String, Builder[]> entry : builders.entrySet()) {
+            final Builder[] containerMap = entry.getValue();
+            final Selections[] selections = new Selections[containerMap.length];
+            for (int i = 0; i < containerMap.length; i++) {
+                if (containerMap[i] != null) {
+                    selections[i] = containerMap[i].build();
+                }
+            }
+            iris.put(entry.getKey(), selections);
+        }
+        return new InverseContext(iris, PrefixIndex.create(termDefinitions));
+    }
+
+    /**
+     * @param iri
+     *            The IRI to check.
+     * @return True if a term maps to the given IRI.
+     */
+    boolean containsIri(String iri) {
+        return iris.containsKey(iri);
+    }
+
+    /**
+     * @return The IRIs that may be used as prefixes of compact IRIs.
+     */
+    PrefixIndex getPrefixes() {
+        return prefixes;
+    }
+
+    /**
+     * Term Selection
+     *
+     * http://json-ld.org/spec/latest/json-ld-api/#term-selection
+     *
+     * @return the selected term, or null if no term matches.
+     */
+    String selectTerm(String iri, List<String> containers, String typeLanguage,
+            List<String> preferredValues) {
+        // 1)
+        final Selections[] containerMap = iris.get(iri);
+        if (containerMap == null) {
+            return null;
+        }
+        final boolean type = JsonLdConsts.TYPE.equals(typeLanguage);
+        // 2)
+        for (final String container : containers) {
+            // 2.1)
+            final int index = containerIndex(container);
+            if (index < 0 || containerMap[index] == null) {
+                continue;
+            }
+            // 2.2 + 2.3)
+            final Selections selections = containerMap[index];
+            final String[] keys = type ? selections.typeKeys : selections.languageKeys;
+            final String[] terms = type ? selections.typeTerms : selections.languageTerms;
+            // 2.4)
+            for (final String item : preferredValues) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (item.equals(keys[i])) {
+                        return terms[i];
+                    }
+                }
+            }
+        }
+        // 3)
+        return null;
+    }
+
+    /**
+     * @return The inverse context in the nested map form described by the
+     *         specification.
+     */
+    Map<String, Object> toMap() {
+        final Map<String, Object> inverse = new LinkedHashMap<String, Object>();
+        for (final Map.Entry<String, Selections[]> entry : iris.entrySet()) {
+            final Map<String, Object> containerMap = new LinkedHashMap<String, Object>();
+            final Selections[] selections = entry.getValue();
+            for (int i = 0; i < selections.length; i++) {
+                if (selections[i] != null) {
+                    final Map<String, Object> typeLanguageMap = new LinkedHashMap<String, Object>();
+                    typeLanguageMap.put(JsonLdConsts.LANGUAGE,
+                            toMap(selections[i].languageKeys, selections[i].languageTerms));
+                    typeLanguageMap.put(JsonLdConsts.TYPE,
+                            toMap(selections[i].typeKeys, selections[i].typeTerms));
+                    containerMap.put(CONTAINERS[i], typeLanguageMap);
+                }
+            }
+            inverse.put(entry.getKey(), containerMap);
+        }
+        return inverse;
+    }
+
+    private static Map<String, Object> toMap(String[] keys, String[] terms) {
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], terms[i]);
+        }
+        return map;
+    }
+
+    private static int containerIndex(String container) {
+        if (container == null) {
+            return 0;
+        }
+        for (int i = 0; i < CONTAINERS.length; i++) {
+            if (CONTAINERS[i].equals(container)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The type and language selections for a single IRI and container.
+     */
+    private static final class Selections {
+        final String[] typeKeys;
+        final String[] typeTerms;
+        final String[] languageKeys;
+        final String[] languageTerms;
+
+        Selections(String[] typeKeys, String[] typeTerms, String[] languageKeys,
+                String[] languageTerms) {
+            this.typeKeys = typeKeys;
+            this.typeTerms = typeTerms;
+            this.languageKeys = languageKeys;
+            this.languageTerms = languageTerms;
+        }
+    }
+
+    private static final class Builder {
+        final Slots type = new Slots();
+        final Slots language = new Slots();
+
+        Selections build() {
+            return new Selections(type.keys(), type.terms(), language.keys(), language.terms());
+        }
+    }
+
+    /**
+     * Insertion ordered keys and terms, where the first term for a key wins.
+     */
+    private static final class Slots {
+        private String[] keys = new String[2];
+        private String[] terms = new String[2];
+        private int size = 0;
+
+        void putIfAbsent(String key, String term) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return;
+                }
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                terms = Arrays.copyOf(terms, size * 2);
+            }
+            keys[size] = key;
+            terms[size] = term;
+            size++;
+        }
+
+        String[] keys() {
+            return Arrays.copyOf(keys, size);
+        }
+
+        String[] terms() {
+            return Arrays.copyOf(terms, size);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.jsonldjava.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoized results of IRI expansion and compaction relative to the vocabulary
+ * of a {@link Context}, which are the IRIs of properties and types that
+ * documents repeat over and over.
+ *
+ * Instances belong to a context that is no longer modified, and are shared
+ * with its clones and between threads like its {@link InverseContext}. Each
+ * map stops taking new entries once it holds {@link #MAX_SIZE} of them, so
+ * that documents with many distinct IRIs only pay for the lookup.
+ */
+final class IriCache {
+
+    static final int MAX_SIZE = 4096;
+
+    // stands in for null results, which the maps cannot hold
+    private static final String NULL = new String();
+
+    private final Map<String, String> expanded = new ConcurrentHashMap<String, String>();
+    private final Map<String, String> expandedRelative = new ConcurrentHashMap<String, String>();
+    private final Map<String, String> compacted = new ConcurrentHashMap<String, String>();
+
+    Map<String, String> expanded(boolean relative) {
+        return relative ? expandedRelative : expanded;
+    }
+
+    Map<String, String> compacted() {
+        return compacted;
+    }
+
+    /**
+     * @return the result that a non-null value from one of the maps stands
+     *         for.
+     */
+    static String result(String cached) {
+        return cached == NULL ? null : cached;
+    }
+
+    /**
+     * Stores the result for the IRI, unless the map is full.
+     *
+     * @return the result.
+     */
+    static String put(Map<String, String> results, String iri, String result) {
+        if (results.size() < MAX_SIZE) {
+            results.put(iri, result == null ? NULL : result);
+        }
+        return result;
+    }
+}
@@ -8,22 +8,32 @@ import static com.github.jsonldjava.core.JsonLdConsts.RDF_TYPE;
 import static com.github.jsonldjava.core.JsonLdUtils.isKeyword;
 import static com.github.jsonldjava.utils.Obj.newMap;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.github.jsonldjava.core.JsonLdConsts.Embed;
+import com.github.jsonldjava.core.JsonLdConsts.Keyword;
 import com.github.jsonldjava.core.JsonLdError.Error;
 import com.github.jsonldjava.utils.Obj;
 
@@ -38,6 +48,16 @@ public class JsonLdApi {
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    /**
+     * The number of elements from which top level arrays are expanded in
+     * parallel, when the options have an executor.
+     */
+    static final int PARALLEL_EXPANSION_THRESHOLD = 256;
+
+    private static final int PARALLEL_EXPANSION_CHUNK_SIZE = 64;
+
     JsonLdOptions opts;
     Object value = null;
     Context context = null;
@@ -202,9 +222,9 @@ public class JsonLdApi {
             Collections.sort(keys);
             for (final String expandedProperty : keys) {
                 final Object expandedValue = elem.get(expandedProperty);
+                final Keyword keyword = Keyword.of(expandedProperty);
                 // 7.1)
-                if (JsonLdConsts.ID.equals(expandedProperty)
-                        || JsonLdConsts.TYPE.equals(expandedProperty)) {
+                if (keyword == Keyword.ID || keyword == Keyword.TYPE) {
                     // TODO: Relabel these step numbers when spec changes
                     // 7.1.3)
                     final String alias = activeCtx.compactIri(expandedProperty, true);
@@ -213,7 +233,7 @@ public class JsonLdApi {
                     // 7.1.1)
                     if (expandedValue instanceof String) {
                         compactedValue = activeCtx.compactIri((String) expandedValue,
-                                JsonLdConsts.TYPE.equals(expandedProperty));
+                                keyword == Keyword.TYPE);
                     }
                     // 7.1.2)
                     else {
@@ -243,7 +263,7 @@ public class JsonLdApi {
                 }
 
                 // 7.2)
-                if (JsonLdConsts.REVERSE.equals(expandedProperty)) {
+                if (keyword == Keyword.REVERSE) {
                     // 7.2.1)
                     final Map<String, Object> compactedValue = (Map<String, Object>) compact(
                             activeCtx, JsonLdConsts.REVERSE, expandedValue, compactArrays);
@@ -295,14 +315,13 @@ public class JsonLdApi {
                 }
 
                 // 7.3)
-                if (JsonLdConsts.INDEX.equals(expandedProperty)
+                if (keyword == Keyword.INDEX
                         && JsonLdConsts.INDEX.equals(activeCtx.getContainer(activeProperty))) {
                     continue;
                 }
                 // 7.4)
-                else if (JsonLdConsts.INDEX.equals(expandedProperty)
-                        || JsonLdConsts.VALUE.equals(expandedProperty)
-                        || JsonLdConsts.LANGUAGE.equals(expandedProperty)) {
+                else if (keyword == Keyword.INDEX || keyword == Keyword.VALUE
+                        || keyword == Keyword.LANGUAGE) {
                     // 7.4.1)
                     final String alias = activeCtx.compactIri(expandedProperty, true);
                     // 7.4.2)
@@ -428,8 +447,7 @@ public class JsonLdApi {
                         // 7.6.6.1)
                         final Boolean check = (!compactArrays || JsonLdConsts.SET.equals(container)
                                 || JsonLdConsts.LIST.equals(container)
-                                || JsonLdConsts.LIST.equals(expandedProperty)
-                                || JsonLdConsts.GRAPH.equals(expandedProperty))
+                                || keyword == Keyword.LIST || keyword == Keyword.GRAPH)
                                 && (!(compactedItem instanceof List));
                         if (check) {
                             final List<Object> tmp = new ArrayList<Object>();
@@ -508,6 +526,20 @@ public class JsonLdApi {
      */
     public Object expand(Context activeCtx, String activeProperty, Object element)
             throws JsonLdError {
+        return expand(activeCtx, activeProperty, element, false);
+    }
+
+    /**
+     * Expansion Algorithm, which expands large arrays in parallel when the
+     * element is the top level element or its <code>@graph</code>, and the
+     * options have an executor.
+     *
+     * @param topLevel
+     *            Whether the element is the top level element of the input,
+     *            or the <code>@graph</code> of a top level object.
+     */
+    private Object expand(Context activeCtx, String activeProperty, Object element,
+            boolean topLevel) throws JsonLdError {
         final boolean frameExpansion = this.opts.getFrameExpansion();
         // 1)
         if (element == null) {
@@ -516,6 +548,10 @@ public class JsonLdApi {
 
         // 3)
         if (element instanceof List) {
+            if (topLevel && opts.getExecutor() != null
+                    && ((List<Object>) element).size() >= PARALLEL_EXPANSION_THRESHOLD) {
+                return expandInParallel(activeCtx, activeProperty, (List<Object>) element);
+            }
             // 3.1)
             final List<Object> result = new ArrayList<Object>();
             // 3.2)
@@ -562,14 +598,15 @@ public class JsonLdApi {
                 }
                 // 7.2)
                 final String expandedProperty = activeCtx.expandIri(key, false, true, null, null);
+                final Keyword keyword = Keyword.of(expandedProperty);
                 Object expandedValue = null;
                 // 7.3)
                 if (expandedProperty == null
-                        || (!expandedProperty.contains(":") && !isKeyword(expandedProperty))) {
+                        || (!expandedProperty.contains(":") && keyword == null)) {
                     continue;
                 }
                 // 7.4)
-                if (isKeyword(expandedProperty)) {
+                if (keyword != null) {
                     // 7.4.1)
                     if (JsonLdConsts.REVERSE.equals(activeProperty)) {
                         throw new JsonLdError(Error.INVALID_REVERSE_PROPERTY_MAP,
@@ -580,8 +617,9 @@ public class JsonLdApi {
                         throw new JsonLdError(Error.COLLIDING_KEYWORDS,
                                 expandedProperty + " already exists in result");
                     }
+                    switch (keyword) {
                     // 7.4.3)
-                    if (JsonLdConsts.ID.equals(expandedProperty)) {
+                    case ID:
                         if (value instanceof String) {
                             expandedValue = activeCtx.expandIri((String) value, true, false, null,
                                     null);
@@ -610,9 +648,9 @@ public class JsonLdApi {
                             throw new JsonLdError(Error.INVALID_ID_VALUE,
                                     "value of @id must be a string");
                         }
-                    }
+                        break;
                     // 7.4.4)
-                    else if (JsonLdConsts.TYPE.equals(expandedProperty)) {
+                    case TYPE:
                         if (value instanceof List) {
                             expandedValue = new ArrayList<String>();
                             for (final Object v : (List) value) {
@@ -638,13 +676,14 @@ public class JsonLdApi {
                             throw new JsonLdError(Error.INVALID_TYPE_VALUE,
                                     "@type value must be a string or array of strings");
                         }
-                    }
+                        break;
                     // 7.4.5)
-                    else if (JsonLdConsts.GRAPH.equals(expandedProperty)) {
-                        expandedValue = expand(activeCtx, JsonLdConsts.GRAPH, value);
-                    }
+                    case GRAPH:
+                        expandedValue = expand(activeCtx, JsonLdConsts.GRAPH, value,
+                                topLevel && activeProperty == null);
+                        break;
                     // 7.4.6)
-                    else if (JsonLdConsts.VALUE.equals(expandedProperty)) {
+                    case VALUE:
                         if (value != null && (value instanceof Map || value instanceof List)) {
                             throw new JsonLdError(Error.INVALID_VALUE_OBJECT_VALUE,
                                     "value of " + expandedProperty + " must be a scalar or null");
@@ -654,25 +693,25 @@ public class JsonLdApi {
                             result.put(JsonLdConsts.VALUE, null);
                             continue;
                         }
-                    }
+                        break;
                     // 7.4.7)
-                    else if (JsonLdConsts.LANGUAGE.equals(expandedProperty)) {
+                    case LANGUAGE:
                         if (!(value instanceof String)) {
                             throw new JsonLdError(Error.INVALID_LANGUAGE_TAGGED_STRING,
                                     "Value of " + expandedProperty + " must be a string");
                         }
                         expandedValue = ((String) value).toLowerCase();
-                    }
+                        break;
                     // 7.4.8)
-                    else if (JsonLdConsts.INDEX.equals(expandedProperty)) {
+                    case INDEX:
                         if (!(value instanceof String)) {
                             throw new JsonLdError(Error.INVALID_INDEX_VALUE,
                                     "Value of " + expandedProperty + " must be a string");
                         }
                         expandedValue = value;
-                    }
+                        break;
                     // 7.4.9)
-                    else if (JsonLdConsts.LIST.equals(expandedProperty)) {
+                    case LIST:
                         // 7.4.9.1)
                         if (activeProperty == null || JsonLdConsts.GRAPH.equals(activeProperty)) {
                             continue;
@@ -695,13 +734,13 @@ public class JsonLdApi {
                                         "A list may not contain another list");
                             }
                         }
-                    }
+                        break;
                     // 7.4.10)
-                    else if (JsonLdConsts.SET.equals(expandedProperty)) {
+                    case SET:
                         expandedValue = expand(activeCtx, activeProperty, value);
-                    }
+                        break;
                     // 7.4.11)
-                    else if (JsonLdConsts.REVERSE.equals(expandedProperty)) {
+                    case REVERSE:
                         if (!(value instanceof Map)) {
                             throw new JsonLdError(Error.INVALID_REVERSE_VALUE,
                                     "@reverse value must be an object");
@@ -768,15 +807,18 @@ public class JsonLdApi {
                         }
                         // 7.4.11.4)
                         continue;
-                    }
                     // TODO: SPEC no mention of @explicit etc in spec
-                    else if (frameExpansion && (JsonLdConsts.EXPLICIT.equals(expandedProperty)
-                            || JsonLdConsts.DEFAULT.equals(expandedProperty)
-                            || JsonLdConsts.EMBED.equals(expandedProperty)
-                            || JsonLdConsts.REQUIRE_ALL.equals(expandedProperty)
-                            || JsonLdConsts.EMBED_CHILDREN.equals(expandedProperty)
-                            || JsonLdConsts.OMIT_DEFAULT.equals(expandedProperty))) {
-                        expandedValue = expand(activeCtx, expandedProperty, value);
+                    case EXPLICIT:
+                    case DEFAULT:
+                    case EMBED:
+                    case REQUIRE_ALL:
+                    case OMIT_DEFAULT:
+                        if (frameExpansion) {
+                            expandedValue = expand(activeCtx, expandedProperty, value);
+                        }
+                        break;
+                    default:
+                        break;
                     }
                     // 7.4.12)
                     if (expandedValue != null) {
@@ -1010,6 +1052,40 @@ public class JsonLdApi {
         }
     }
 
+    /**
+     * Expands the elements of a top level array, or of the
+     * <code>@graph</code> of a top level object, in chunks on the executor of
+     * the options. The elements are independent, and the chunks are joined in
+     * order, so the result is the same as when expanding them in turn.
+     */
+    private List<Object> expandInParallel(final Context activeCtx, final String activeProperty,
+            List<Object> element) throws JsonLdError {
+        // chunks are expanded without an executor, so that tasks never wait
+        // for other tasks
+        final JsonLdOptions chunkOpts = opts.copy();
+        chunkOpts.setExecutor(null);
+        final int chunks = 4 * Runtime.getRuntime().availableProcessors();
+        final int chunkSize = Math.max(PARALLEL_EXPANSION_CHUNK_SIZE,
+                (element.size() + chunks - 1) / chunks);
+        final List<Callable<List<Object>>> tasks = new ArrayList<Callable<List<Object>>>();
+        for (int i = 0; i < element.size(); i += chunkSize) {
+            final List<Object> chunk = element.subList(i,
+                    Math.min(i + chunkSize, element.size()));
+            tasks.add(new Callable<List<Object>>() {
+                @Override
+                public List<Object> call() throws JsonLdError {
+                    return (List<Object>) new JsonLdApi(chunkOpts).expand(activeCtx,
+                            activeProperty, chunk);
+                }
+            });
+        }
+        final List<Object> result = new ArrayList<Object>(element.size());
+        for (final List<Object> expanded : JsonLdUtils.invokeAll(opts.getExecutor(), tasks)) {
+            result.addAll(expanded);
+        }
+        return result;
+    }
+
     /**
      * Expansion Algorithm
      *
@@ -1024,7 +1100,241 @@ public class JsonLdApi {
      *             If there was an error during expansion.
      */
     public Object expand(Context activeCtx, Object element) throws JsonLdError {
-        return expand(activeCtx, null, element);
+        return expand(activeCtx, null, element, true);
+    }
+
+    /**
+     * Expansion Algorithm, reading the element from a Jackson {@link JsonNode}
+     * tree through read only views, rather than converting the whole tree to
+     * maps and lists first.
+     *
+     * @param activeCtx
+     *            The Active Context
+     * @param element
+     *            The current element
+     * @return The expanded JSON-LD object.
+     * @throws JsonLdError
+     *             If there was an error during expansion.
+     */
+    public Object expand(Context activeCtx, JsonNode element) throws JsonLdError {
+        return expand(activeCtx, null, JsonNodeView.of(element), true);
+    }
+
+    /**
+     * Expansion Algorithm, reading the element from a Jackson
+     * {@link TokenBuffer}, as
+     * {@link #expand(Context, JsonParser, JsonLdNodeCallback)} does from a
+     * parser. Floating point numbers are read as {@link Double}s, as they are
+     * when parsing JSON, although a buffer may hold them as
+     * {@link java.math.BigDecimal}s.
+     *
+     * @param activeCtx
+     *            The Active Context
+     * @param buffer
+     *            The buffer holding the tokens of the element.
+     * @param callback
+     *            The callback receiving the expanded top level objects.
+     * @throws JsonLdError
+     *             If there was an error during expansion.
+     */
+    public void expand(Context activeCtx, TokenBuffer buffer, JsonLdNodeCallback callback)
+            throws JsonLdError {
+        try (JsonParser parser = asParser(buffer)) {
+            expand(activeCtx, parser, callback);
+        } catch (final IOException e) {
+            throw new JsonLdError(Error.LOADING_DOCUMENT_FAILED, e);
+        }
+    }
+
+    /**
+     * @return A parser over the tokens of the buffer, which reads floating
+     *         point numbers as {@link Double}s.
+     */
+    private static JsonParser asParser(TokenBuffer buffer) {
+        return new JsonParserDelegate(buffer.asParser()) {
+            @Override
+            public NumberType getNumberType() throws IOException {
+                final NumberType type = super.getNumberType();
+                return type == NumberType.BIG_DECIMAL ? NumberType.DOUBLE : type;
+            }
+
+            @Override
+            public Number getNumberValue() throws IOException {
+                return currentToken() == JsonToken.VALUE_NUMBER_FLOAT ? getDoubleValue()
+                        : super.getNumberValue();
+            }
+        };
+    }
+
+    /**
+     * Expansion Algorithm, reading the element from a {@link JsonParser} and
+     * passing each expanded top level object to the given callback as soon as
+     * it has been expanded.
+     *
+     * Only one top level object is held in memory at a time. The elements of a
+     * top level array are expanded one by one, as are the elements of the
+     * <code>@graph</code> of a top level object that has no members other
+     * than <code>@context</code> and <code>@graph</code>. When the
+     * <code>@graph</code> comes after the <code>@context</code>, its elements
+     * are expanded as they are read, and no member that is not dropped by
+     * expansion may follow it. When it comes first, its tokens are kept in a
+     * {@link TokenBuffer} until the end of the object, and its elements are
+     * then expanded one by one if the object turns out to hold nothing else.
+     * Any other top level object is read as a whole before it is expanded.
+     *
+     * The objects passed to the callback are, in order, the elements of the
+     * array {@link JsonLdProcessor#expand(Object, JsonLdOptions)} returns.
+     *
+     * @param activeCtx
+     *            The Active Context
+     * @param parser
+     *            The parser to read the element from, either positioned before
+     *            the element or on its first token. The parser is left on the
+     *            last token of the element.
+     * @param callback
+     *            The callback receiving the expanded top level objects.
+     * @throws JsonLdError
+     *             If there was an error during expansion, or when reading
+     *             from the parser.
+     */
+    public void expand(Context activeCtx, JsonParser parser, JsonLdNodeCallback callback)
+            throws JsonLdError {
+        try {
+            JsonToken token = parser.currentToken();
+            if (token == null) {
+                token = parser.nextToken();
+            }
+            if (token == JsonToken.START_ARRAY) {
+                while ((token = nextToken(parser)) != JsonToken.END_ARRAY) {
+                    emitExpanded(expand(activeCtx, null, JSON_MAPPER.readValue(parser, Object.class)),
+                            callback);
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                expandTopLevelObject(activeCtx, parser, callback);
+            } else if (token != null) {
+                // 2.1) top level scalars expand to nothing
+                JSON_MAPPER.readValue(parser, Object.class);
+            }
+        } catch (final IOException e) {
+            throw new JsonLdError(Error.LOADING_DOCUMENT_FAILED, e);
+        }
+    }
+
+    private void expandTopLevelObject(Context activeCtx, JsonParser parser,
+            JsonLdNodeCallback callback) throws JsonLdError, IOException {
+        final Map<String, Object> elem = newMap();
+        Context ctx = activeCtx;
+        boolean streamed = false;
+        // the tokens of a @graph read before any @context, and its key
+        TokenBuffer graph = null;
+        String graphKey = null;
+        JsonToken token;
+        while ((token = nextToken(parser)) != JsonToken.END_OBJECT) {
+            final String key = parser.getCurrentName();
+            token = nextToken(parser);
+            if (streamed) {
+                // the @graph has already been expanded, so nothing may
+                // follow that would change its expansion or add to the result
+                JSON_MAPPER.readValue(parser, Object.class);
+                if (JsonLdConsts.CONTEXT.equals(key) || !isDropped(ctx, key)) {
+                    throw new JsonLdError(Error.NOT_IMPLEMENTED,
+                            "streaming expansion requires @graph to be the last member of a top level object, found: "
+                                    + key);
+                }
+            } else if (JsonLdConsts.CONTEXT.equals(key)) {
+                final Object value = JSON_MAPPER.readValue(parser, Object.class);
+                elem.put(key, value);
+                // 5)
+                ctx = activeCtx.parse(value);
+            } else if (graph == null && token == JsonToken.START_ARRAY
+                    && !elem.containsKey(JsonLdConsts.CONTEXT)
+                    && JsonLdConsts.GRAPH.equals(ctx.expandIri(key, false, true, null, null))
+                    && onlyContext(ctx, elem)) {
+                // a @context may still follow and change the meaning of the
+                // @graph, as may any member that is not dropped
+                graph = new TokenBuffer(parser);
+                graph.copyCurrentStructure(parser);
+                graphKey = key;
+            } else if (graph == null && elem.containsKey(JsonLdConsts.CONTEXT)
+                    && JsonLdConsts.GRAPH.equals(ctx.expandIri(key, false, true, null, null))
+                    && onlyContext(ctx, elem)) {
+                // the result will only contain @graph, so its elements are
+                // the expanded top level objects
+                if (token == JsonToken.START_ARRAY) {
+                    while ((token = nextToken(parser)) != JsonToken.END_ARRAY) {
+                        emitExpanded(expand(ctx, JsonLdConsts.GRAPH,
+                                JSON_MAPPER.readValue(parser, Object.class)), callback);
+                    }
+                } else {
+                    emitExpanded(expand(ctx, JsonLdConsts.GRAPH,
+                            JSON_MAPPER.readValue(parser, Object.class)), callback);
+                }
+                streamed = true;
+            } else {
+                elem.put(key, JSON_MAPPER.readValue(parser, Object.class));
+            }
+        }
+        if (graph != null) {
+            if (JsonLdConsts.GRAPH.equals(ctx.expandIri(graphKey, false, true, null, null))
+                    && onlyContext(ctx, elem)) {
+                // the result only contains the @graph after all
+                expand(ctx, graph, callback);
+                return;
+            }
+            try (JsonParser graphParser = asParser(graph)) {
+                elem.put(graphKey, JSON_MAPPER.readValue(graphParser, Object.class));
+            }
+        }
+        if (!streamed) {
+            Object expanded = expand(activeCtx, null, elem, true);
+            // final step of Expansion Algorithm
+            if (expanded instanceof Map && ((Map<String, Object>) expanded).size() == 1
+                    && ((Map<String, Object>) expanded).containsKey(JsonLdConsts.GRAPH)) {
+                expanded = ((Map<String, Object>) expanded).get(JsonLdConsts.GRAPH);
+            }
+            emitExpanded(expanded, callback);
+        }
+    }
+
+    private static JsonToken nextToken(JsonParser parser) throws IOException {
+        final JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of document",
+                    parser.getCurrentLocation());
+        }
+        return token;
+    }
+
+    /**
+     * @return True if all members of the given object, other than
+     *         <code>@context</code>, are dropped by the expansion algorithm.
+     */
+    private static boolean onlyContext(Context activeCtx, Map<String, Object> elem)
+            throws JsonLdError {
+        for (final String key : elem.keySet()) {
+            if (!JsonLdConsts.CONTEXT.equals(key) && !isDropped(activeCtx, key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDropped(Context activeCtx, String key) throws JsonLdError {
+        // 7.3)
+        final String expandedProperty = activeCtx.expandIri(key, false, true, null, null);
+        return expandedProperty == null
+                || (!expandedProperty.contains(":") && !isKeyword(expandedProperty));
+    }
+
+    private static void emitExpanded(Object expanded, JsonLdNodeCallback callback)
+            throws JsonLdError {
+        if (expanded instanceof List) {
+            for (final Object item : (List<Object>) expanded) {
+                callback.call((Map<String, Object>) item);
+            }
+        } else if (expanded != null) {
+            callback.call((Map<String, Object>) expanded);
+        }
     }
 
     /***
@@ -1035,16 +1345,17 @@ public class JsonLdApi {
      * \_\_|\__, |\___/|_| |_|\__|_| |_|_| |_| |_| |___/
      */
 
-    void generateNodeMap(Object element, Map<String, Object> nodeMap) throws JsonLdError {
-        generateNodeMap(element, nodeMap, JsonLdConsts.DEFAULT, null, null, null);
+    void generateNodeMap(Object element, NodeMap nodeMap) throws JsonLdError {
+        generateNodeMap(element, nodeMap, JsonLdConsts.DEFAULT);
     }
 
-    void generateNodeMap(Object element, Map<String, Object> nodeMap, String activeGraph)
+    void generateNodeMap(Object element, NodeMap nodeMap, String activeGraph)
             throws JsonLdError {
         generateNodeMap(element, nodeMap, activeGraph, null, null, null);
+        nodeMap.dropValueIndexes();
     }
 
-    void generateNodeMap(Object element, Map<String, Object> nodeMap, String activeGraph,
+    void generateNodeMap(Object element, NodeMap nodeMap, String activeGraph,
             Object activeSubject, String activeProperty, Map<String, Object> list)
             throws JsonLdError {
         // 1)
@@ -1060,12 +1371,8 @@ public class JsonLdApi {
         final Map<String, Object> elem = (Map<String, Object>) element;
 
         // 2)
-        if (!nodeMap.containsKey(activeGraph)) {
-            nodeMap.put(activeGraph, newMap());
-        }
-        final Map<String, Object> graph = (Map<String, Object>) nodeMap.get(activeGraph);
-        Map<String, Object> node = (Map<String, Object>) (activeSubject == null ? null
-                : graph.get(activeSubject));
+        final Map<String, NodeObject> graph = nodeMap.graph(activeGraph);
+        NodeObject node = activeSubject instanceof String ? graph.get(activeSubject) : null;
 
         // 3)
         if (elem.containsKey(JsonLdConsts.TYPE)) {
@@ -1096,7 +1403,9 @@ public class JsonLdApi {
         if (elem.containsKey(JsonLdConsts.VALUE)) {
             // 4.1)
             if (list == null) {
-                JsonLdUtils.mergeValue(node, activeProperty, elem);
+                if (node != null) {
+                    node.addValue(activeProperty, elem);
+                }
             }
             // 4.2)
             else {
@@ -1116,7 +1425,9 @@ public class JsonLdApi {
             generateNodeMap(elem.get(JsonLdConsts.LIST), nodeMap, activeGraph, activeSubject,
                     activeProperty, result);
             // 5.3)
-            JsonLdUtils.mergeValue(node, activeProperty, result);
+            if (node != null) {
+                node.addValue(activeProperty, result);
+            }
         }
 
         // 6)
@@ -1133,18 +1444,14 @@ public class JsonLdApi {
                 id = generateBlankNodeIdentifier(null);
             }
             // 6.3)
-            if (!graph.containsKey(id)) {
-                final Map<String, Object> tmp = newMap(JsonLdConsts.ID, id);
-                graph.put(id, tmp);
-            }
+            NodeMap.node(graph, id);
             // 6.4) TODO: SPEC this line is asked for by the spec, but it breaks
             // various tests
-            // node = (Map<String, Object>) graph.get(id);
+            // node = graph.get(id);
             // 6.5)
             if (activeSubject instanceof Map) {
                 // 6.5.1)
-                JsonLdUtils.mergeValue((Map<String, Object>) graph.get(id), activeProperty,
-                        activeSubject);
+                graph.get(id).addValue(activeProperty, activeSubject);
             }
             // 6.6)
             else if (activeProperty != null) {
@@ -1152,7 +1459,9 @@ public class JsonLdApi {
                 // 6.6.2)
                 if (list == null) {
                     // 6.6.2.1+2)
-                    JsonLdUtils.mergeValue(node, activeProperty, reference);
+                    if (node != null) {
+                        node.addValue(activeProperty, reference);
+                    }
                 }
                 // 6.6.3) TODO: SPEC says to add ELEMENT to @list member, should
                 // be REFERENCE
@@ -1162,22 +1471,22 @@ public class JsonLdApi {
             }
             // TODO: SPEC this is removed in the spec now, but it's still needed
             // (see 6.4)
-            node = (Map<String, Object>) graph.get(id);
+            node = graph.get(id);
             // 6.7)
             if (elem.containsKey(JsonLdConsts.TYPE)) {
                 for (final Object type : (List<Object>) elem.remove(JsonLdConsts.TYPE)) {
-                    JsonLdUtils.mergeValue(node, JsonLdConsts.TYPE, type);
+                    node.addType((String) type);
                 }
             }
             // 6.8)
             if (elem.containsKey(JsonLdConsts.INDEX)) {
                 final Object elemIndex = elem.remove(JsonLdConsts.INDEX);
-                if (node.containsKey(JsonLdConsts.INDEX)) {
-                    if (!JsonLdUtils.deepCompare(node.get(JsonLdConsts.INDEX), elemIndex)) {
+                if (node.getIndex() != null) {
+                    if (!JsonLdUtils.deepCompare(node.getIndex(), elemIndex)) {
                         throw new JsonLdError(Error.CONFLICTING_INDEXES);
                     }
                 } else {
-                    node.put(JsonLdConsts.INDEX, elemIndex);
+                    node.setIndex(elemIndex);
                 }
             }
             // 6.9)
@@ -1212,9 +1521,7 @@ public class JsonLdApi {
                     property = generateBlankNodeIdentifier(property);
                 }
                 // 6.11.2)
-                if (!node.containsKey(property)) {
-                    node.put(property, new ArrayList<Object>(4));
-                }
+                node.values(property);
                 // 6.11.3)
                 generateNodeMap(value, nodeMap, activeGraph, id, property, null);
             }
@@ -1323,7 +1630,69 @@ public class JsonLdApi {
         }
     }
 
-    private Map<String, Object> nodeMap;
+    /**
+     * The ids of the nodes of the node map being framed, by each of their
+     * types and by each of their properties, so that the nodes a frame can
+     * match are found without testing every node. Each index is only built
+     * the first time a frame needs it.
+     */
+    private static class FramingIndex {
+        private final Map<String, NodeObject> nodeMap;
+        private Map<String, List<String>> byType;
+        private Map<String, List<String>> byProperty;
+
+        public FramingIndex(Map<String, NodeObject> nodeMap) {
+            this.nodeMap = nodeMap;
+        }
+
+        /**
+         * @return The ids of the nodes having the type, or null if there are
+         *         none.
+         */
+        public List<String> byType(String type) {
+            if (byType == null) {
+                byType = new HashMap<String, List<String>>();
+                for (final Map.Entry<String, NodeObject> entry : nodeMap.entrySet()) {
+                    final Set<String> types = entry.getValue().getTypes();
+                    if (types == null) {
+                        continue;
+                    }
+                    for (final String nodeType : types) {
+                        add(byType, nodeType, entry.getKey());
+                    }
+                }
+            }
+            return byType.get(type);
+        }
+
+        /**
+         * @return The ids of the nodes having the property, or null if there
+         *         are none.
+         */
+        public List<String> byProperty(String property) {
+            if (byProperty == null) {
+                byProperty = new HashMap<String, List<String>>();
+                for (final Map.Entry<String, NodeObject> entry : nodeMap.entrySet()) {
+                    for (final String prop : entry.getValue().getProperties()) {
+                        add(byProperty, prop, entry.getKey());
+                    }
+                }
+            }
+            return byProperty.get(property);
+        }
+
+        private static void add(Map<String, List<String>> index, String key, String id) {
+            List<String> ids = index.get(key);
+            if (ids == null) {
+                ids = new ArrayList<String>();
+                index.put(key, ids);
+            }
+            ids.add(id);
+        }
+    }
+
+    private Map<String, NodeObject> nodeMap;
+    private FramingIndex framingIndex;
 
     /**
      * Performs JSON-LD
@@ -1341,10 +1710,10 @@ public class JsonLdApi {
         // create framing state
         final FramingContext state = new FramingContext(this.opts);
 
-        // use tree map so keys are sorted by default
-        final Map<String, Object> nodes = new TreeMap<String, Object>();
+        final NodeMap nodes = new NodeMap();
         generateNodeMap(input, nodes);
-        this.nodeMap = (Map<String, Object>) nodes.get(JsonLdConsts.DEFAULT);
+        this.nodeMap = nodes.get(JsonLdConsts.DEFAULT);
+        this.framingIndex = new FramingIndex(this.nodeMap);
 
         final List<Object> framed = new ArrayList<Object>();
         // NOTE: frame validation is done by the function not allowing anything
@@ -1377,8 +1746,8 @@ public class JsonLdApi {
      * @throws JsonLdError
      *             If there was an error during framing.
      */
-    private void frame(FramingContext state, Map<String, Object> nodes, Map<String, Object> frame,
-            Object parent, String property) throws JsonLdError {
+    private void frame(FramingContext state, Map<String, NodeObject> nodes,
+            Map<String, Object> frame, Object parent, String property) throws JsonLdError {
 
         // https://json-ld.org/spec/latest/json-ld-framing/#framing-algorithm
 
@@ -1401,7 +1770,7 @@ public class JsonLdApi {
         // Create a list of matched subjects by filtering subjects against frame
         // using the Frame Matching algorithm with state, subjects, frame, and
         // requireAll.
-        final Map<String, Object> matches = filterNodes(state, nodes, frame, requireAll);
+        final Map<String, NodeObject> matches = filterNodes(state, nodes, frame, requireAll);
         final List<String> ids = new ArrayList<String>(matches.keySet());
         Collections.sort(ids);
 
@@ -1415,7 +1784,7 @@ public class JsonLdApi {
         // For each id and associated node object node from the set of matched
         // subjects, ordered by id:
         for (final String id : ids) {
-            final Map<String, Object> subject = (Map<String, Object>) matches.get(id);
+            final NodeObject subject = matches.get(id);
 
             // 5.1
             // Initialize output to a new dictionary with @id and id and add
@@ -1467,18 +1836,20 @@ public class JsonLdApi {
             // Skip 5.5.1
 
             // 5.5.2 For each property and objects in node, ordered by property:
-            final Map<String, Object> element = (Map<String, Object>) matches.get(id);
-            List<String> props = new ArrayList<String>(element.keySet());
+            final NodeObject element = matches.get(id);
+
+            // 5.5.2.1 If property is a keyword, add property and objects to
+            // output.
+            if (element.getIndex() != null) {
+                output.put(JsonLdConsts.INDEX, JsonLdUtils.clone(element.getIndex()));
+            }
+            if (element.getTypes() != null) {
+                output.put(JsonLdConsts.TYPE, new ArrayList<Object>(element.getTypes()));
+            }
+            List<String> props = element.getProperties();
             Collections.sort(props);
             for (final String prop : props) {
 
-                // 5.5.2.1 If property is a keyword, add property and objects to
-                // output.
-                if (isKeyword(prop)) {
-                    output.put(prop, JsonLdUtils.clone(element.get(prop)));
-                    continue;
-                }
-
                 // 5.5.2.2 Otherwise, if property is not in frame, and explicit
                 // is true, processors
                 // MUST NOT add any values for property to output, and the
@@ -1488,7 +1859,7 @@ public class JsonLdApi {
                 }
 
                 // add objects
-                final List<Object> value = (List<Object>) element.get(prop);
+                final List<Object> value = element.getValues(prop);
 
                 // 5.5.2.3 For each item in objects:
                 for (final Object item : value) {
@@ -1504,7 +1875,7 @@ public class JsonLdApi {
                                 .get(JsonLdConsts.LIST)) {
                             // 5.5.2.3.1.1 recurse into subject reference
                             if (JsonLdUtils.isNodeReference(listitem)) {
-                                final Map<String, Object> tmp = newMap();
+                                final Map<String, NodeObject> tmp = new LinkedHashMap<String, NodeObject>();
                                 final String itemid = (String) ((Map<String, Object>) listitem)
                                         .get(JsonLdConsts.ID);
                                 // TODO: nodes may need to be node_map,
@@ -1528,7 +1899,7 @@ public class JsonLdApi {
                     }
                     // recurse into subject reference
                     else if (JsonLdUtils.isNodeReference(item)) {
-                        final Map<String, Object> tmp = newMap();
+                        final Map<String, NodeObject> tmp = new LinkedHashMap<String, NodeObject>();
                         final String itemid = (String) ((Map<String, Object>) item)
                                 .get(JsonLdConsts.ID);
                         // TODO: nodes may need to be node_map, which is
@@ -1693,11 +2064,19 @@ public class JsonLdApi {
         }
     }
 
-    private Map<String, Object> filterNodes(FramingContext state, Map<String, Object> nodes,
-            Map<String, Object> frame, boolean requireAll) throws JsonLdError {
-        final Map<String, Object> rval = newMap();
-        for (final String id : nodes.keySet()) {
-            final Map<String, Object> element = (Map<String, Object>) nodes.get(id);
+    private Map<String, NodeObject> filterNodes(FramingContext state,
+            Map<String, NodeObject> nodes, Map<String, Object> frame, boolean requireAll)
+            throws JsonLdError {
+        Collection<String> ids = null;
+        if (nodes == this.nodeMap) {
+            ids = candidateIds(frame);
+        }
+        if (ids == null) {
+            ids = nodes.keySet();
+        }
+        final Map<String, NodeObject> rval = new LinkedHashMap<String, NodeObject>();
+        for (final String id : ids) {
+            final NodeObject element = nodes.get(id);
             if (element != null && filterNode(state, element, frame, requireAll)) {
                 rval.put(id, element);
             }
@@ -1705,8 +2084,80 @@ public class JsonLdApi {
         return rval;
     }
 
-    private boolean filterNode(FramingContext state, Map<String, Object> node,
-            Map<String, Object> frame, boolean requireAll) throws JsonLdError {
+    /**
+     * Finds the ids of the nodes of the node map that may match the frame,
+     * following the same steps as
+     * {@link #filterNode(FramingContext, NodeObject, Map, boolean)}, which still has
+     * to be applied to each of them.
+     *
+     * @return The ids, or null if every node has to be tested.
+     */
+    private Collection<String> candidateIds(Map<String, Object> frame) {
+        final Object frameIds = frame.get(JsonLdConsts.ID);
+        if (frameIds != null) {
+            if (frameIds instanceof String) {
+                return Collections.singletonList((String) frameIds);
+            }
+            if (!(frameIds instanceof List)) {
+                return null;
+            }
+            final Set<String> ids = new LinkedHashSet<String>();
+            for (final Object id : (List<Object>) frameIds) {
+                if (id instanceof String) {
+                    ids.add((String) id);
+                }
+            }
+            return ids;
+        }
+        final Object types = frame.get(JsonLdConsts.TYPE);
+        if (types != null) {
+            if (!(types instanceof List) || (((List<Object>) types).size() == 1
+                    && ((List<Object>) types).get(0) instanceof Map)) {
+                // a wildcard, or an error to be reported by filterNode
+                return null;
+            }
+            final Set<String> ids = new LinkedHashSet<String>();
+            for (final Object type : (List<Object>) types) {
+                final List<String> typed = type instanceof String
+                        ? framingIndex.byType((String) type)
+                        : null;
+                if (typed != null) {
+                    ids.addAll(typed);
+                }
+            }
+            return ids;
+        }
+        // every property of the frame without a default is required, so the
+        // nodes having the rarest of them are the only candidates
+        List<String> rval = null;
+        for (final String key : frame.keySet()) {
+            if (isKeyword(key) || hasFrameDefault(frame.get(key))) {
+                continue;
+            }
+            List<String> ids = framingIndex.byProperty(key);
+            if (ids == null) {
+                ids = Collections.emptyList();
+            }
+            if (rval == null || ids.size() < rval.size()) {
+                rval = ids;
+            }
+        }
+        return rval;
+    }
+
+    private static boolean hasFrameDefault(Object frameObject) {
+        if (frameObject instanceof ArrayList) {
+            for (final Object oo : (ArrayList<Object>) frameObject) {
+                if (oo instanceof Map && ((Map) oo).containsKey(JsonLdConsts.DEFAULT)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean filterNode(FramingContext state, NodeObject node, Map<String, Object> frame,
+            boolean requireAll) throws JsonLdError {
         final Object types = frame.get(JsonLdConsts.TYPE);
         final Object frameIds = frame.get(JsonLdConsts.ID);
         // https://json-ld.org/spec/latest/json-ld-framing/#frame-matching
@@ -1715,26 +2166,17 @@ public class JsonLdApi {
         // blank node in the @id property in frame.
         if (frameIds != null) {
             if (frameIds instanceof String) {
-                final Object nodeId = node.get(JsonLdConsts.ID);
-                if (nodeId == null) {
-                    return false;
-                }
-                if (JsonLdUtils.deepCompare(nodeId, frameIds)) {
+                if (node.getId().equals(frameIds)) {
                     return true;
                 }
             } else if (frameIds instanceof LinkedHashMap
                     && ((LinkedHashMap) frameIds).size() == 0) {
-                if (node.containsKey(JsonLdConsts.ID)) {
-                    return true;
-                }
-                return false;
+                // every node has an @id
+                return true;
             } else if (!(frameIds instanceof List)) {
                 throw new JsonLdError(Error.SYNTAX_ERROR, "frame @id must be an array");
             } else {
-                final Object nodeId = node.get(JsonLdConsts.ID);
-                if (nodeId == null) {
-                    return false;
-                }
+                final String nodeId = node.getId();
                 for (final Object j : (List<Object>) frameIds) {
                     if (JsonLdUtils.deepCompare(nodeId, j)) {
                         return true;
@@ -1755,15 +2197,13 @@ public class JsonLdApi {
             if (!(types instanceof List)) {
                 throw new JsonLdError(Error.SYNTAX_ERROR, "frame @type must be an array");
             }
-            Object nodeTypes = node.get(JsonLdConsts.TYPE);
+            Set<String> nodeTypes = node.getTypes();
             if (nodeTypes == null) {
-                nodeTypes = new ArrayList<Object>();
-            } else if (!(nodeTypes instanceof List)) {
-                throw new JsonLdError(Error.SYNTAX_ERROR, "node @type must be an array");
+                nodeTypes = Collections.emptySet();
             }
             // 3.1.1 Property matches if the @type property in frame includes
             // any IRI in values.
-            for (final Object i : (List<Object>) nodeTypes) {
+            for (final Object i : nodeTypes) {
                 for (final Object j : (List<Object>) types) {
                     if (JsonLdUtils.deepCompare(i, j)) {
                         return true;
@@ -1775,32 +2215,17 @@ public class JsonLdApi {
             // @type property in frame is match none.
             if (((List<Object>) types).size() == 1 && ((List<Object>) types).get(0) instanceof Map
                     && ((Map<String, Object>) ((List<Object>) types).get(0)).size() == 0) {
-                return !((List<Object>) nodeTypes).isEmpty();
+                return !nodeTypes.isEmpty();
             }
             // 3.1.4 Otherwise, property does not match.
             return false;
         }
         // 3.2
         for (final String key : frame.keySet()) {
-            if (!isKeyword(key) && !(node.containsKey(key))) {
-
-                final Object frameObject = frame.get(key);
-                if (frameObject instanceof ArrayList) {
-                    final ArrayList<Object> o = (ArrayList<Object>) frame.get(key);
-
-                    boolean _default = false;
-                    for (final Object oo : o) {
-                        if (oo instanceof Map) {
-                            if (((Map) oo).containsKey(JsonLdConsts.DEFAULT)) {
-                                _default = true;
-                            }
-                        }
-                    }
-                    if (_default) {
-                        continue;
-                    }
+            if (!isKeyword(key) && node.getValues(key) == null) {
+                if (hasFrameDefault(frame.get(key))) {
+                    continue;
                 }
-
                 return false;
             }
         }
@@ -1937,14 +2362,14 @@ public class JsonLdApi {
     }
 
     /**
-     * Converts RDF statements into JSON-LD, presuming that there are no
-     * duplicates in the dataset.
+     * Converts RDF statements into JSON-LD.
      *
      * @param dataset
      *            the RDF statements.
      * @param noDuplicatesInDataset
-     *            True if there are no duplicates in the dataset and false
-     *            otherwise.
+     *            True if there are no duplicates in the dataset, so that
+     *            values are added without checking whether they are already
+     *            present, and false otherwise.
      * @return A list of JSON-LD objects found in the given dataset.
      * @throws JsonLdError
      *             If there was an error during conversion from RDF to JSON-LD.
@@ -2027,6 +2452,12 @@ public class JsonLdApi {
             }
         }
 
+        for (final Map<String, NodeMapNode> graph : graphMap.values()) {
+            for (final NodeMapNode node : graph.values()) {
+                JsonLdUtils.dropValueIndexes(node);
+            }
+        }
+
         // 4)
         for (final String name : graphMap.keySet()) {
             final Map<String, NodeMapNode> graph = graphMap.get(name);
@@ -2145,11 +2576,7 @@ public class JsonLdApi {
      *             If there was an error converting from JSON-LD to RDF.
      */
     public RDFDataset toRDF() throws JsonLdError {
-        // TODO: make the default generateNodeMap call (i.e. without a
-        // graphName) create and return the nodeMap
-        final Map<String, Object> nodeMap = newMap();
-        nodeMap.put(JsonLdConsts.DEFAULT, newMap());
-        generateNodeMap(this.value, nodeMap);
+        final NodeMap nodeMap = createNodeMap(this.value);
 
         final RDFDataset dataset = new RDFDataset(this);
 
@@ -2158,13 +2585,74 @@ public class JsonLdApi {
             if (JsonLdUtils.isRelativeIri(graphName)) {
                 continue;
             }
-            final Map<String, Object> graph = (Map<String, Object>) nodeMap.get(graphName);
-            dataset.graphToRDF(graphName, graph);
+            dataset.graphToRDF(graphName, nodeMap.get(graphName));
         }
 
         return dataset;
     }
 
+    /**
+     * Passes the RDF triples for each graph in the current node map to the
+     * given sink, rather than collecting them in an RDF dataset. The
+     * {@link QuadSink#start()} and {@link QuadSink#end()} methods of the sink
+     * are not called.
+     *
+     * @param sink
+     *            The sink to pass the quads to.
+     * @throws JsonLdError
+     *             If there was an error converting from JSON-LD to RDF.
+     */
+    public void toRDF(QuadSink sink) throws JsonLdError {
+        graphsToRDF(createNodeMap(this.value), sink);
+    }
+
+    /**
+     * Converts a single expanded top level object to RDF, passing the quads to
+     * the given sink rather than collecting them in an RDF dataset.
+     *
+     * Only a node map for the given object is generated, so memory use does
+     * not grow with the number of objects converted. Blank node identifiers
+     * in the object are scoped to the object itself: the same identifier used
+     * in two top level objects denotes two different blank nodes. Blank nodes
+     * are still named uniquely across all objects converted by this instance.
+     * Quads are not de-duplicated across objects.
+     *
+     * @param element
+     *            An expanded top level object, as passed to a
+     *            {@link JsonLdNodeCallback}. It may be modified.
+     * @param sink
+     *            The sink to pass the quads to.
+     * @throws JsonLdError
+     *             If there was an error converting from JSON-LD to RDF.
+     */
+    public void toRDF(Map<String, Object> element, QuadSink sink) throws JsonLdError {
+        graphsToRDF(createNodeMap(element), sink);
+        // blank node identifiers are scoped to the top level object
+        blankNodeIdentifierMap.clear();
+    }
+
+    private NodeMap createNodeMap(Object element) throws JsonLdError {
+        // TODO: make the default generateNodeMap call (i.e. without a
+        // graphName) create and return the nodeMap
+        final NodeMap nodeMap = new NodeMap();
+        generateNodeMap(element, nodeMap);
+        return nodeMap;
+    }
+
+    private void graphsToRDF(NodeMap nodeMap, QuadSink sink) throws JsonLdError {
+        final RDFDataset dataset = new RDFDataset(this);
+        for (final String graphName : nodeMap.keySet()) {
+            // 4.1)
+            if (JsonLdUtils.isRelativeIri(graphName)) {
+                continue;
+            }
+            for (final RDFDataset.Quad quad : dataset.graphToQuads(graphName,
+                    nodeMap.get(graphName))) {
+                sink.quad(quad);
+            }
+        }
+    }
+
     /***
      * _ _ _ _ _ _ _ _ _ _ _ | \ | | ___ _ __ _ __ ___ __ _| (_)______ _| |_(_)
      * ___ _ __ / \ | | __ _ ___ _ __(_) |_| |__ _ __ ___ | \| |/ _ \| '__| '_ `
@@ -2185,6 +2673,34 @@ public class JsonLdApi {
      *             If there was an error while normalizing.
      */
     public Object normalize(Map<String, Object> dataset) throws JsonLdError {
+        return normalize(dataset, null);
+    }
+
+    /**
+     * Performs RDF normalization on the given JSON-LD input, writing the
+     * normalized N-Quads to the given output.
+     *
+     * @param dataset
+     *            the expanded JSON-LD object to normalize.
+     * @param output
+     *            the output to write the normalized N-Quads to, or null to
+     *            return the normalized dataset as for
+     *            {@link #normalize(Map)}.
+     * @return The output if it was given, otherwise the normalized JSON-LD
+     *         object
+     * @throws JsonLdError
+     *             If there was an error while normalizing, or writing to the
+     *             output.
+     */
+    public Object normalize(Map<String, Object> dataset, Appendable output) throws JsonLdError {
+        final String algorithm = opts.getNormalizationAlgorithm();
+        if (JsonLdOptions.URDNA2015.equals(algorithm)) {
+            return new Urdna2015Normalizer(opts, output).normalize(dataset);
+        } else if (algorithm != null && !JsonLdOptions.URGNA2012.equals(algorithm)) {
+            throw new JsonLdError(JsonLdError.Error.NOT_IMPLEMENTED,
+                    "Unknown normalization algorithm: " + algorithm);
+        }
+
         // create quads and map bnodes to their associated quads
         final List<Object> quads = new ArrayList<Object>();
         final Map<String, Object> bnodes = newMap();
@@ -2194,19 +2710,11 @@ public class JsonLdApi {
             if (JsonLdConsts.DEFAULT.equals(graphName)) {
                 graphName = null;
             }
-            for (final Map<String, Object> quad : triples) {
-                if (graphName != null) {
-                    if (graphName.indexOf("_:") == 0) {
-                        final Map<String, Object> tmp = newMap();
-                        tmp.put("type", "blank node");
-                        tmp.put("value", graphName);
-                        quad.put("name", tmp);
-                    } else {
-                        final Map<String, Object> tmp = newMap();
-                        tmp.put("type", "IRI");
-                        tmp.put("value", graphName);
-                        quad.put("name", tmp);
-                    }
+            for (final Map<String, Object> triple : triples) {
+                RDFDataset.Quad quad = (RDFDataset.Quad) triple;
+                if (graphName != null && quad.getGraph() == null) {
+                    quad = new RDFDataset.Quad(quad.getSubject(), quad.getPredicate(),
+                            quad.getObject(), graphName);
                 }
                 quads.add(quad);
 
@@ -2232,7 +2740,7 @@ public class JsonLdApi {
 
         // mapping complete, start canonical naming
         final NormalizeUtils normalizeUtils = new NormalizeUtils(quads, bnodes,
-                new UniqueNamer("_:c14n"), opts);
+                new UniqueNamer("_:c14n"), opts, output);
         return normalizeUtils.hashBlankNodes(bnodes.keySet());
     }
 
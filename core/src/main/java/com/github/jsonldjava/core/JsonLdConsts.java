@@ -62,4 +62,71 @@ public final class JsonLdConsts {
     public enum Embed {
         ALWAYS, NEVER, LAST, LINK;
     }
+
+    /**
+     * The keywords recognized by {@link JsonLdUtils#isKeyword(Object)}, so
+     * that the algorithms can switch on a keyword instead of comparing it
+     * with each of them in turn.
+     */
+    enum Keyword {
+        BASE, CONTAINER, CONTEXT, DEFAULT, EMBED, EXPLICIT, GRAPH, ID, INDEX, LANGUAGE, LIST,
+        OMIT_DEFAULT, PRESERVE, REQUIRE_ALL, REVERSE, SET, TYPE, VALUE, VOCAB;
+
+        /**
+         * @param key
+         *            the value to check.
+         * @return the keyword, or null if the value is not a keyword.
+         */
+        static Keyword of(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            final String string = (String) key;
+            if (string.length() < 3 || string.charAt(0) != '@') {
+                return null;
+            }
+            switch (string) {
+            case JsonLdConsts.BASE:
+                return BASE;
+            case JsonLdConsts.CONTAINER:
+                return CONTAINER;
+            case JsonLdConsts.CONTEXT:
+                return CONTEXT;
+            case JsonLdConsts.DEFAULT:
+                return DEFAULT;
+            case JsonLdConsts.EMBED:
+                return EMBED;
+            case JsonLdConsts.EXPLICIT:
+                return EXPLICIT;
+            case JsonLdConsts.GRAPH:
+                return GRAPH;
+            case JsonLdConsts.ID:
+                return ID;
+            case JsonLdConsts.INDEX:
+                return INDEX;
+            case JsonLdConsts.LANGUAGE:
+                return LANGUAGE;
+            case JsonLdConsts.LIST:
+                return LIST;
+            case JsonLdConsts.OMIT_DEFAULT:
+                return OMIT_DEFAULT;
+            case JsonLdConsts.PRESERVE:
+                return PRESERVE;
+            case JsonLdConsts.REQUIRE_ALL:
+                return REQUIRE_ALL;
+            case JsonLdConsts.REVERSE:
+                return REVERSE;
+            case JsonLdConsts.SET:
+                return SET;
+            case JsonLdConsts.TYPE:
+                return TYPE;
+            case JsonLdConsts.VALUE:
+                return VALUE;
+            case JsonLdConsts.VOCAB:
+                return VOCAB;
+            default:
+                return null;
+            }
+        }
+    }
 }
\ No newline at end of file
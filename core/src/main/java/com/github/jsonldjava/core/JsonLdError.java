@@ -113,6 +113,10 @@ public class JsonLdError extends RuntimeException {
 
         PARSE_ERROR("parse error"),
 
+        IO_ERROR("io error"),
+
+        NORMALIZATION_BUDGET_EXCEEDED("normalization budget exceeded"),
+
         UNKNOWN_ERROR("unknown error");
 
         private final String error;
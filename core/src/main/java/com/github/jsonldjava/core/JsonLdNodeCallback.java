@@ -0,0 +1,23 @@
+package com.github.jsonldjava.core;
+
+import java.util.Map;
+
+/**
+ * Receives the expanded top level objects of a JSON-LD document one at a time,
+ * as they are produced by
+ * {@link JsonLdProcessor#expand(com.fasterxml.jackson.core.JsonParser, JsonLdOptions, JsonLdNodeCallback)}.
+ */
+public interface JsonLdNodeCallback {
+
+    /**
+     * Called for each expanded top level object, in document order.
+     *
+     * @param node
+     *            The expanded object, which is exactly one of the elements of
+     *            the array that {@link JsonLdProcessor#expand(Object)} would
+     *            have returned for the whole document.
+     * @throws JsonLdError
+     *             To stop the expansion.
+     */
+    public void call(Map<String, Object> node) throws JsonLdError;
+}
@@ -1,5 +1,7 @@
 package com.github.jsonldjava.core;
 
+import java.util.concurrent.Executor;
+
 import com.github.jsonldjava.core.JsonLdConsts.Embed;
 
 /**
@@ -18,6 +20,18 @@ public class JsonLdOptions {
 
     public static final boolean DEFAULT_COMPACT_ARRAYS = true;
 
+    /**
+     * The normalization algorithm used by default, which is the one described
+     * in the JSON-LD specification.
+     */
+    public static final String URGNA2012 = "URGNA2012";
+
+    /**
+     * The <a href="https://www.w3.org/TR/rdf-canon/">RDF Dataset
+     * Canonicalization</a> normalization algorithm.
+     */
+    public static final String URDNA2015 = "URDNA2015";
+
     /**
      * Constructs an instance of JsonLdOptions using an empty base.
      */
@@ -50,6 +64,7 @@ public class JsonLdOptions {
         copy.setExpandContext(expandContext);
         copy.setProcessingMode(processingMode);
         copy.setDocumentLoader(documentLoader);
+        copy.setContextCache(contextCache);
         copy.setEmbed(embed);
         copy.setExplicit(explicit);
         copy.setOmitDefault(omitDefault);
@@ -61,6 +76,9 @@ public class JsonLdOptions {
         copy.setUseRdfType(useRdfType);
         copy.setUseNativeTypes(useNativeTypes);
         copy.setProduceGeneralizedRdf(produceGeneralizedRdf);
+        copy.setNormalizationAlgorithm(normalizationAlgorithm);
+        copy.setNormalizationBudget(normalizationBudget);
+        copy.setExecutor(executor);
         copy.format = format;
         copy.useNamespaces = useNamespaces;
         copy.outputForm = outputForm;
@@ -91,6 +109,10 @@ public class JsonLdOptions {
      * http://www.w3.org/TR/json-ld-api/#widl-JsonLdOptions-documentLoader
      */
     private DocumentLoader documentLoader = new DocumentLoader();
+    /**
+     * Shared cache of processed contexts, disabled by default.
+     */
+    private ContextCache contextCache = null;
 
     // Frame options : http://json-ld.org/spec/latest/json-ld-framing/
 
@@ -110,6 +132,12 @@ public class JsonLdOptions {
     Boolean useNativeTypes = false;
     private boolean produceGeneralizedRdf = false;
 
+    // Normalization options
+
+    private String normalizationAlgorithm = URGNA2012;
+    private long normalizationBudget = 0;
+    private Executor executor = null;
+
     public String getEmbed() {
         switch (this.embed) {
         case ALWAYS:
@@ -286,6 +314,60 @@ public class JsonLdOptions {
         this.produceGeneralizedRdf = produceGeneralizedRdf;
     }
 
+    public String getNormalizationAlgorithm() {
+        return normalizationAlgorithm;
+    }
+
+    /**
+     * Sets the algorithm used to normalize datasets.
+     *
+     * @param normalizationAlgorithm
+     *            Either {@link #URGNA2012}, the default, or {@link #URDNA2015}.
+     */
+    public void setNormalizationAlgorithm(String normalizationAlgorithm) {
+        this.normalizationAlgorithm = normalizationAlgorithm;
+    }
+
+    public long getNormalizationBudget() {
+        return normalizationBudget;
+    }
+
+    /**
+     * Limits the number of permutations of blank nodes tried while
+     * normalizing, so that datasets with many indistinguishable blank nodes
+     * fail with {@link JsonLdError.Error#NORMALIZATION_BUDGET_EXCEEDED}
+     * rather than take an exponential time.
+     *
+     * @param normalizationBudget
+     *            The maximum number of permutations, or 0 for no limit, which
+     *            is the default.
+     */
+    public void setNormalizationBudget(long normalizationBudget) {
+        this.normalizationBudget = normalizationBudget;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor used to run independent parts of the processing
+     * concurrently, such as expanding the elements of large top level arrays
+     * and hashing blank nodes while normalizing. The output is the same as
+     * without an executor.
+     *
+     * The calling thread waits for the tasks it submits, so it should not be
+     * a thread of the executor.
+     *
+     * @param executor
+     *            The executor to use, for instance a
+     *            {@link java.util.concurrent.ForkJoinPool}, or null, the
+     *            default, to do all processing on the calling thread.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
     public DocumentLoader getDocumentLoader() {
         return documentLoader;
     }
@@ -294,6 +376,22 @@ public class JsonLdOptions {
         this.documentLoader = documentLoader;
     }
 
+    public ContextCache getContextCache() {
+        return contextCache;
+    }
+
+    /**
+     * Sets the cache used to look up and store processed contexts. The same
+     * cache may be set on any number of options, and used from any number of
+     * threads.
+     *
+     * @param contextCache
+     *            The cache to use, or null to process every context afresh.
+     */
+    public void setContextCache(ContextCache contextCache) {
+        this.contextCache = contextCache;
+    }
+
     // TODO: THE FOLLOWING ONLY EXIST SO I DON'T HAVE TO DELETE A LOT OF CODE,
     // REMOVE IT WHEN DONE
     public String format = null;
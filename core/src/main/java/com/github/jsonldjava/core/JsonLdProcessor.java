@@ -2,15 +2,20 @@ package com.github.jsonldjava.core;
 
 import static com.github.jsonldjava.utils.Obj.newMap;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.jsonldjava.core.JsonLdError.Error;
 import com.github.jsonldjava.impl.NQuadRDFParser;
 import com.github.jsonldjava.impl.NQuadTripleCallback;
+import com.github.jsonldjava.utils.JsonUtils;
 
 /**
  * This class implements the <a href=
@@ -48,12 +53,156 @@ public class JsonLdProcessor {
         // 2-6) NOTE: these are all the same steps as in expand
         final Object expanded = expand(input, opts);
         // 7)
-        if (context instanceof Map
-                && ((Map<String, Object>) context).containsKey(JsonLdConsts.CONTEXT)) {
-            context = ((Map<String, Object>) context).get(JsonLdConsts.CONTEXT);
-        }
+        context = unwrapContext(context);
+        Context activeCtx = new Context(opts);
+        activeCtx = activeCtx.parse(context);
+        return compact(expanded, context, activeCtx, opts);
+    }
+
+    /**
+     * Compacts the given input using the context, and writes the result to the
+     * given generator rather than returning it.
+     *
+     * Each top level node is written as soon as it has been compacted, so the
+     * compacted document is never held in memory as a whole. The output is
+     * the same as writing the result of
+     * {@link #compact(Object, Object, JsonLdOptions)}.
+     *
+     * @param input
+     *            The input JSON-LD object, which may also be a Jackson
+     *            {@link JsonNode}.
+     * @param context
+     *            The context object to use for the compaction algorithm.
+     * @param opts
+     *            The {@link JsonLdOptions} that are to be sent to the
+     *            compaction algorithm.
+     * @param output
+     *            The generator to write the compacted JSON-LD document to. It
+     *            is neither flushed nor closed.
+     * @throws JsonLdError
+     *             If there is an error while compacting, or writing to the
+     *             generator.
+     */
+    public static void compact(Object input, Object context, JsonLdOptions opts,
+            JsonGenerator output) throws JsonLdError {
+        final List<Object> expanded = expand(input, opts);
+        context = unwrapContext(context);
         Context activeCtx = new Context(opts);
         activeCtx = activeCtx.parse(context);
+        final JsonLdApi api = new JsonLdApi(opts);
+        try {
+            output.writeStartObject();
+            // a single node is the document itself, when arrays are compacted
+            Object single = null;
+            GraphWriter graph = null;
+            for (int i = 0; i < expanded.size(); i++) {
+                final Object compacted = api.compact(activeCtx, null, expanded.get(i),
+                        opts.getCompactArrays());
+                expanded.set(i, null);
+                if (compacted == null) {
+                    continue;
+                }
+                if (graph == null && single == null && opts.getCompactArrays()) {
+                    single = compacted;
+                    continue;
+                }
+                if (graph == null) {
+                    // TODO: SPEC: doesn't specify to use vocab = true here
+                    output.writeFieldName(activeCtx.compactIri(JsonLdConsts.GRAPH, true));
+                    graph = new GraphWriter(output, false);
+                    if (single != null) {
+                        graph.add(single);
+                        single = null;
+                    }
+                }
+                graph.add(compacted);
+            }
+            if (graph != null) {
+                graph.end();
+            } else if (single != null) {
+                for (final Map.Entry<String, Object> entry : ((Map<String, Object>) single)
+                        .entrySet()) {
+                    if (!JsonLdConsts.CONTEXT.equals(entry.getKey())) {
+                        output.writeFieldName(entry.getKey());
+                        JsonUtils.write(output, entry.getValue());
+                    }
+                }
+            }
+            final Object returnedContext = returnedContext(context, opts);
+            if (returnedContext != null) {
+                output.writeFieldName(JsonLdConsts.CONTEXT);
+                JsonUtils.write(output, returnedContext);
+            }
+            output.writeEndObject();
+        } catch (final IOException e) {
+            throw new JsonLdError(Error.IO_ERROR, "Error while writing JSON", e);
+        }
+    }
+
+    /**
+     * Writes the nodes of a graph, holding back the first one until it is
+     * known whether it is the only one.
+     */
+    private static class GraphWriter {
+        private final JsonGenerator output;
+        private final boolean compactArray;
+        private Object first;
+        private boolean started;
+
+        /**
+         * @param compactArray
+         *            Whether a single node is written without an array.
+         */
+        GraphWriter(JsonGenerator output, boolean compactArray) {
+            this.output = output;
+            this.compactArray = compactArray;
+        }
+
+        void add(Object node) throws IOException {
+            if (!started && first == null && compactArray) {
+                first = node;
+                return;
+            }
+            if (!started) {
+                output.writeStartArray();
+                started = true;
+                if (first != null) {
+                    JsonUtils.write(output, first);
+                    first = null;
+                }
+            }
+            JsonUtils.write(output, node);
+        }
+
+        void end() throws IOException {
+            if (started) {
+                output.writeEndArray();
+            } else if (first != null) {
+                JsonUtils.write(output, first);
+            } else {
+                output.writeStartArray();
+                output.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Compacts the given expanded input using the already processed context.
+     *
+     * @param expanded
+     *            The expanded JSON-LD object.
+     * @param context
+     *            The context, as given to compact, used in the result.
+     * @param activeCtx
+     *            The processed context.
+     * @param opts
+     *            The options to compact with.
+     * @return The compacted JSON-LD document
+     * @throws JsonLdError
+     *             If there is an error while compacting.
+     */
+    static Map<String, Object> compact(Object expanded, Object context, Context activeCtx,
+            JsonLdOptions opts) throws JsonLdError {
         // 8)
         Object compacted = new JsonLdApi(opts).compact(activeCtx, null, expanded,
                 opts.getCompactArrays());
@@ -83,6 +232,18 @@ public class JsonLdProcessor {
         return (Map<String, Object>) compacted;
     }
 
+    /**
+     * @return The value of the <code>@context</code> member of the given
+     *         context if it has one, otherwise the context itself.
+     */
+    static Object unwrapContext(Object context) {
+        if (context instanceof Map
+                && ((Map<String, Object>) context).containsKey(JsonLdConsts.CONTEXT)) {
+            return ((Map<String, Object>) context).get(JsonLdConsts.CONTEXT);
+        }
+        return context;
+    }
+
     /**
      * Expands the given input according to the steps in the
      * <a href="http://www.w3.org/TR/json-ld-api/#expansion-algorithm">Expansion
@@ -119,18 +280,29 @@ public class JsonLdProcessor {
             }
         }
 
-        // 3)
-        Context activeCtx = new Context(opts);
-        // 4)
-        if (opts.getExpandContext() != null) {
-            Object exCtx = opts.getExpandContext();
-            if (exCtx instanceof Map
-                    && ((Map<String, Object>) exCtx).containsKey(JsonLdConsts.CONTEXT)) {
-                exCtx = ((Map<String, Object>) exCtx).get(JsonLdConsts.CONTEXT);
-            }
-            activeCtx = activeCtx.parse(exCtx);
-        }
+        // 3 + 4)
+        return expand(input, expandContext(opts), opts);
+    }
 
+    /**
+     * Expands the given input, which is not a document to load, starting
+     * from the given initial context.
+     *
+     * @param input
+     *            The input JSON-LD object.
+     * @param activeCtx
+     *            The initial context, see {@link #expandContext(JsonLdOptions)}.
+     * @param opts
+     *            The options to expand with.
+     * @return The expanded JSON-LD document
+     * @throws JsonLdError
+     *             If there is an error while expanding.
+     */
+    static List<Object> expand(Object input, Context activeCtx, JsonLdOptions opts)
+            throws JsonLdError {
+        if (input instanceof JsonNode) {
+            input = JsonNodeView.of((JsonNode) input);
+        }
         // 5)
         // TODO: add support for getting a context from HTTP when content-type
         // is set to a jsonld compatable format
@@ -155,6 +327,46 @@ public class JsonLdProcessor {
         return (List<Object>) expanded;
     }
 
+    /**
+     * Expands the JSON-LD document read from the given parser, passing each
+     * expanded top level object to the given callback as soon as it has been
+     * expanded, rather than returning them all at once.
+     *
+     * Only a single top level object is held in memory at a time, so
+     * arbitrarily large documents can be expanded, as long as they are a top
+     * level array of objects, or a top level object with only a
+     * <code>@context</code> member followed by a <code>@graph</code> member.
+     * See {@link JsonLdApi#expand(Context, JsonParser, JsonLdNodeCallback)}.
+     *
+     * @param input
+     *            The parser to read the JSON-LD document from.
+     * @param opts
+     *            The {@link JsonLdOptions} that are to be sent to the expansion
+     *            algorithm.
+     * @param callback
+     *            The callback receiving the expanded top level objects, in the
+     *            order they would appear in the result of
+     *            {@link #expand(Object, JsonLdOptions)}.
+     * @throws JsonLdError
+     *             If there is an error while expanding or reading the document.
+     */
+    public static void expand(JsonParser input, JsonLdOptions opts, JsonLdNodeCallback callback)
+            throws JsonLdError {
+        new JsonLdApi(opts).expand(expandContext(opts), input, callback);
+    }
+
+    /**
+     * @return The initial context for expansion, including the expandContext
+     *         from the options, if any.
+     */
+    static Context expandContext(JsonLdOptions opts) throws JsonLdError {
+        Context activeCtx = new Context(opts);
+        if (opts.getExpandContext() != null) {
+            activeCtx = activeCtx.parse(unwrapContext(opts.getExpandContext()));
+        }
+        return activeCtx;
+    }
+
     /**
      * Expands the given input according to the steps in the
      * <a href="http://www.w3.org/TR/json-ld-api/#expansion-algorithm">Expansion
@@ -172,52 +384,56 @@ public class JsonLdProcessor {
 
     public static Object flatten(Object input, Object context, JsonLdOptions opts)
             throws JsonLdError {
-        // 2-6) NOTE: these are all the same steps as in expand
-        final Object expanded = expand(input, opts);
         // 7)
-        if (context instanceof Map
-                && ((Map<String, Object>) context).containsKey(JsonLdConsts.CONTEXT)) {
-            context = ((Map<String, Object>) context).get(JsonLdConsts.CONTEXT);
+        context = unwrapContext(context);
+        final List<Object> flattened = flattenNodes(input, opts);
+        // 8)
+        if (context != null && !flattened.isEmpty()) {
+            Context activeCtx = new Context(opts);
+            activeCtx = activeCtx.parse(context);
+            // TODO: only instantiate one jsonldapi
+            Object compacted = new JsonLdApi(opts).compact(activeCtx, null, flattened,
+                    opts.getCompactArrays());
+            if (!(compacted instanceof List)) {
+                final List<Object> tmp = new ArrayList<Object>();
+                tmp.add(compacted);
+                compacted = tmp;
+            }
+            final String alias = activeCtx.compactIri(JsonLdConsts.GRAPH);
+            final Map<String, Object> rval = newMap();
+            final Object returnedContext = returnedContext(context, opts);
+            if(returnedContext != null) {
+                rval.put(JsonLdConsts.CONTEXT, returnedContext);
+            }
+            rval.put(alias, compacted);
+            return rval;
         }
+        return flattened;
+    }
+
+    /**
+     * Expands and flattens the given input, without compacting it.
+     *
+     * @return The top level nodes of the flattened document, sorted by
+     *         <code>@id</code>.
+     */
+    private static List<Object> flattenNodes(Object input, JsonLdOptions opts)
+            throws JsonLdError {
+        // 2-6) NOTE: these are all the same steps as in expand
+        final Object expanded = expand(input, opts);
         // 8) NOTE: blank node generation variables are members of JsonLdApi
         // 9) NOTE: the next block is the Flattening Algorithm described in
         // http://json-ld.org/spec/latest/json-ld-api/#flattening-algorithm
 
         // 1)
-        final Map<String, Object> nodeMap = newMap();
-        nodeMap.put(JsonLdConsts.DEFAULT, newMap());
+        final NodeMap nodeMap = new NodeMap();
         // 2)
         new JsonLdApi(opts).generateNodeMap(expanded, nodeMap);
         // 3)
-        final Map<String, Object> defaultGraph = (Map<String, Object>) nodeMap
-                .remove(JsonLdConsts.DEFAULT);
-        // 4)
+        final Map<String, NodeObject> defaultGraph = nodeMap.remove(JsonLdConsts.DEFAULT);
+        // 4.1+4.2)
         for (final String graphName : nodeMap.keySet()) {
-            final Map<String, Object> graph = (Map<String, Object>) nodeMap.get(graphName);
-            // 4.1+4.2)
-            Map<String, Object> entry;
-            if (!defaultGraph.containsKey(graphName)) {
-                entry = newMap();
-                entry.put(JsonLdConsts.ID, graphName);
-                defaultGraph.put(graphName, entry);
-            } else {
-                entry = (Map<String, Object>) defaultGraph.get(graphName);
-            }
-            // 4.3)
-            // TODO: SPEC doesn't specify that this should only be added if it
-            // doesn't exists
-            if (!entry.containsKey(JsonLdConsts.GRAPH)) {
-                entry.put(JsonLdConsts.GRAPH, new ArrayList<Object>());
-            }
-            final List<String> keys = new ArrayList<String>(graph.keySet());
-            Collections.sort(keys);
-            for (final String id : keys) {
-                final Map<String, Object> node = (Map<String, Object>) graph.get(id);
-                if (!(node.containsKey(JsonLdConsts.ID) && node.size() == 1)) {
-                    ((List<Object>) entry.get(JsonLdConsts.GRAPH)).add(node);
-                }
-            }
-
+            NodeMap.node(defaultGraph, graphName);
         }
         // 5)
         final List<Object> flattened = new ArrayList<Object>();
@@ -225,33 +441,87 @@ public class JsonLdProcessor {
         final List<String> keys = new ArrayList<String>(defaultGraph.keySet());
         Collections.sort(keys);
         for (final String id : keys) {
-            final Map<String, Object> node = (Map<String, Object>) defaultGraph.get(id);
-            if (!(node.containsKey(JsonLdConsts.ID) && node.size() == 1)) {
-                flattened.add(node);
+            final NodeObject node = defaultGraph.get(id);
+            final Map<String, NodeObject> graph = nodeMap.get(id);
+            if (graph == null && node.isReference()) {
+                continue;
             }
+            final Map<String, Object> output = node.toMap();
+            if (graph != null) {
+                // 4.3)
+                final List<Object> entryGraph = new ArrayList<Object>();
+                final List<String> graphKeys = new ArrayList<String>(graph.keySet());
+                Collections.sort(graphKeys);
+                for (final String graphKey : graphKeys) {
+                    final NodeObject graphNode = graph.get(graphKey);
+                    if (!graphNode.isReference()) {
+                        entryGraph.add(graphNode.toMap());
+                    }
+                }
+                output.put(JsonLdConsts.GRAPH, entryGraph);
+            }
+            flattened.add(output);
         }
-        // 8)
-        if (context != null && !flattened.isEmpty()) {
+        return flattened;
+    }
+
+    /**
+     * Flattens the given input and compacts it using the passed context, as
+     * {@link #flatten(Object, Object, JsonLdOptions)} does, writing the result
+     * to the given generator rather than returning it.
+     *
+     * Each node is written as soon as it has been compacted, and released
+     * once written, so the compacted document is never held in memory as a
+     * whole.
+     *
+     * @param input
+     *            The input JSON-LD object.
+     * @param context
+     *            The context to compact the flattened document with, or null
+     *            not to compact it.
+     * @param opts
+     *            The {@link JsonLdOptions} that are to be sent to the
+     *            flattening algorithm.
+     * @param output
+     *            The generator to write the flattened JSON-LD document to. It
+     *            is neither flushed nor closed.
+     * @throws JsonLdError
+     *             If there is an error while flattening, or writing to the
+     *             generator.
+     */
+    public static void flatten(Object input, Object context, JsonLdOptions opts,
+            JsonGenerator output) throws JsonLdError {
+        context = unwrapContext(context);
+        final List<Object> flattened = flattenNodes(input, opts);
+        try {
+            if (context == null || flattened.isEmpty()) {
+                JsonUtils.write(output, flattened);
+                return;
+            }
             Context activeCtx = new Context(opts);
             activeCtx = activeCtx.parse(context);
-            // TODO: only instantiate one jsonldapi
-            Object compacted = new JsonLdApi(opts).compact(activeCtx, null, flattened,
-                    opts.getCompactArrays());
-            if (!(compacted instanceof List)) {
-                final List<Object> tmp = new ArrayList<Object>();
-                tmp.add(compacted);
-                compacted = tmp;
-            }
-            final String alias = activeCtx.compactIri(JsonLdConsts.GRAPH);
-            final Map<String, Object> rval = newMap();
+            final JsonLdApi api = new JsonLdApi(opts);
+            output.writeStartObject();
             final Object returnedContext = returnedContext(context, opts);
-            if(returnedContext != null) {
-                rval.put(JsonLdConsts.CONTEXT, returnedContext);
+            if (returnedContext != null) {
+                output.writeFieldName(JsonLdConsts.CONTEXT);
+                JsonUtils.write(output, returnedContext);
             }
-            rval.put(alias, compacted);
-            return rval;
+            output.writeFieldName(activeCtx.compactIri(JsonLdConsts.GRAPH));
+            final GraphWriter graph = new GraphWriter(output, false);
+            for (int i = 0; i < flattened.size(); i++) {
+                final Object compacted = api.compact(activeCtx, null, flattened.get(i),
+                        opts.getCompactArrays());
+                flattened.set(i, null);
+                if (compacted != null) {
+                    graph.add(compacted);
+                }
+            }
+            graph.end();
+            output.writeEndObject();
+        } catch (final IOException e) {
+            throw new JsonLdError(Error.IO_ERROR, "Error while writing JSON", e);
         }
-        return flattened;
     }
 
     /**
@@ -293,7 +563,161 @@ public class JsonLdProcessor {
      */
     public static Map<String, Object> frame(Object input, Object frame, JsonLdOptions opts)
             throws JsonLdError {
+        final Framed framed = frameNodes(input, frame, opts);
+        final JsonLdApi api = framed.api;
+        final Context activeCtx = framed.activeCtx;
+        final Object context = framed.context;
+        Object compacted = api.compact(activeCtx, null, framed.nodes, opts.getCompactArrays());
+        final Map<String, Object> rval = newMap();
+        final Object returnedContext = returnedContext(context, opts);
+        if(returnedContext != null) {
+            rval.put(JsonLdConsts.CONTEXT, returnedContext);
+        }
+        final boolean addGraph = ((!(compacted instanceof List)) && !opts.getOmitGraph());
+        if (addGraph && !(compacted instanceof List)) {
+            final List<Object> tmp = new ArrayList<Object>();
+            tmp.add(compacted);
+            compacted = tmp;
+        }
+        if (addGraph || (compacted instanceof List)) {
+            final String alias = activeCtx.compactIri(JsonLdConsts.GRAPH);
+            rval.put(alias, compacted);
+        } else if (!addGraph && (compacted instanceof Map)) {
+            rval.putAll((Map) compacted);
+        }
+        JsonLdUtils.removePreserve(activeCtx, rval, opts);
+        return rval;
+    }
+
+    /**
+     * Frames the given input using the frame, as
+     * {@link #frame(Object, Object, JsonLdOptions)} does, writing the result to
+     * the given generator rather than returning it.
+     *
+     * Each framed node is written as soon as it has been compacted, and
+     * released once written, so the compacted document is never held in
+     * memory as a whole.
+     *
+     * @param input
+     *            The input JSON-LD object.
+     * @param frame
+     *            The frame to use when re-arranging the data of input.
+     * @param opts
+     *            The {@link JsonLdOptions} that are to be sent to the framing
+     *            algorithm.
+     * @param output
+     *            The generator to write the framed JSON-LD document to. It is
+     *            neither flushed nor closed.
+     * @throws JsonLdError
+     *             If there is an error while framing, or writing to the
+     *             generator.
+     */
+    public static void frame(Object input, Object frame, JsonLdOptions opts,
+            JsonGenerator output) throws JsonLdError {
+        final Framed framed = frameNodes(input, frame, opts);
+        final Context activeCtx = framed.activeCtx;
+        final List<Object> nodes = framed.nodes;
+        try {
+            output.writeStartObject();
+            final Object returnedContext = returnedContext(framed.context, opts);
+            if (returnedContext != null) {
+                writeWithoutPreserve(activeCtx, JsonLdConsts.CONTEXT, returnedContext, opts,
+                        output);
+            }
+            final String alias = activeCtx.compactIri(JsonLdConsts.GRAPH);
+            // a single node is the document itself, when arrays are compacted
+            // and @graph is omitted
+            Object single = null;
+            GraphWriter graph = null;
+            for (int i = 0; i < nodes.size(); i++) {
+                final Object compacted = framed.api.compact(activeCtx, null, nodes.get(i),
+                        opts.getCompactArrays());
+                nodes.set(i, null);
+                if (compacted == null) {
+                    continue;
+                }
+                if (graph == null && single == null && opts.getCompactArrays()) {
+                    single = compacted;
+                    continue;
+                }
+                if (graph == null) {
+                    output.writeFieldName(alias);
+                    graph = new GraphWriter(output, opts.getCompactArrays()
+                            && activeCtx.getContainer(alias) == null);
+                    if (single != null) {
+                        addWithoutPreserve(activeCtx, single, opts, graph);
+                        single = null;
+                    }
+                }
+                addWithoutPreserve(activeCtx, compacted, opts, graph);
+            }
+            if (graph == null && single instanceof Map && opts.getOmitGraph()) {
+                for (final Map.Entry<String, Object> entry : ((Map<String, Object>) single)
+                        .entrySet()) {
+                    writeWithoutPreserve(activeCtx, entry.getKey(), entry.getValue(), opts,
+                            output);
+                }
+            } else {
+                if (graph == null) {
+                    output.writeFieldName(alias);
+                    graph = new GraphWriter(output, opts.getCompactArrays()
+                            && activeCtx.getContainer(alias) == null);
+                    if (single != null) {
+                        addWithoutPreserve(activeCtx, single, opts, graph);
+                    }
+                }
+                graph.end();
+            }
+            output.writeEndObject();
+        } catch (final IOException e) {
+            throw new JsonLdError(Error.IO_ERROR, "Error while writing JSON", e);
+        }
+    }
+
+    /**
+     * Adds a node to the graph once <code>@preserve</code> has been removed
+     * from it, as {@link JsonLdUtils#removePreserve} does for whole arrays.
+     */
+    private static void addWithoutPreserve(Context activeCtx, Object node, JsonLdOptions opts,
+            GraphWriter graph) throws JsonLdError, IOException {
+        final Object result = JsonLdUtils.removePreserve(activeCtx, node, opts);
+        if (result != null) {
+            graph.add(result);
+        }
+    }
+
+    /**
+     * Writes a member of the framed document once <code>@preserve</code> has
+     * been removed from it, as {@link JsonLdUtils#removePreserve} does for
+     * whole objects.
+     */
+    private static void writeWithoutPreserve(Context activeCtx, String property, Object value,
+            JsonLdOptions opts, JsonGenerator output) throws JsonLdError, IOException {
+        Object result = JsonLdUtils.removePreserve(activeCtx, value, opts);
+        if (opts.getCompactArrays() && result instanceof List
+                && ((List<Object>) result).size() == 1
+                && activeCtx.getContainer(property) == null) {
+            result = ((List<Object>) result).get(0);
+        }
+        output.writeFieldName(property);
+        JsonUtils.write(output, result);
+    }
+
+    /**
+     * The result of framing, before compaction.
+     */
+    private static class Framed {
+        JsonLdApi api;
+        Object context;
+        Context activeCtx;
+        List<Object> nodes;
+    }
 
+    /**
+     * Expands and frames the given input, without compacting it.
+     */
+    private static Framed frameNodes(Object input, Object frame, JsonLdOptions opts)
+            throws JsonLdError {
         if (frame instanceof Map) {
             frame = JsonLdUtils.clone(frame);
         }
@@ -322,25 +746,11 @@ public class JsonLdProcessor {
         if (opts.getPruneBlankNodeIdentifiers()) {
             JsonLdUtils.pruneBlankNodes(framed);
         }
-        Object compacted = api.compact(activeCtx, null, framed, opts.getCompactArrays());
-        final Map<String, Object> rval = newMap();
-        final Object returnedContext = returnedContext(context, opts);
-        if(returnedContext != null) {
-            rval.put(JsonLdConsts.CONTEXT, returnedContext);
-        }
-        final boolean addGraph = ((!(compacted instanceof List)) && !opts.getOmitGraph());
-        if (addGraph && !(compacted instanceof List)) {
-            final List<Object> tmp = new ArrayList<Object>();
-            tmp.add(compacted);
-            compacted = tmp;
-        }
-        if (addGraph || (compacted instanceof List)) {
-            final String alias = activeCtx.compactIri(JsonLdConsts.GRAPH);
-            rval.put(alias, compacted);
-        } else if (!addGraph && (compacted instanceof Map)) {
-            rval.putAll((Map) compacted);
-        }
-        JsonLdUtils.removePreserve(activeCtx, rval, opts);
+        final Framed rval = new Framed();
+        rval.api = api;
+        rval.context = context;
+        rval.activeCtx = activeCtx;
+        rval.nodes = framed;
         return rval;
     }
 
@@ -524,26 +934,34 @@ public class JsonLdProcessor {
      */
     public static Object toRDF(Object input, JsonLdTripleCallback callback, JsonLdOptions options)
             throws JsonLdError {
+        return toRDF(input, expand(input, options), callback, options);
+    }
 
-        final Object expandedInput = expand(input, options);
-
+    /**
+     * Outputs the RDF dataset found in the given JSON-LD object, once it has
+     * been expanded.
+     *
+     * @param input
+     *            the JSON-LD input, to read namespaces from.
+     * @param expandedInput
+     *            the expanded JSON-LD input.
+     * @param callback
+     *            A callback that is called when the input has been converted to
+     *            Quads (null to use options.format instead).
+     * @param options
+     *            the options to use.
+     * @return The result of the callback, or of the format.
+     * @throws JsonLdError
+     *             If there is an error converting the input to RDF.
+     */
+    static Object toRDF(Object input, List<Object> expandedInput, JsonLdTripleCallback callback,
+            JsonLdOptions options) throws JsonLdError {
         final JsonLdApi api = new JsonLdApi(expandedInput, options);
         final RDFDataset dataset = api.toRDF();
 
         // generate namespaces from context
         if (options.useNamespaces) {
-            List<Map<String, Object>> _input;
-            if (input instanceof List) {
-                _input = (List<Map<String, Object>>) input;
-            } else {
-                _input = new ArrayList<Map<String, Object>>();
-                _input.add((Map<String, Object>) input);
-            }
-            for (final Map<String, Object> e : _input) {
-                if (e.containsKey(JsonLdConsts.CONTEXT)) {
-                    dataset.parseContext(e.get(JsonLdConsts.CONTEXT));
-                }
-            }
+            parseContexts(input, dataset);
         }
 
         if (callback != null) {
@@ -560,6 +978,104 @@ public class JsonLdProcessor {
         return dataset;
     }
 
+    /**
+     * Outputs the RDF quads found in the JSON-LD document read from the given
+     * parser, one top level object at a time, without building an
+     * {@link RDFDataset}.
+     *
+     * The document is expanded as described in
+     * {@link #expand(JsonParser, JsonLdOptions, JsonLdNodeCallback)}, and
+     * each expanded top level object is converted to quads on its own, see
+     * {@link JsonLdApi#toRDF(Map, QuadSink)}. Memory use is therefore bounded
+     * by the size of the largest top level object. As blank node identifiers
+     * are scoped to the top level object they appear in, the result only
+     * matches {@link #toRDF(Object, JsonLdOptions)} for documents whose top
+     * level objects do not share blank node identifiers.
+     *
+     * @param input
+     *            the parser to read the JSON-LD document from.
+     * @param options
+     *            the options to use: [base] the base IRI to use.
+     *            [expandContext] a context to expand with.
+     * @param sink
+     *            the sink receiving the quads.
+     * @throws JsonLdError
+     *             If there is an error converting the document to RDF.
+     */
+    public static void toRDF(JsonParser input, JsonLdOptions options, final QuadSink sink)
+            throws JsonLdError {
+        final JsonLdApi api = new JsonLdApi(options);
+        sink.start();
+        expand(input, options, new JsonLdNodeCallback() {
+            @Override
+            public void call(Map<String, Object> node) throws JsonLdError {
+                api.toRDF(node, sink);
+            }
+        });
+        sink.end();
+    }
+
+    /**
+     * Outputs the RDF quads found in the given JSON-LD object to the given
+     * sink, as they are produced, rather than collecting them in an
+     * {@link RDFDataset} first.
+     *
+     * If {@link JsonLdOptions#useNamespaces} is set, the prefixes defined by
+     * the top level contexts of the input are passed to the sink before any
+     * quad. Unlike {@link #toRDF(Object, JsonLdOptions)}, duplicate quads are
+     * passed on as they are; use an {@link RDFDatasetSink} to collect the
+     * quads into a dataset.
+     *
+     * @param input
+     *            the JSON-LD input.
+     * @param options
+     *            the options to use: [base] the base IRI to use.
+     *            [useNamespaces] whether to pass prefixes to the sink.
+     * @param sink
+     *            the sink receiving the prefixes and quads.
+     * @throws JsonLdError
+     *             If there is an error converting the input to RDF.
+     */
+    public static void toRDF(Object input, JsonLdOptions options, QuadSink sink)
+            throws JsonLdError {
+        final Object expandedInput = expand(input, options);
+
+        final JsonLdApi api = new JsonLdApi(expandedInput, options);
+        sink.start();
+        if (options.useNamespaces) {
+            final RDFDataset namespaces = new RDFDataset(api);
+            parseContexts(input, namespaces);
+            for (final Map.Entry<String, String> namespace : namespaces.getNamespaces()
+                    .entrySet()) {
+                sink.prefix(namespace.getKey(), namespace.getValue());
+            }
+        }
+        api.toRDF(sink);
+        sink.end();
+    }
+
+    /**
+     * Sets the namespaces of the given dataset from the top level contexts of
+     * the given input.
+     */
+    private static void parseContexts(Object input, RDFDataset dataset) throws JsonLdError {
+        if (input instanceof JsonNode) {
+            input = JsonNodeView.of((JsonNode) input);
+        }
+        List<Map<String, Object>> _input;
+        if (input instanceof List) {
+            _input = (List<Map<String, Object>>) input;
+        } else {
+            _input = new ArrayList<Map<String, Object>>();
+            _input.add((Map<String, Object>) input);
+        }
+        for (final Map<String, Object> e : _input) {
+            if (e.containsKey(JsonLdConsts.CONTEXT)) {
+                dataset.parseContext(e.get(JsonLdConsts.CONTEXT));
+            }
+        }
+    }
+
     /**
      * Outputs the RDF dataset found in the given JSON-LD object.
      *
@@ -633,6 +1149,34 @@ public class JsonLdProcessor {
         return new JsonLdApi(options).normalize(dataset);
     }
 
+    /**
+     * Performs RDF dataset normalization on the given JSON-LD input, writing
+     * the normalized N-Quads to the given output as they are serialized,
+     * rather than building them into a single String.
+     *
+     * @param input
+     *            the JSON-LD input to normalize.
+     * @param options
+     *            the options to use: [base] the base IRI to use.
+     *            [loadContext(url, callback(err, url, result))] the context
+     *            loader. The [format] option is ignored.
+     * @param output
+     *            the output, such as a {@link java.io.Writer}, to write the
+     *            normalized N-Quads to.
+     * @throws JsonLdError
+     *             If there is an error normalizing the dataset, or writing to
+     *             the output.
+     */
+    public static void normalize(Object input, JsonLdOptions options, Appendable output)
+            throws JsonLdError {
+
+        final JsonLdOptions opts = options.copy();
+        opts.format = null;
+        final RDFDataset dataset = (RDFDataset) toRDF(input, opts);
+
+        new JsonLdApi(options).normalize(dataset, output);
+    }
+
     /**
      * Performs RDF dataset normalization on the given JSON-LD input. The output
      * is an RDF dataset unless the 'format' option is used. Uses the default
@@ -0,0 +1,268 @@
+package com.github.jsonldjava.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Processes any number of JSON-LD documents with the same context and
+ * {@link JsonLdOptions}, processing the context and building its inverse
+ * context only once, rather than for every document as the static methods of
+ * {@link JsonLdProcessor} do.
+ *
+ * A session is immutable once created, and may be used from any number of
+ * threads. The results are the same as those of the corresponding
+ * {@link JsonLdProcessor} methods.
+ *
+ * The batch methods taking an {@link Iterable}, such as
+ * {@link #compactAll(Iterable)}, process the documents on the executor of the
+ * options, if it has one, and otherwise one after another on the calling
+ * thread, and return all of the results at once. Those taking a
+ * {@link Stream}, such as {@link #compactAll(Stream)}, process each document
+ * only as its result is consumed from the returned stream, so that a large
+ * stream of documents is never held in memory, and process them concurrently
+ * if the stream is parallel.
+ */
+public class JsonLdSession {
+
+    private final JsonLdOptions options;
+    // the options documents of a batch are processed with on the executor
+    private final JsonLdOptions batchOptions;
+    private final Object context;
+    private final Context activeCtx;
+    private final Context expandCtx;
+
+    /**
+     * Creates a session for expanding and converting documents to RDF, and
+     * compacting them with an empty context.
+     *
+     * @param options
+     *            The options to use. Later changes to them do not affect the
+     *            session.
+     * @throws JsonLdError
+     *             If the expandContext of the options could not be processed.
+     */
+    public JsonLdSession(JsonLdOptions options) throws JsonLdError {
+        this(null, options);
+    }
+
+    /**
+     * Creates a session for compacting documents with the given context, as
+     * well as expanding and converting them to RDF.
+     *
+     * @param context
+     *            The context to compact with, as for
+     *            {@link JsonLdProcessor#compact(Object, Object, JsonLdOptions)}.
+     * @param options
+     *            The options to use. Later changes to them do not affect the
+     *            session.
+     * @throws JsonLdError
+     *             If the context, or the expandContext of the options, could
+     *             not be processed.
+     */
+    public JsonLdSession(Object context, JsonLdOptions options) throws JsonLdError {
+        this.options = options.copy();
+        this.batchOptions = options.copy();
+        // documents processed on the executor must not wait for it themselves
+        this.batchOptions.setExecutor(null);
+        this.context = JsonLdProcessor.unwrapContext(context);
+        this.activeCtx = new Context(this.options).parse(this.context);
+        // build the inverse context now, rather than concurrently later
+        this.activeCtx.getInverseContext();
+        this.expandCtx = JsonLdProcessor.expandContext(this.options);
+    }
+
+    /**
+     * Compacts the given input with the context of this session.
+     *
+     * @param input
+     *            The input JSON-LD object.
+     * @return The compacted JSON-LD document
+     * @throws JsonLdError
+     *             If there is an error while compacting.
+     * @see JsonLdProcessor#compact(Object, Object, JsonLdOptions)
+     */
+    public Map<String, Object> compact(Object input) throws JsonLdError {
+        return compact(input, options);
+    }
+
+    /**
+     * Expands the given input.
+     *
+     * @param input
+     *            The input JSON-LD object.
+     * @return The expanded JSON-LD document
+     * @throws JsonLdError
+     *             If there is an error while expanding.
+     * @see JsonLdProcessor#expand(Object, JsonLdOptions)
+     */
+    public List<Object> expand(Object input) throws JsonLdError {
+        return expand(input, options);
+    }
+
+    /**
+     * Outputs the RDF dataset found in the given input.
+     *
+     * @param input
+     *            The input JSON-LD object.
+     * @return The RDF dataset, or if {@link JsonLdOptions#format} is set, the
+     *         dataset in that format.
+     * @throws JsonLdError
+     *             If there is an error converting the input to RDF.
+     * @see JsonLdProcessor#toRDF(Object, JsonLdOptions)
+     */
+    public Object toRDF(Object input) throws JsonLdError {
+        return toRDF(input, options);
+    }
+
+    /**
+     * Compacts each of the given inputs with the context of this session.
+     *
+     * @param inputs
+     *            The input JSON-LD objects.
+     * @return The compacted JSON-LD documents, in the order of the inputs.
+     * @throws JsonLdError
+     *             If there is an error while compacting any of the inputs.
+     */
+    public List<Map<String, Object>> compactAll(Iterable<?> inputs) throws JsonLdError {
+        return processAll(inputs, new Operation<Map<String, Object>>() {
+            @Override
+            public Map<String, Object> process(Object input, JsonLdOptions opts)
+                    throws JsonLdError {
+                return compact(input, opts);
+            }
+        });
+    }
+
+    /**
+     * Expands each of the given inputs.
+     *
+     * @param inputs
+     *            The input JSON-LD objects.
+     * @return The expanded JSON-LD documents, in the order of the inputs.
+     * @throws JsonLdError
+     *             If there is an error while expanding any of the inputs.
+     */
+    public List<List<Object>> expandAll(Iterable<?> inputs) throws JsonLdError {
+        return processAll(inputs, new Operation<List<Object>>() {
+            @Override
+            public List<Object> process(Object input, JsonLdOptions opts) throws JsonLdError {
+                return expand(input, opts);
+            }
+        });
+    }
+
+    /**
+     * Outputs the RDF dataset found in each of the given inputs.
+     *
+     * @param inputs
+     *            The input JSON-LD objects.
+     * @return The RDF datasets, or if {@link JsonLdOptions#format} is set, the
+     *         datasets in that format, in the order of the inputs.
+     * @throws JsonLdError
+     *             If there is an error converting any of the inputs to RDF.
+     */
+    public List<Object> toRDFAll(Iterable<?> inputs) throws JsonLdError {
+        return processAll(inputs, new Operation<Object>() {
+            @Override
+            public Object process(Object input, JsonLdOptions opts) throws JsonLdError {
+                return toRDF(input, opts);
+            }
+        });
+    }
+
+    /**
+     * Compacts each of the given inputs with the context of this session, as
+     * the returned stream is consumed.
+     *
+     * @param inputs
+     *            The input JSON-LD objects.
+     * @return The compacted JSON-LD documents, in the order of the inputs. A
+     *         {@link JsonLdError} is thrown when consuming the result of an
+     *         input that could not be compacted.
+     */
+    public Stream<Map<String, Object>> compactAll(Stream<?> inputs) {
+        final JsonLdOptions opts = streamOptions(inputs);
+        return inputs.map(input -> compact(input, opts));
+    }
+
+    /**
+     * Expands each of the given inputs, as the returned stream is consumed.
+     *
+     * @param inputs
+     *            The input JSON-LD objects.
+     * @return The expanded JSON-LD documents, in the order of the inputs. A
+     *         {@link JsonLdError} is thrown when consuming the result of an
+     *         input that could not be expanded.
+     */
+    public Stream<List<Object>> expandAll(Stream<?> inputs) {
+        final JsonLdOptions opts = streamOptions(inputs);
+        return inputs.map(input -> expand(input, opts));
+    }
+
+    /**
+     * Outputs the RDF dataset found in each of the given inputs, as the
+     * returned stream is consumed.
+     *
+     * @param inputs
+     *            The input JSON-LD objects.
+     * @return The RDF datasets, or if {@link JsonLdOptions#format} is set, the
+     *         datasets in that format, in the order of the inputs. A
+     *         {@link JsonLdError} is thrown when consuming the result of an
+     *         input that could not be converted.
+     */
+    public Stream<Object> toRDFAll(Stream<?> inputs) {
+        final JsonLdOptions opts = streamOptions(inputs);
+        return inputs.map(input -> toRDF(input, opts));
+    }
+
+    private JsonLdOptions streamOptions(Stream<?> inputs) {
+        // documents of a parallel stream may be processed on the executor
+        return inputs.isParallel() ? batchOptions : options;
+    }
+
+    private Map<String, Object> compact(Object input, JsonLdOptions opts) throws JsonLdError {
+        return JsonLdProcessor.compact(expand(input, opts), context, activeCtx, opts);
+    }
+
+    private List<Object> expand(Object input, JsonLdOptions opts) throws JsonLdError {
+        if (input instanceof String) {
+            // a document to load, which may change the base
+            return JsonLdProcessor.expand(input, opts.copy());
+        }
+        return JsonLdProcessor.expand(input, expandCtx, opts);
+    }
+
+    private Object toRDF(Object input, JsonLdOptions opts) throws JsonLdError {
+        return JsonLdProcessor.toRDF(input, expand(input, opts), null, opts);
+    }
+
+    private interface Operation<T> {
+        T process(Object input, JsonLdOptions opts) throws JsonLdError;
+    }
+
+    private <T> List<T> processAll(Iterable<?> inputs, final Operation<T> operation)
+            throws JsonLdError {
+        final Executor executor = options.getExecutor();
+        if (executor == null) {
+            final List<T> results = new ArrayList<T>();
+            for (final Object input : inputs) {
+                results.add(operation.process(input, options));
+            }
+            return results;
+        }
+        final List<Callable<T>> tasks = new ArrayList<Callable<T>>();
+        for (final Object input : inputs) {
+            tasks.add(new Callable<T>() {
+                @Override
+                public T call() throws JsonLdError {
+                    return operation.process(input, batchOptions);
+                }
+            });
+        }
+        return JsonLdUtils.invokeAll(executor, tasks);
+    }
+}
@@ -2,9 +2,16 @@ package com.github.jsonldjava.core;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import com.github.jsonldjava.utils.Obj;
 
@@ -23,16 +30,7 @@ public class JsonLdUtils {
      * @return true if the value is a keyword, false if not.
      */
     static boolean isKeyword(Object key) {
-        if (!isString(key)) {
-            return false;
-        }
-        return "@base".equals(key) || "@context".equals(key) || "@container".equals(key)
-                || "@default".equals(key) || "@embed".equals(key) || "@explicit".equals(key)
-                || "@graph".equals(key) || "@id".equals(key) || "@index".equals(key)
-                || "@language".equals(key) || "@list".equals(key) || "@omitDefault".equals(key)
-                || "@reverse".equals(key) || "@preserve".equals(key) || "@set".equals(key)
-                || "@type".equals(key) || "@value".equals(key) || "@vocab".equals(key)
-                || "@requireAll".equals(key);
+        return JsonLdConsts.Keyword.of(key) != null;
     }
 
     public static Boolean deepCompare(Object v1, Object v2, Boolean listOrderMatters) {
@@ -106,12 +104,26 @@ public class JsonLdUtils {
         }
         List<Object> values = (List<Object>) obj.get(key);
         if (values == null) {
-            values = new ArrayList<Object>();
+            values = new ValueList();
             obj.put(key, values);
         }
-        if ("@list".equals(key)
-                || (value instanceof Map && ((Map<String, Object>) value).containsKey("@list"))
-                || !deepContains(values, value)) {
+        if ("@list".equals(key)) {
+            values.add(value);
+        } else {
+            mergeValue(values, value);
+        }
+    }
+
+    /**
+     * Adds the value to the values of a property, unless it is not a list
+     * object and the values already contain it.
+     */
+    static void mergeValue(List<Object> values, Object value) {
+        if (value instanceof Map && ((Map<String, Object>) value).containsKey("@list")) {
+            values.add(value);
+        } else if (values instanceof ValueList) {
+            ((ValueList) values).addIfAbsent(value);
+        } else if (!deepContains(values, value)) {
             values.add(value);
         }
     }
@@ -125,13 +137,184 @@ public class JsonLdUtils {
             values = new ArrayList<Object>();
             obj.put(key, values);
         }
-        // if ("@list".equals(key)
-        // || (value instanceof Map && ((Map<String, Object>)
-        // value).containsKey("@list"))
-        // || !deepContains(values, value)
-        // ) {
         values.add(value);
-        // }
+    }
+
+    /**
+     * Drops the indexes that {@link #mergeValue(Map, String, Object)} keeps
+     * for the values of the properties of the object, once no more values
+     * are going to be merged into it.
+     */
+    static void dropValueIndexes(Map<String, Object> obj) {
+        for (final Object values : obj.values()) {
+            if (values instanceof ValueList) {
+                ((ValueList) values).dropIndex();
+            }
+        }
+    }
+
+    /**
+     * The list of values of a property, as built by
+     * {@link #mergeValue(Map, String, Object)}, which keeps an index of the
+     * values that are strings, node references or value objects once it has
+     * a few values, so that finding whether such a value is already present
+     * does not require comparing it with every value.
+     *
+     * The index is rebuilt if the list was changed other than through
+     * {@link #addIfAbsent(Object)}, or after it was dropped by
+     * {@link #dropIndex()}. Values are compared as
+     * {@link JsonLdUtils#deepCompare(Object, Object)} does.
+     */
+    static class ValueList extends ArrayList<Object> {
+        private static final long serialVersionUID = 1L;
+
+        // the number of values from which they are indexed
+        private static final int INDEXED_SIZE = 8;
+
+        private transient Set<Object> keys;
+        private transient int keysModCount;
+        // whether any value could not be indexed
+        private transient boolean unindexed;
+
+        ValueList() {
+            super(4);
+        }
+
+        @Override
+        public Object clone() {
+            final ValueList clone = (ValueList) super.clone();
+            clone.keys = null;
+            return clone;
+        }
+
+        void addIfAbsent(Object value) {
+            if (keys == null || keysModCount != modCount) {
+                if (size() < INDEXED_SIZE) {
+                    keys = null;
+                    if (!deepContains(this, value)) {
+                        add(value);
+                    }
+                    return;
+                }
+                keys = new HashSet<Object>();
+                unindexed = false;
+                for (final Object item : this) {
+                    final Object key = key(item);
+                    if (key == null) {
+                        unindexed = true;
+                    } else {
+                        keys.add(key);
+                    }
+                }
+            }
+            final Object key = key(value);
+            if (key == null) {
+                // only another value without a key can be equal to it
+                if (unindexed && deepContains(this, value)) {
+                    return;
+                }
+                unindexed = true;
+            } else if (!keys.add(key)) {
+                return;
+            }
+            add(value);
+            keysModCount = modCount;
+        }
+
+        /**
+         * Drops the index, once no more values are going to be added.
+         */
+        void dropIndex() {
+            keys = null;
+        }
+
+        /**
+         * @return The value itself for a string, a {@link ValueKey} for an
+         *         object with only scalar <code>@id</code>,
+         *         <code>@value</code>, <code>@type</code>,
+         *         <code>@language</code> and <code>@index</code> members, and
+         *         null for any other value.
+         */
+        private static Object key(Object value) {
+            if (value instanceof String) {
+                return value;
+            }
+            if (!(value instanceof Map)) {
+                return null;
+            }
+            final Map<String, Object> map = (Map<String, Object>) value;
+            final int size = map.size();
+            if (size == 0 || size > 5) {
+                return null;
+            }
+            final Object id = map.get(JsonLdConsts.ID);
+            final Object val = map.get(JsonLdConsts.VALUE);
+            final Object type = map.get(JsonLdConsts.TYPE);
+            final Object language = map.get(JsonLdConsts.LANGUAGE);
+            final Object index = map.get(JsonLdConsts.INDEX);
+            if (!isScalarOrNull(id) || !isScalarOrNull(val) || !isScalarOrNull(type)
+                    || !isScalarOrNull(language) || !isScalarOrNull(index)) {
+                return null;
+            }
+            // any other member, or a member with a null value
+            if (count(id) + count(val) + count(type) + count(language) + count(index) != size) {
+                return null;
+            }
+            return new ValueKey(id, val, type, language, index);
+        }
+
+        private static boolean isScalarOrNull(Object member) {
+            return member == null || member instanceof String || member instanceof Number
+                    || member instanceof Boolean;
+        }
+
+        private static int count(Object member) {
+            return member == null ? 0 : 1;
+        }
+    }
+
+    /**
+     * The members of a node reference or value object, which are equal for
+     * objects that {@link JsonLdUtils#deepCompare(Object, Object)} finds to be
+     * equal.
+     */
+    private static final class ValueKey {
+        private final Object id;
+        private final Object value;
+        private final Object type;
+        private final Object language;
+        private final Object index;
+        private final int hash;
+
+        ValueKey(Object id, Object value, Object type, Object language, Object index) {
+            this.id = id;
+            this.value = value;
+            this.type = type;
+            this.language = language;
+            this.index = index;
+            int hash = Objects.hashCode(id);
+            hash = 31 * hash + Objects.hashCode(value);
+            hash = 31 * hash + Objects.hashCode(type);
+            hash = 31 * hash + Objects.hashCode(language);
+            this.hash = 31 * hash + Objects.hashCode(index);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ValueKey)) {
+                return false;
+            }
+            final ValueKey other = (ValueKey) obj;
+            return hash == other.hash && Objects.equals(id, other.id)
+                    && Objects.equals(value, other.value) && Objects.equals(type, other.type)
+                    && Objects.equals(language, other.language)
+                    && Objects.equals(index, other.index);
+        }
     }
 
     public static boolean isAbsoluteIri(String value) {
@@ -491,4 +674,45 @@ public class JsonLdUtils {
         // TODO: should this return true for arrays of strings as well?
         return (v instanceof String);
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs the tasks with the executor, and waits for their results.
+     *
+     * @return the results of the tasks, in the order of the tasks.
+     * @throws JsonLdError
+     *             If a task failed, or waiting was interrupted.
+     */
+    static <T> List<T> invokeAll(Executor executor, List<? extends Callable<T>> tasks)
+            throws JsonLdError {
+        final List<FutureTask<T>> futures = new ArrayList<FutureTask<T>>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            final FutureTask<T> future = new FutureTask<T>(task);
+            futures.add(future);
+            executor.execute(future);
+        }
+        final List<T> results = new ArrayList<T>(tasks.size());
+        try {
+            for (final FutureTask<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonLdError(JsonLdError.Error.UNKNOWN_ERROR, e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof JsonLdError) {
+                throw (JsonLdError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new JsonLdError(JsonLdError.Error.UNKNOWN_ERROR, cause);
+        } finally {
+            for (final FutureTask<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.jsonldjava.core;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Read only {@link Map} and {@link java.util.List} views of a Jackson
+ * {@link JsonNode} tree, so that the tree can be used as input to the JSON-LD
+ * algorithms without first being converted to maps and lists.
+ *
+ * The values of the views are converted as they are read: objects and arrays
+ * to views, strings to {@link String}s, numbers to the {@link Number} of the
+ * node, booleans to {@link Boolean}s, and null to null, which matches what
+ * {@link com.github.jsonldjava.utils.JsonUtils} produces when parsing the same
+ * JSON.
+ */
+final class JsonNodeView {
+
+    private JsonNodeView() {
+    }
+
+    /**
+     * @param node
+     *            The node to view, may be null.
+     * @return A view of an object or array node, or the value of any other
+     *         node.
+     */
+    static Object of(JsonNode node) {
+        if (node == null) {
+            return null;
+        }
+        switch (node.getNodeType()) {
+        case OBJECT:
+            return new ObjectView(node);
+        case ARRAY:
+            return new ArrayView(node);
+        case STRING:
+            return node.textValue();
+        case NUMBER:
+            return node.numberValue();
+        case BOOLEAN:
+            return node.booleanValue();
+        case NULL:
+        case MISSING:
+            return null;
+        case POJO:
+            return ((com.fasterxml.jackson.databind.node.POJONode) node).getPojo();
+        default:
+            return node.asText();
+        }
+    }
+
+    private static final class ObjectView extends AbstractMap<String, Object> {
+
+        private final JsonNode node;
+
+        ObjectView(JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String ? of(node.get((String) key)) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && node.has((String) key);
+        }
+
+        @Override
+        public int size() {
+            return node.size();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    final Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return fields.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            final Map.Entry<String, JsonNode> field = fields.next();
+                            return new SimpleImmutableEntry<String, Object>(field.getKey(),
+                                    of(field.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return node.size();
+                }
+            };
+        }
+    }
+
+    private static final class ArrayView extends AbstractList<Object> {
+
+        private final JsonNode node;
+
+        ArrayView(JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= node.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + node.size());
+            }
+            return of(node.get(index));
+        }
+
+        @Override
+        public int size() {
+            return node.size();
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.github.jsonldjava.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import com.github.jsonldjava.core.JsonLdError.Error;
+
+/**
+ * A streaming <a href="https://www.w3.org/TR/n-quads/">N-Quads</a> parser.
+ *
+ * The input is read character by character from a {@link Reader}, so the
+ * document never needs to be held in memory as a whole. Quads can either be
+ * pulled one at a time using {@link #next()}, or collected into an
+ * {@link RDFDataset} using {@link #parse()}.
+ *
+ * Syntax errors are reported as {@link JsonLdError}s of type
+ * {@link Error#SYNTAX_ERROR}, including the line and column of the offending
+ * character.
+ *
+ * Instances are not thread safe.
+ */
+public class NQuadsParser {
+
+    private static final int EOF = -1;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    // one spare slot, so a character can always be pushed back
+    private final char[] buffer = new char[BUFFER_SIZE + 1];
+    private int position = 0;
+    private int limit = 0;
+
+    // position of the next character to be read
+    private int line = 1;
+    private int column = 1;
+    private boolean previousCR = false;
+
+    private final StringBuilder token = new StringBuilder(128);
+
+    /**
+     * Creates a parser reading from the given {@link Reader}. The reader is
+     * buffered internally, so there is no need to wrap it in a
+     * {@link java.io.BufferedReader}.
+     *
+     * @param reader
+     *            The reader to parse N-Quads from.
+     */
+    public NQuadsParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Creates a parser reading UTF-8 encoded N-Quads from the given
+     * {@link InputStream}.
+     *
+     * @param input
+     *            The stream to parse N-Quads from.
+     */
+    public NQuadsParser(InputStream input) {
+        this(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a parser for the given N-Quads document.
+     *
+     * @param input
+     *            The N-Quads document to parse.
+     */
+    public NQuadsParser(String input) {
+        this(new StringReader(input));
+    }
+
+    /**
+     * Parses all remaining quads into a new {@link RDFDataset}. Duplicate
+     * quads within a graph are only added once.
+     *
+     * @return The parsed dataset.
+     * @throws JsonLdError
+     *             If the input is not valid N-Quads, or could not be read.
+     */
+    public RDFDataset parse() throws JsonLdError {
+        final RDFDatasetSink sink = new RDFDatasetSink();
+        parse(sink);
+        return sink.getDataset();
+    }
+
+    /**
+     * Parses all remaining quads, passing each one to the given sink as soon
+     * as it has been parsed. Duplicate quads are passed on as they are.
+     *
+     * @param sink
+     *            The sink to pass the quads to.
+     * @throws JsonLdError
+     *             If the input is not valid N-Quads, or could not be read, or
+     *             if the sink failed.
+     */
+    public void parse(QuadSink sink) throws JsonLdError {
+        sink.start();
+        RDFDataset.Quad quad;
+        while ((quad = next()) != null) {
+            sink.quad(quad);
+        }
+        sink.end();
+    }
+
+    /**
+     * Parses the next quad from the input.
+     *
+     * @return The next quad, or null if the end of the input has been reached.
+     * @throws JsonLdError
+     *             If the input is not valid N-Quads, or could not be read.
+     */
+    public RDFDataset.Quad next() throws JsonLdError {
+        // skip blank lines and comments
+        int c;
+        while (true) {
+            skipWhitespace();
+            c = peek();
+            if (c == EOF) {
+                return null;
+            } else if (c == '\n' || c == '\r') {
+                read();
+            } else if (c == '#') {
+                skipComment();
+            } else {
+                break;
+            }
+        }
+
+        // subject
+        final RDFDataset.Node subject;
+        if (c == '<') {
+            subject = new RDFDataset.IRI(readIri());
+        } else if (c == '_') {
+            subject = new RDFDataset.BlankNode(readBlankNode());
+        } else {
+            throw error("expected IRI or blank node as subject");
+        }
+        skipWhitespace();
+
+        // predicate
+        if (peek() != '<') {
+            throw error("expected IRI as predicate");
+        }
+        final RDFDataset.Node predicate = new RDFDataset.IRI(readIri());
+        skipWhitespace();
+
+        // object
+        final RDFDataset.Node object;
+        c = peek();
+        if (c == '<') {
+            object = new RDFDataset.IRI(readIri());
+        } else if (c == '_') {
+            object = new RDFDataset.BlankNode(readBlankNode());
+        } else if (c == '"') {
+            object = readLiteral();
+        } else {
+            throw error("expected IRI, blank node or literal as object");
+        }
+        skipWhitespace();
+
+        // graph name ('@default' is used for the default graph)
+        String name = "@default";
+        c = peek();
+        if (c == '<') {
+            name = readIri();
+            skipWhitespace();
+        } else if (c == '_') {
+            name = readBlankNode();
+            skipWhitespace();
+        }
+
+        if (peek() != '.') {
+            throw error("expected '.' at the end of the quad");
+        }
+        read();
+        skipWhitespace();
+        c = peek();
+        if (c == '#') {
+            skipComment();
+        } else if (c == '\n' || c == '\r') {
+            read();
+        } else if (c != EOF) {
+            throw error("expected end of line after the quad");
+        }
+
+        return new RDFDataset.Quad(subject, predicate, object, name);
+    }
+
+    private String readIri() throws JsonLdError {
+        // consume '<'
+        read();
+        token.setLength(0);
+        while (true) {
+            final int c = peek();
+            if (c == '>') {
+                read();
+                return token.toString();
+            } else if (c == EOF || c == '\n' || c == '\r') {
+                throw error("unterminated IRI");
+            } else if (c == '\\') {
+                readEscape();
+            } else {
+                token.append((char) read());
+            }
+        }
+    }
+
+    private String readBlankNode() throws JsonLdError {
+        // consume '_'
+        read();
+        if (peek() != ':') {
+            throw error("expected ':' in blank node label");
+        }
+        read();
+        int c = peek();
+        if (c == EOF || !(isPnCharsU(c) || (c >= '0' && c <= '9'))) {
+            throw error("invalid blank node label");
+        }
+        token.setLength(0);
+        token.append("_:").append((char) read());
+        while (true) {
+            c = peek();
+            if (c == '.') {
+                // a label may contain, but not end with, a '.'; so only
+                // continue if the dot is followed by another label character
+                read();
+                c = peek();
+                if (c != EOF && (c == '.' || isPnChars(c))) {
+                    token.append('.');
+                    continue;
+                }
+                unreadDot();
+                break;
+            } else if (c != EOF && isPnChars(c)) {
+                token.append((char) read());
+            } else {
+                break;
+            }
+        }
+        if (token.charAt(token.length() - 1) == '.') {
+            throw error("blank node label must not end with '.'");
+        }
+        return token.toString();
+    }
+
+    private RDFDataset.Node readLiteral() throws JsonLdError {
+        // consume '"'
+        read();
+        token.setLength(0);
+        while (true) {
+            final int c = peek();
+            if (c == '"') {
+                read();
+                break;
+            } else if (c == EOF || c == '\n' || c == '\r') {
+                throw error("unterminated literal");
+            } else if (c == '\\') {
+                readEscape();
+            } else {
+                token.append((char) read());
+            }
+        }
+        final String value = token.toString();
+
+        final int c = peek();
+        if (c == '^') {
+            read();
+            if (peek() != '^') {
+                throw error("expected '^^' before literal datatype");
+            }
+            read();
+            if (peek() != '<') {
+                throw error("expected IRI as literal datatype");
+            }
+            return new RDFDataset.Literal(value, readIri(), null);
+        } else if (c == '@') {
+            read();
+            return new RDFDataset.Literal(value, JsonLdConsts.RDF_LANGSTRING, readLanguage());
+        }
+        return new RDFDataset.Literal(value, JsonLdConsts.XSD_STRING, null);
+    }
+
+    private String readLanguage() throws JsonLdError {
+        token.setLength(0);
+        int c = peek();
+        if (!isAlpha(c)) {
+            throw error("invalid language tag");
+        }
+        while (isAlpha(peek())) {
+            token.append((char) read());
+        }
+        while (peek() == '-') {
+            token.append((char) read());
+            c = peek();
+            if (!isAlpha(c) && !(c >= '0' && c <= '9')) {
+                throw error("invalid language tag");
+            }
+            while (isAlpha(c = peek()) || (c >= '0' && c <= '9')) {
+                token.append((char) read());
+            }
+        }
+        return token.toString();
+    }
+
+    private void readEscape() throws JsonLdError {
+        // consume '\'
+        read();
+        final int c = peek();
+        switch (c) {
+        case 't':
+            token.append('\t');
+            break;
+        case 'b':
+            token.append('\b');
+            break;
+        case 'n':
+            token.append('\n');
+            break;
+        case 'r':
+            token.append('\r');
+            break;
+        case 'f':
+            token.append('\f');
+            break;
+        case '"':
+            token.append('"');
+            break;
+        case '\'':
+            token.append('\'');
+            break;
+        case '\\':
+            token.append('\\');
+            break;
+        case 'u':
+            read();
+            token.appendCodePoint(readHex(4));
+            return;
+        case 'U':
+            read();
+            final int codePoint = readHex(8);
+            if (!Character.isValidCodePoint(codePoint)) {
+                throw error("invalid unicode code point in escape sequence");
+            }
+            token.appendCodePoint(codePoint);
+            return;
+        default:
+            throw error("invalid escape sequence");
+        }
+        read();
+    }
+
+    private int readHex(int digits) throws JsonLdError {
+        int value = 0;
+        for (int i = 0; i < digits; i++) {
+            final int digit = Character.digit(peek(), 16);
+            if (digit < 0) {
+                throw error("invalid hexadecimal digit in escape sequence");
+            }
+            read();
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private void skipWhitespace() throws JsonLdError {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t') {
+            read();
+        }
+    }
+
+    private void skipComment() throws JsonLdError {
+        int c;
+        while ((c = peek()) != EOF && c != '\n' && c != '\r') {
+            read();
+        }
+    }
+
+    private int peek() throws JsonLdError {
+        if (position == limit) {
+            try {
+                int read;
+                do {
+                    read = reader.read(buffer, 0, BUFFER_SIZE);
+                } while (read == 0);
+                if (read == EOF) {
+                    return EOF;
+                }
+                position = 0;
+                limit = read;
+            } catch (final IOException e) {
+                throw new JsonLdError(Error.LOADING_DOCUMENT_FAILED,
+                        "Error while reading N-Quads at line " + line + ", column " + column,
+                        e);
+            }
+        }
+        return buffer[position];
+    }
+
+    private int read() throws JsonLdError {
+        final int c = peek();
+        if (c == EOF) {
+            return EOF;
+        }
+        position++;
+        if (c == '\n') {
+            if (!previousCR) {
+                line++;
+            }
+            column = 1;
+        } else if (c == '\r') {
+            line++;
+            column = 1;
+        } else {
+            column++;
+        }
+        previousCR = c == '\r';
+        return c;
+    }
+
+    private void unreadDot() {
+        // only ever called directly after reading a '.', which is therefore
+        // still in the buffer unless the next read refilled it
+        if (position > 0) {
+            position--;
+        } else {
+            // peek() has replaced the buffer contents, so insert the dot in
+            // front of the unread characters
+            System.arraycopy(buffer, position, buffer, position + 1, limit - position);
+            buffer[position] = '.';
+            limit++;
+        }
+        column--;
+    }
+
+    private JsonLdError error(String message) {
+        return new JsonLdError(Error.SYNTAX_ERROR, "Error while parsing N-Quads; " + message
+                + " at line " + line + ", column " + column);
+    }
+
+    private static boolean isAlpha(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isPnCharsBase(int c) {
+        return isAlpha(c) || (c >= 0x00C0 && c <= 0x00D6) || (c >= 0x00D8 && c <= 0x00F6)
+                || (c >= 0x00F8 && c <= 0x02FF) || (c >= 0x0370 && c <= 0x037D)
+                || (c >= 0x037F && c <= 0x1FFF) || (c >= 0x200C && c <= 0x200D)
+                || (c >= 0x2070 && c <= 0x218F) || (c >= 0x2C00 && c <= 0x2FEF)
+                || (c >= 0x3001 && c <= 0xD7FF) || (c >= 0xF900 && c <= 0xFDCF)
+                || (c >= 0xFDF0 && c <= 0xFFFD)
+                // surrogate pairs, for #x10000-#xEFFFF
+                || Character.isSurrogate((char) c);
+    }
+
+    private static boolean isPnCharsU(int c) {
+        return c == '_' || c == ':' || isPnCharsBase(c);
+    }
+
+    private static boolean isPnChars(int c) {
+        return isPnCharsU(c) || c == '-' || (c >= '0' && c <= '9') || c == 0x00B7
+                || (c >= 0x0300 && c <= 0x036F) || (c >= 0x203F && c <= 0x2040);
+    }
+}
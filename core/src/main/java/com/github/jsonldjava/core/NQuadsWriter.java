@@ -0,0 +1,125 @@
+package com.github.jsonldjava.core;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes <a href="https://www.w3.org/TR/n-quads/">N-Quads</a> directly to an
+ * {@link Appendable}, such as a {@link Writer} or {@link StringBuilder}, one
+ * quad at a time.
+ *
+ * Unlike {@link RDFDatasetUtils#toNQuads(RDFDataset)}, the serialization is
+ * never held in memory as a whole, and quads are written in the order they
+ * are given rather than sorted. Each quad is escaped into a single reusable
+ * buffer before being copied to the output.
+ *
+ * Instances are not thread safe.
+ */
+public class NQuadsWriter implements Flushable, Closeable {
+
+    private final Appendable output;
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    /**
+     * Creates a writer appending N-Quads to the given output.
+     *
+     * @param output
+     *            The output to append to.
+     */
+    public NQuadsWriter(Appendable output) {
+        this.output = output;
+    }
+
+    /**
+     * Creates a writer writing UTF-8 encoded N-Quads to the given stream.
+     *
+     * @param output
+     *            The stream to write to.
+     */
+    public NQuadsWriter(OutputStream output) {
+        this(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Writes all quads of the given dataset, graph by graph.
+     *
+     * @param dataset
+     *            The dataset to write.
+     * @throws IOException
+     *             If the output could not be written to.
+     */
+    public void write(RDFDataset dataset) throws IOException {
+        for (String graphName : dataset.graphNames()) {
+            final String name = JsonLdConsts.DEFAULT.equals(graphName) ? null : graphName;
+            for (final RDFDataset.Quad quad : dataset.getQuads(graphName)) {
+                write(quad, name);
+            }
+        }
+    }
+
+    /**
+     * Writes a single quad, in the graph given by the quad itself.
+     *
+     * @param quad
+     *            The quad to write.
+     * @throws IOException
+     *             If the output could not be written to.
+     */
+    public void write(RDFDataset.Quad quad) throws IOException {
+        final RDFDataset.Node graph = quad.getGraph();
+        write(quad, graph == null ? null : graph.getValue());
+    }
+
+    /**
+     * Writes a single quad in the given graph.
+     *
+     * @param quad
+     *            The quad to write.
+     * @param graphName
+     *            The name of the graph, or null for the default graph.
+     * @throws IOException
+     *             If the output could not be written to.
+     */
+    public void write(RDFDataset.Quad quad, String graphName) throws IOException {
+        line.setLength(0);
+        RDFDatasetUtils.toNQuad(quad, graphName, null, line);
+        writeLine();
+    }
+
+    private void writeLine() throws IOException {
+        if (output instanceof Writer) {
+            // Writer.append(CharSequence) would copy the line into a String
+            final int length = line.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            line.getChars(0, length, chars, 0);
+            ((Writer) output).write(chars, 0, length);
+        } else {
+            output.append(line);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (output instanceof Flushable) {
+            ((Flushable) output).flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (output instanceof Closeable) {
+            ((Closeable) output).close();
+        } else {
+            flush();
+        }
+    }
+}
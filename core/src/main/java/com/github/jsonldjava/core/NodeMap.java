@@ -0,0 +1,61 @@
+package com.github.jsonldjava.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The result of the
+ * <a href="http://www.w3.org/TR/json-ld-api/#node-map-generation">Node Map
+ * Generation algorithm</a>: the graphs of a document by name, each of which
+ * maps the identifiers of its nodes to the {@link NodeObject}s.
+ */
+class NodeMap extends LinkedHashMap<String, Map<String, NodeObject>> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a node map with an empty default graph.
+     */
+    NodeMap() {
+        super();
+        put(JsonLdConsts.DEFAULT, new LinkedHashMap<String, NodeObject>());
+    }
+
+    /**
+     * @return The graph with the given name, which is added if the node map
+     *         does not have it yet.
+     */
+    Map<String, NodeObject> graph(String name) {
+        Map<String, NodeObject> graph = get(name);
+        if (graph == null) {
+            graph = new LinkedHashMap<String, NodeObject>();
+            put(name, graph);
+        }
+        return graph;
+    }
+
+    /**
+     * @return The node with the given identifier in the given graph, which is
+     *         added if the graph does not have it yet.
+     */
+    static NodeObject node(Map<String, NodeObject> graph, String id) {
+        NodeObject node = graph.get(id);
+        if (node == null) {
+            node = new NodeObject(id);
+            graph.put(id, node);
+        }
+        return node;
+    }
+
+    /**
+     * Drops the indexes kept to merge values into the properties of the
+     * nodes, once the node map has been generated.
+     */
+    void dropValueIndexes() {
+        for (final Map<String, NodeObject> graph : values()) {
+            for (final NodeObject node : graph.values()) {
+                node.dropValueIndexes();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.jsonldjava.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.jsonldjava.core.JsonLdUtils.ValueList;
+
+/**
+ * A node object of a {@link NodeMap}.
+ *
+ * The members of the node are kept in fields rather than in a map: its
+ * identifier, the set of its types, its index, and the values of each of its
+ * properties, in the order the properties were added. The node is only turned
+ * into the map of members of the JSON-LD algorithms by {@link #toMap()}, when
+ * it becomes part of a flattened document.
+ */
+final class NodeObject {
+
+    // the number of properties from which they are found by hash
+    private static final int INDEXED_PROPERTIES = 8;
+
+    private static final String[] NO_PROPERTIES = new String[0];
+    private static final ValueList[] NO_VALUES = new ValueList[0];
+
+    private final String id;
+    private Set<String> types;
+    private Object index;
+    private String[] properties = NO_PROPERTIES;
+    private ValueList[] values = NO_VALUES;
+    private int size;
+    private Map<String, Integer> positions;
+
+    NodeObject(String id) {
+        this.id = id;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    /**
+     * @return The types of the node, in the order they were added, or null if
+     *         it has none.
+     */
+    Set<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * Adds a type to the node, unless it already has it.
+     */
+    void addType(String type) {
+        if (types == null) {
+            types = new LinkedHashSet<String>(4);
+        }
+        types.add(type);
+    }
+
+    /**
+     * @return The <code>@index</code> of the node, or null if it has none.
+     */
+    Object getIndex() {
+        return index;
+    }
+
+    void setIndex(Object index) {
+        this.index = index;
+    }
+
+    /**
+     * @return A new list of the properties of the node, in the order they
+     *         were added.
+     */
+    List<String> getProperties() {
+        final List<String> result = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(properties[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return The values of the property, or null if the node has none.
+     */
+    List<Object> getValues(String property) {
+        final int i = position(property);
+        return i < 0 ? null : values[i];
+    }
+
+    /**
+     * @return The values of the property, which are added as an empty list if
+     *         the node has none.
+     */
+    List<Object> values(String property) {
+        final int i = position(property);
+        if (i >= 0) {
+            return values[i];
+        }
+        if (size == properties.length) {
+            final int capacity = Math.max(4, size * 2);
+            properties = Arrays.copyOf(properties, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        final ValueList result = new ValueList();
+        properties[size] = property;
+        values[size] = result;
+        if (positions != null) {
+            positions.put(property, size);
+        } else if (size == INDEXED_PROPERTIES) {
+            positions = new HashMap<String, Integer>();
+            for (int j = 0; j <= size; j++) {
+                positions.put(properties[j], j);
+            }
+        }
+        size++;
+        return result;
+    }
+
+    /**
+     * Adds a value to the property, as
+     * {@link JsonLdUtils#mergeValue(java.util.Map, String, Object)} does.
+     */
+    void addValue(String property, Object value) {
+        JsonLdUtils.mergeValue(values(property), value);
+    }
+
+    /**
+     * @return Whether the node has no members other than its identifier.
+     */
+    boolean isReference() {
+        return types == null && index == null && size == 0;
+    }
+
+    /**
+     * Drops the indexes kept to merge values into the properties of the node.
+     */
+    void dropValueIndexes() {
+        for (int i = 0; i < size; i++) {
+            values[i].dropIndex();
+        }
+    }
+
+    /**
+     * @return The map of members of the node, which shares the lists of
+     *         values of the node.
+     */
+    Map<String, Object> toMap() {
+        final Map<String, Object> result = new LinkedHashMap<String, Object>(
+                (size + 3) * 4 / 3 + 1);
+        result.put(JsonLdConsts.ID, id);
+        if (types != null) {
+            result.put(JsonLdConsts.TYPE, new ArrayList<Object>(types));
+        }
+        if (index != null) {
+            result.put(JsonLdConsts.INDEX, index);
+        }
+        for (int i = 0; i < size; i++) {
+            result.put(properties[i], values[i]);
+        }
+        return result;
+    }
+
+    private int position(String property) {
+        if (positions != null) {
+            final Integer i = positions.get(property);
+            return i == null ? -1 : i;
+        }
+        for (int i = 0; i < size; i++) {
+            if (properties[i].equals(property)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
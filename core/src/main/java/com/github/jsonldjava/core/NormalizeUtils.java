@@ -3,6 +3,7 @@ package com.github.jsonldjava.core;
 import static com.github.jsonldjava.core.RDFDatasetUtils.parseNQuads;
 import static com.github.jsonldjava.core.RDFDatasetUtils.toNQuad;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -13,6 +14,10 @@ import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.github.jsonldjava.utils.Obj;
 
@@ -22,13 +27,35 @@ class NormalizeUtils {
     private final Map<String, Object> bnodes;
     private final List<Object> quads;
     private final JsonLdOptions options;
+    private final Appendable output;
+
+    // hashPaths results for the current duplicate group, keyed by bnode and
+    // path namer state
+    private final Map<String, HashResult> pathHashes = new ConcurrentHashMap<String, HashResult>();
+    // number of permutations hashPaths may still try, or null for no limit
+    private final AtomicLong budget;
+    // runs independent hashes concurrently, or null to run them in turn
+    private final Executor executor;
 
     public NormalizeUtils(List<Object> quads, Map<String, Object> bnodes, UniqueNamer namer,
             JsonLdOptions options) {
+        this(quads, bnodes, namer, options, null);
+    }
+
+    /**
+     * Creates a normalizer that writes the normalized N-Quads to the given
+     * output, instead of returning them.
+     */
+    public NormalizeUtils(List<Object> quads, Map<String, Object> bnodes, UniqueNamer namer,
+            JsonLdOptions options, Appendable output) {
         this.options = options;
+        this.output = output;
         this.quads = quads;
         this.bnodes = bnodes;
         this.namer = namer;
+        final long limit = options.getNormalizationBudget();
+        this.budget = limit > 0 ? new AtomicLong(limit) : null;
+        this.executor = options.getExecutor();
     }
 
     // generates unique and duplicate hashes for bnodes
@@ -42,6 +69,9 @@ class NormalizeUtils {
         // possible stack overflows
         // hash quads for each unnamed bnode
         for (int hui = 0;; hui++) {
+            if (hui == 0) {
+                hashQuads(unnamed);
+            }
             if (hui == unnamed.size()) {
                 // done, name blank nodes
                 Boolean named = false;
@@ -91,31 +121,32 @@ class NormalizeUtils {
 
                             // update bnode names in each quad and serialize
                             for (int cai = 0; cai < quads.size(); ++cai) {
-                                final Map<String, Object> quad = (Map<String, Object>) quads
-                                        .get(cai);
-                                for (final String attr : new String[] { "subject", "object",
-                                        "name" }) {
-                                    if (quad.containsKey(attr)) {
-                                        final Map<String, Object> qa = (Map<String, Object>) quad
-                                                .get(attr);
-                                        if (qa != null && "blank node".equals(qa.get("type"))
-                                                && ((String) qa.get("value"))
-                                                        .indexOf("_:c14n") != 0) {
-                                            qa.put("value",
-                                                    namer.getName((String) qa.get(("value"))));
-                                        }
-                                    }
-                                }
-                                normalized.add(toNQuad((RDFDataset.Quad) quad,
-                                        quad.containsKey("name") && quad.get("name") != null
-                                                ? (String) ((Map<String, Object>) quad.get("name"))
-                                                        .get("value")
-                                                : null));
+                                final RDFDataset.Quad quad = (RDFDataset.Quad) quads.get(cai);
+                                final RDFDataset.Quad renamed = new RDFDataset.Quad(
+                                        rename(quad.getSubject()), quad.getPredicate(),
+                                        rename(quad.getObject()), rename(quad.getGraph()));
+                                quads.set(cai, renamed);
+                                normalized.add(toNQuad(renamed, renamed.getGraph() != null
+                                        ? renamed.getGraph().getValue()
+                                        : null));
                             }
 
                             // sort normalized output
                             Collections.sort(normalized);
 
+                            // stream to the given output
+                            if (output != null) {
+                                try {
+                                    for (final String n : normalized) {
+                                        output.append(n);
+                                    }
+                                } catch (final IOException e) {
+                                    throw new JsonLdError(JsonLdError.Error.IO_ERROR,
+                                            "Error while writing N-Quads", e);
+                                }
+                                return output;
+                            }
+
                             // handle output format
                             if (options.format != null) {
                                 if (JsonLdConsts.APPLICATION_NQUADS.equals(options.format)) {
@@ -138,44 +169,27 @@ class NormalizeUtils {
 
                         // name each group member
                         final List<String> group = duplicates.get(hashes.get(pgi));
-                        final List<HashResult> results = new ArrayList<HashResult>();
-                        for (int n = 0;; n++) {
-                            if (n == group.size()) {
-                                // name bnodes in hash order
-                                Collections.sort(results, new Comparator<HashResult>() {
-                                    @Override
-                                    public int compare(HashResult a, HashResult b) {
-                                        final int res = a.hash.compareTo(b.hash);
-                                        return res;
-                                    }
-                                });
-                                for (final HashResult r : results) {
-                                    // name all bnodes in path namer in
-                                    // key-entry order
-                                    // Note: key-order is preserved in
-                                    // javascript
-                                    for (final String key : r.pathNamer.existing().keySet()) {
-                                        namer.getName(key);
-                                    }
-                                }
-                                // processGroup(i+1);
-                                break;
-                            } else {
-                                // skip already-named bnodes
-                                final String bnode = group.get(n);
-                                if (namer.isNamed(bnode)) {
-                                    continue;
-                                }
-
-                                // hash bnode paths
-                                final UniqueNamer pathNamer = new UniqueNamer("_:b");
-                                pathNamer.getName(bnode);
-
-                                final HashResult result = hashPaths(bnode, bnodes, namer,
-                                        pathNamer);
-                                results.add(result);
+                        // path hashes depend on the canonical names, which
+                        // change once the group is named
+                        pathHashes.clear();
+                        final List<HashResult> results = hashPaths(group);
+
+                        // name bnodes in hash order
+                        Collections.sort(results, new Comparator<HashResult>() {
+                            @Override
+                            public int compare(HashResult a, HashResult b) {
+                                final int res = a.hash.compareTo(b.hash);
+                                return res;
+                            }
+                        });
+                        for (final HashResult r : results) {
+                            // name all bnodes in path namer in key-entry order
+                            // Note: key-order is preserved in javascript
+                            for (final String key : r.pathNamer.existing().keySet()) {
+                                namer.getName(key);
                             }
                         }
+                        // processGroup(i+1);
                     }
                 }
             }
@@ -207,6 +221,79 @@ class NormalizeUtils {
         UniqueNamer pathNamer;
     }
 
+    /**
+     * Computes and caches the hashes of the quads of the given bnodes, using
+     * the executor if there is one.
+     *
+     * @param ids
+     *            the IDs of the bnodes to hash quads for.
+     * @throws JsonLdError
+     *             If hashing was interrupted.
+     */
+    private void hashQuads(List<String> ids) throws JsonLdError {
+        if (executor == null || ids.size() < 2) {
+            // hashed on demand
+            return;
+        }
+        final List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        for (final String id : ids) {
+            if (((Map<String, Object>) bnodes.get(id)).containsKey("hash")) {
+                continue;
+            }
+            tasks.add(new Callable<String>() {
+                @Override
+                public String call() {
+                    return hashQuads(id, bnodes, namer);
+                }
+            });
+        }
+        // each task only caches the hash of its own bnode
+        JsonLdUtils.invokeAll(executor, tasks);
+    }
+
+    /**
+     * Hashes the paths of each bnode of a duplicate group that isn't named
+     * yet, using the executor if there is one.
+     *
+     * @param group
+     *            the IDs of the bnodes in the group.
+     * @return the results, in group order.
+     * @throws JsonLdError
+     *             If the normalization budget is exceeded.
+     */
+    private List<HashResult> hashPaths(List<String> group) throws JsonLdError {
+        final List<Callable<HashResult>> tasks = new ArrayList<Callable<HashResult>>();
+        for (final String bnode : group) {
+            // skip already-named bnodes
+            if (namer.isNamed(bnode)) {
+                continue;
+            }
+            tasks.add(new Callable<HashResult>() {
+                @Override
+                public HashResult call() throws JsonLdError {
+                    // hash bnode paths
+                    final UniqueNamer pathNamer = new UniqueNamer("_:b");
+                    pathNamer.getName(bnode);
+                    return hashPaths(bnode, bnodes, namer, pathNamer);
+                }
+            });
+        }
+        if (executor == null || tasks.size() < 2) {
+            final List<HashResult> results = new ArrayList<HashResult>();
+            for (final Callable<HashResult> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (final JsonLdError e) {
+                    throw e;
+                } catch (final Exception e) {
+                    throw new JsonLdError(JsonLdError.Error.UNKNOWN_ERROR, e);
+                }
+            }
+            return results;
+        }
+        return JsonLdUtils.invokeAll(executor, tasks);
+    }
+
     /**
      * Produces a hash for the paths of adjacent bnodes for a bnode,
      * incorporating all information about its subgraph of bnodes. This method
@@ -221,11 +308,31 @@ class NormalizeUtils {
      *            the canonical bnode namer.
      * @param pathNamer
      *            the namer used to assign names to adjacent bnodes.
-     * @param callback
-     *            (err, result) called once the operation completes.
+     * @return the hash and the namer of the chosen paths.
+     * @throws JsonLdError
+     *             If the normalization budget is exceeded.
      */
-    private static HashResult hashPaths(String id, Map<String, Object> bnodes, UniqueNamer namer,
-            UniqueNamer pathNamer) {
+    private HashResult hashPaths(String id, Map<String, Object> bnodes, UniqueNamer namer,
+            UniqueNamer pathNamer) throws JsonLdError {
+        // the result only depends on the bnode and the names already given by
+        // the path namer, as the canonical namer doesn't change while a
+        // duplicate group is hashed
+        final StringBuilder key = new StringBuilder(id);
+        for (final String bnode : pathNamer.existing().keySet()) {
+            key.append(' ').append(bnode);
+        }
+        final String memoKey = key.toString();
+        final HashResult memo = pathHashes.get(memoKey);
+        if (memo != null) {
+            return memo;
+        }
+        final HashResult res = hashPathPermutations(id, bnodes, namer, pathNamer);
+        pathHashes.put(memoKey, res);
+        return res;
+    }
+
+    private HashResult hashPathPermutations(String id, Map<String, Object> bnodes,
+            UniqueNamer namer, UniqueNamer pathNamer) throws JsonLdError {
         try {
             // create SHA-1 digest
             final MessageDigest md = MessageDigest.getInstance("SHA-1");
@@ -259,6 +366,12 @@ class NormalizeUtils {
                         while (true) {
                             Boolean contPermutation = false;
                             Boolean breakOut = false;
+                            if (budget != null && budget.getAndDecrement() <= 0) {
+                                throw new JsonLdError(
+                                        JsonLdError.Error.NORMALIZATION_BUDGET_EXCEEDED,
+                                        "more than " + options.getNormalizationBudget()
+                                                + " blank node permutations");
+                            }
                             final List<String> permutation = permutator.next();
                             UniqueNamer pathNamerCopy = pathNamer.clone();
 
@@ -278,10 +391,9 @@ class NormalizeUtils {
                                     path += pathNamerCopy.getName(bnode);
                                 }
 
-                                // skip permutation if path is already >= chosen
+                                // skip permutation if path is already > chosen
                                 // path
-                                if (chosenPath != null && path.length() >= chosenPath.length()
-                                        && path.compareTo(chosenPath) > 0) {
+                                if (isGreater(path, chosenPath)) {
                                     // return nextPermutation(true);
                                     if (permutator.hasNext()) {
                                         contPermutation = true;
@@ -330,10 +442,9 @@ class NormalizeUtils {
                                 path += pathNamerCopy.getName(bnode) + "<" + result.hash + ">";
                                 pathNamerCopy = result.pathNamer;
 
-                                // skip permutation if path is already >= chosen
+                                // skip permutation if path is already > chosen
                                 // path
-                                if (chosenPath != null && path.length() >= chosenPath.length()
-                                        && path.compareTo(chosenPath) > 0) {
+                                if (isGreater(path, chosenPath)) {
                                     // return nextPermutation(true);
                                     if (!permutator.hasNext()) {
                                         // digest chosen path and update namer
@@ -412,6 +523,33 @@ class NormalizeUtils {
         }
     }
 
+    /**
+     * @return The blank node with its canonical name, if it is a blank node
+     *         that has not been renamed yet, otherwise the given node.
+     */
+    private RDFDataset.Node rename(RDFDataset.Node node) {
+        if (node != null && node.isBlankNode() && node.getValue().indexOf("_:c14n") != 0) {
+            return new RDFDataset.BlankNode(namer.getName(node.getValue()));
+        }
+        return node;
+    }
+
+    /**
+     * Checks whether a path, and so any path it is a prefix of, sorts after
+     * the chosen path.
+     *
+     * @param path
+     *            the path built so far.
+     * @param chosenPath
+     *            the least path found so far, or null if none was found yet.
+     * @return true if the permutation building the path can be skipped.
+     */
+    static boolean isGreater(String path, String chosenPath) {
+        // a path that is greater than the chosen path is never a prefix of
+        // it, so extending the path keeps it greater
+        return chosenPath != null && path.compareTo(chosenPath) > 0;
+    }
+
     /**
      * Hashes all of the quads about a blank node.
      *
@@ -498,7 +636,7 @@ class NormalizeUtils {
                         : null;
     }
 
-    private static class Permutator {
+    static class Permutator {
 
         private final List<String> list;
         private boolean done;
@@ -0,0 +1,120 @@
+package com.github.jsonldjava.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The IRIs of the term definitions that may be used as prefixes of compact
+ * IRIs, in step 5 of the
+ * <a href="http://www.w3.org/TR/json-ld-api/#iri-compaction">IRI Compaction
+ * algorithm</a>.
+ *
+ * The IRIs are kept in a sorted array, along with the position of the longest
+ * other IRI each of them starts with. Every IRI that is a prefix of some IRI
+ * {@code x} is also a prefix of the greatest IRI not greater than {@code x},
+ * so the prefixes of {@code x} are found with a binary search and by
+ * following these positions, instead of checking every term definition.
+ *
+ * Instances are built once per {@link Context}, as part of its
+ * {@link InverseContext}, and are safe to share between threads.
+ */
+final class PrefixIndex {
+
+    private final String[] iris;
+    // the position of the longest other IRI that is a prefix, or -1
+    private final int[] shorter;
+    private final String[][] terms;
+
+    private PrefixIndex(String[] iris, int[] shorter, String[][] terms) {
+        this.iris = iris;
+        this.shorter = shorter;
+        this.terms = terms;
+    }
+
+    /**
+     * @param termDefinitions
+     *            The term definitions of the active context.
+     * @return The index of the IRIs of all terms that are not compact IRIs
+     *         themselves.
+     */
+    static PrefixIndex create(Map<String, Object> termDefinitions) {
+        final TreeMap<String, List<String>> byIri = new TreeMap<String, List<String>>();
+        for (final Map.Entry<String, Object> entry : termDefinitions.entrySet()) {
+            final String term = entry.getKey();
+            final Map<String, Object> definition = (Map<String, Object>) entry.getValue();
+            if (term.contains(":") || definition == null) {
+                continue;
+            }
+            final String iri = (String) definition.get(JsonLdConsts.ID);
+            if (iri == null) {
+                continue;
+            }
+            List<String> iriTerms = byIri.get(iri);
+            if (iriTerms == null) {
+                iriTerms = new ArrayList<String>(1);
+                byIri.put(iri, iriTerms);
+            }
+            iriTerms.add(term);
+        }
+
+        final int size = byIri.size();
+        final String[] iris = new String[size];
+        final int[] shorter = new int[size];
+        final String[][] terms = new String[size][];
+        // the IRIs that are prefixes of the current one, innermost last
+        final int[] stack = new int[size];
+        int depth = 0;
+        int i = 0;
+        for (final Map.Entry<String, List<String>> entry : byIri.entrySet()) {
+            iris[i] = entry.getKey();
+            terms[i] = entry.getValue().toArray(new String[entry.getValue().size()]);
+            while (depth > 0 && !iris[i].startsWith(iris[stack[depth - 1]])) {
+                depth--;
+            }
+            shorter[i] = depth > 0 ? stack[depth - 1] : -1;
+            stack[depth++] = i;
+            i++;
+        }
+        return new PrefixIndex(iris, shorter, terms);
+    }
+
+    /**
+     * @param iri
+     *            The IRI to find prefixes of.
+     * @return The position of the longest IRI that is a prefix of, or equal
+     *         to, the given IRI, or -1 if there is none.
+     */
+    int longest(String iri) {
+        int i = Arrays.binarySearch(iris, iri);
+        if (i < 0) {
+            // the greatest IRI less than the given one
+            i = -i - 2;
+        }
+        while (i >= 0 && !iri.startsWith(iris[i])) {
+            i = shorter[i];
+        }
+        return i;
+    }
+
+    /**
+     * @return The position of the next shorter IRI that is a prefix of the
+     *         IRI at the given position, or -1 if there is none.
+     */
+    int shorter(int i) {
+        return shorter[i];
+    }
+
+    String iri(int i) {
+        return iris[i];
+    }
+
+    /**
+     * @return The terms defined with the IRI at the given position.
+     */
+    String[] terms(int i) {
+        return terms[i];
+    }
+}
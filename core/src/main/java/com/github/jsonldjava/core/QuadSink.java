@@ -0,0 +1,58 @@
+package com.github.jsonldjava.core;
+
+/**
+ * Receives RDF quads one at a time, as they are produced, rather than as a
+ * complete {@link RDFDataset}.
+ *
+ * A producer calls {@link #start()} once, then {@link #prefix(String, String)}
+ * and {@link #quad(RDFDataset.Quad)} any number of times, and finally
+ * {@link #end()} once all quads have been produced. Only {@link #quad} has to
+ * be implemented.
+ *
+ * {@link RDFDatasetSink} collects the quads into an {@link RDFDataset}, for
+ * code that expects the output of {@link JsonLdTripleCallback}.
+ */
+public interface QuadSink {
+
+    /**
+     * Called before any other method.
+     *
+     * @throws JsonLdError
+     *             To stop producing quads.
+     */
+    public default void start() throws JsonLdError {
+    }
+
+    /**
+     * Called for each namespace prefix found in the input.
+     *
+     * @param prefix
+     *            The prefix, or the empty string for the vocabulary mapping.
+     * @param iri
+     *            The IRI the prefix expands to.
+     * @throws JsonLdError
+     *             To stop producing quads.
+     */
+    public default void prefix(String prefix, String iri) throws JsonLdError {
+    }
+
+    /**
+     * Called for each quad produced.
+     *
+     * @param quad
+     *            The quad. Its graph is absent for quads in the default graph.
+     * @throws JsonLdError
+     *             To stop producing quads.
+     */
+    public void quad(RDFDataset.Quad quad) throws JsonLdError;
+
+    /**
+     * Called after all quads have been produced. Not called if producing the
+     * quads failed.
+     *
+     * @throws JsonLdError
+     *             If the sink could not complete its output.
+     */
+    public default void end() throws JsonLdError {
+    }
+}
@@ -17,22 +17,26 @@ import static com.github.jsonldjava.core.JsonLdUtils.isString;
 import static com.github.jsonldjava.core.JsonLdUtils.isValue;
 import static com.github.jsonldjava.utils.Obj.newMap;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
  * Starting to migrate away from using plain java Maps as the internal RDF
- * dataset store. Currently each item just wraps a Map based on the old format
- * so everything doesn't break. Will phase this out once everything is using the
- * new format.
+ * dataset store. Each quad and term is now an immutable object, which can
+ * still be read as a Map in the old format so everything doesn't break. Will
+ * phase this out once everything is using the new format.
  *
  * @author Tristan
  *
@@ -44,13 +48,123 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
     private static final Pattern PATTERN_DOUBLE = Pattern
             .compile("^(\\+|-)?([0-9]+(\\.[0-9]*)?|\\.[0-9]+)([Ee](\\+|-)?[0-9]+)?$");
 
-    public static class Quad extends LinkedHashMap<String, Object> implements Comparable<Quad> {
+    /**
+     * A read only map of a fixed set of keys, those with null values being
+     * absent, which is how the terms and quads of a dataset can still be used
+     * as the maps they used to be.
+     */
+    private static abstract class FixedMap extends AbstractMap<String, Object>
+            implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        abstract String[] keys();
+
+        abstract Object value(int index);
+
+        /**
+         * @return The hash code of the map, as {@link Map#hashCode()} defines
+         *         it, for subclasses to compute once.
+         */
+        final int mapHashCode() {
+            int hash = 0;
+            final String[] keys = keys();
+            for (int i = 0; i < keys.length; i++) {
+                final Object value = value(i);
+                if (value != null) {
+                    hash += keys[i].hashCode() ^ value.hashCode();
+                }
+            }
+            return hash;
+        }
+
+        @Override
+        public Object get(Object key) {
+            final String[] keys = keys();
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return value(i);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int i = 0; i < keys().length; i++) {
+                if (value(i) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        private int next = advance(0);
+
+                        private int advance(int index) {
+                            while (index < keys().length && value(index) == null) {
+                                index++;
+                            }
+                            return index;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys().length;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final Map.Entry<String, Object> entry = new SimpleImmutableEntry<String, Object>(
+                                    keys()[next], value(next));
+                            next = advance(next + 1);
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return FixedMap.this.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * An RDF quad, of which the graph is null for quads in the default graph.
+     *
+     * Quads are immutable. As a map, a quad has the "subject", "predicate",
+     * "object" and, unless it is in the default graph, "name" keys.
+     */
+    public static class Quad extends FixedMap implements Comparable<Quad> {
         private static final long serialVersionUID = -7021918051975883082L;
 
+        private static final String[] KEYS = { "subject", "predicate", "object", "name" };
+
+        private final Node subject;
+        private final Node predicate;
+        private final Node object;
+        private final Node graph;
+        private final int hash;
+
         public Quad(final String subject, final String predicate, final String object,
                 final String graph) {
-            this(subject, predicate,
-                    object.startsWith("_:") ? new BlankNode(object) : new IRI(object), graph);
+            this(subject, predicate, resource(object), graph);
         };
 
         public Quad(final String subject, final String predicate, final String value,
@@ -60,37 +174,82 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
 
         private Quad(final String subject, final String predicate, final Node object,
                 final String graph) {
-            this(subject.startsWith("_:") ? new BlankNode(subject) : new IRI(subject),
-                    new IRI(predicate), object, graph);
+            this(resource(subject), new IRI(predicate), object, graph);
         };
 
         public Quad(final Node subject, final Node predicate, final Node object,
                 final String graph) {
+            // TODO: i'm not yet sure if this should be added or if the
+            // graph should only be represented by the keys in the dataset
+            this(subject, predicate, object,
+                    graph != null && !"@default".equals(graph) ? resource(graph) : null);
+        }
+
+        /**
+         * @param graph
+         *            The graph name, or null for the default graph.
+         */
+        Quad(final Node subject, final Node predicate, final Node object, final Node graph) {
             super();
-            put("subject", subject);
-            put("predicate", predicate);
-            put("object", object);
-            if (graph != null && !"@default".equals(graph)) {
-                // TODO: i'm not yet sure if this should be added or if the
-                // graph should only be represented by the keys in the dataset
-                put("name", graph.startsWith("_:") ? new BlankNode(graph) : new IRI(graph));
-            }
+            this.subject = subject;
+            this.predicate = predicate;
+            this.object = object;
+            this.graph = graph;
+            this.hash = mapHashCode();
         }
 
         public Node getSubject() {
-            return (Node) get("subject");
+            return subject;
         }
 
         public Node getPredicate() {
-            return (Node) get("predicate");
+            return predicate;
         }
 
         public Node getObject() {
-            return (Node) get("object");
+            return object;
         }
 
         public Node getGraph() {
-            return (Node) get("name");
+            return graph;
+        }
+
+        @Override
+        String[] keys() {
+            return KEYS;
+        }
+
+        @Override
+        Object value(int index) {
+            switch (index) {
+            case 0:
+                return subject;
+            case 1:
+                return predicate;
+            case 2:
+                return object;
+            default:
+                return graph;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o instanceof Quad) {
+                final Quad q = (Quad) o;
+                return hash == q.hash && subject.equals(q.subject)
+                        && predicate.equals(q.predicate) && object.equals(q.object)
+                        && (graph == null ? q.graph == null : graph.equals(q.graph));
+            }
+            return super.equals(o);
         }
 
         @Override
@@ -98,9 +257,21 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
             if (o == null) {
                 return 1;
             }
-            int rval = getGraph().compareTo(o.getGraph());
-            if (rval != 0) {
-                return rval;
+            // quads in the default graph have no graph name
+            final Node graph = getGraph();
+            final Node otherGraph = o.getGraph();
+            int rval;
+            if (graph == null) {
+                if (otherGraph != null) {
+                    return -1;
+                }
+            } else if (otherGraph == null) {
+                return 1;
+            } else {
+                rval = graph.compareTo(otherGraph);
+                if (rval != 0) {
+                    return rval;
+                }
             }
             rval = getSubject().compareTo(o.getSubject());
             if (rval != 0) {
@@ -114,26 +285,94 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
         }
     }
 
-    public static abstract class Node extends LinkedHashMap<String, Object>
-            implements Comparable<Node> {
+    /**
+     * An RDF term: an IRI, a blank node or a literal.
+     *
+     * Terms are immutable. As a map, a term has the "type" and "value" keys,
+     * and for literals, the "datatype" and, if it has a language, "language"
+     * keys.
+     */
+    public static abstract class Node extends FixedMap implements Comparable<Node> {
         private static final long serialVersionUID = 1460990331795672793L;
 
+        private static final String[] KEYS = { "type", "value", "datatype", "language" };
+
+        private final String value;
+        private final String datatype;
+        private final String language;
+        private final int hash;
+
+        Node(String value, String datatype, String language) {
+            super();
+            this.value = value;
+            // there are few distinct datatypes and languages, so share them
+            this.datatype = datatype == null ? null : datatype.intern();
+            this.language = language == null ? null : language.intern();
+            this.hash = mapHashCode();
+        }
+
         public abstract boolean isLiteral();
 
         public abstract boolean isIRI();
 
         public abstract boolean isBlankNode();
 
+        /**
+         * @return The "type" of the term in its map form.
+         */
+        String getTypeName() {
+            return isLiteral() ? "literal" : isIRI() ? "IRI" : "blank node";
+        }
+
         public String getValue() {
-            return (String) get("value");
+            return value;
         }
 
         public String getDatatype() {
-            return (String) get("datatype");
+            return datatype;
         }
 
         public String getLanguage() {
-            return (String) get("language");
+            return language;
+        }
+
+        @Override
+        String[] keys() {
+            return KEYS;
+        }
+
+        @Override
+        Object value(int index) {
+            switch (index) {
+            case 0:
+                return getTypeName();
+            case 1:
+                return value;
+            case 2:
+                return datatype;
+            default:
+                return language;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o instanceof Node) {
+                final Node n = (Node) o;
+                return hash == n.hash && getClass() == n.getClass() && value.equals(n.value)
+                        && (datatype == null ? n.datatype == null : datatype.equals(n.datatype))
+                        && (language == null ? n.language == null
+                                : language.equals(n.language));
+            }
+            return super.equals(o);
         }
 
         @Override
@@ -220,7 +459,7 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
                             if (!Double.isNaN(d) && !Double.isInfinite(d)) {
                                 if (XSD_INTEGER.equals(type)) {
                                     final Integer i = d.intValue();
-                                    if (i.toString().equals(value)) {
+                                    if (CanonicalNumbers.formatInteger(i).equals(value)) {
                                         rval.put("@value", i);
                                     }
                                 } else if (XSD_DOUBLE.equals(type)) {
@@ -252,13 +491,7 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
         private static final long serialVersionUID = 8124736271571220251L;
 
         public Literal(String value, String datatype, String language) {
-            super();
-            put("type", "literal");
-            put("value", value);
-            put("datatype", datatype != null ? datatype : XSD_STRING);
-            if (language != null) {
-                put("language", language);
-            }
+            super(value, datatype != null ? datatype : XSD_STRING, language);
         }
 
         @Override
@@ -313,9 +546,7 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
         private static final long serialVersionUID = 1540232072155490782L;
 
         public IRI(String iri) {
-            super();
-            put("type", "IRI");
-            put("value", iri);
+            super(iri, null, null);
         }
 
         @Override
@@ -338,9 +569,7 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
         private static final long serialVersionUID = -2842402820440697318L;
 
         public BlankNode(String attribute) {
-            super();
-            put("type", "blank node");
-            put("value", attribute);
+            super(attribute, null, null);
         }
 
         @Override
@@ -359,6 +588,39 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
         }
     }
 
+    /**
+     * @return A blank node for an identifier starting with "_:", and an IRI for
+     *         any other.
+     */
+    private static Node resource(String iri) {
+        return iri.startsWith("_:") ? new BlankNode(iri) : new IRI(iri);
+    }
+
+    /**
+     * @return The shared term for a predicate or graph name, a blank node if
+     *         it starts with "_:", and an IRI otherwise.
+     */
+    private Node term(String iri) {
+        if (terms == null) {
+            terms = new HashMap<String, Node>();
+        }
+        Node term = terms.get(iri);
+        if (term == null) {
+            term = resource(iri);
+            terms.put(iri, term);
+        }
+        return term;
+    }
+
+    private Node predicate(String iri) {
+        // predicates given as strings are always IRIs
+        return iri.startsWith("_:") ? new IRI(iri) : term(iri);
+    }
+
+    private Node graphNode(String graph) {
+        return "@default".equals(graph) ? null : term(graph);
+    }
+
     private static final Node first = new IRI(RDF_FIRST);
     private static final Node rest = new IRI(RDF_REST);
     private static final Node nil = new IRI(RDF_NIL);
@@ -368,6 +630,10 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
     // private UniqueNamer namer;
     private JsonLdApi api;
 
+    // the terms used as predicates and graph names, which are shared by the
+    // quads of this dataset
+    private transient Map<String, Node> terms;
+
     public RDFDataset() {
         super();
         put("@default", new ArrayList<Quad>());
@@ -501,7 +767,8 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
         if (!containsKey(graph)) {
             put(graph, new ArrayList<Quad>());
         }
-        ((ArrayList<Quad>) get(graph)).add(new Quad(s, p, value, datatype, language, graph));
+        ((ArrayList<Quad>) get(graph)).add(new Quad(resource(s), predicate(p),
+                new Literal(value, datatype, language), graphNode(graph)));
     }
 
     /**
@@ -538,7 +805,8 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
         if (!containsKey(graph)) {
             put(graph, new ArrayList<Quad>());
         }
-        ((ArrayList<Quad>) get(graph)).add(new Quad(subject, predicate, object, graph));
+        ((ArrayList<Quad>) get(graph)).add(new Quad(resource(subject), predicate(predicate),
+                resource(object), graphNode(graph)));
     }
 
     /**
@@ -549,9 +817,25 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
      * @param graph
      *            the graph to create RDF triples for.
      */
-    void graphToRDF(String graphName, Map<String, Object> graph) {
+    void graphToRDF(String graphName, Map<String, NodeObject> graph) {
+        put(graphName, graphToQuads(graphName, graph));
+    }
+
+    /**
+     * Creates an array of RDF triples for the given graph, without adding them
+     * to this dataset.
+     *
+     * @param graphName
+     *            The graph URI
+     * @param graph
+     *            the graph to create RDF triples for.
+     * @return the RDF triples.
+     */
+    List<Quad> graphToQuads(String graphName, Map<String, NodeObject> graph) {
         // 4.2)
         final List<Quad> triples = new ArrayList<Quad>();
+        final Node graphNode = JsonLdConsts.DEFAULT.equals(graphName) ? null
+                : term(graphName);
         // 4.3)
         final List<String> subjects = new ArrayList<String>(graph.keySet());
         // Collections.sort(subjects);
@@ -559,14 +843,19 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
             if (JsonLdUtils.isRelativeIri(id)) {
                 continue;
             }
-            final Map<String, Object> node = (Map<String, Object>) graph.get(id);
-            final List<String> properties = new ArrayList<String>(node.keySet());
+            final NodeObject node = graph.get(id);
+            // NOTE: don't rename, just set it as a blank node
+            final Node subject = resource(id);
+            final List<String> properties = node.getProperties();
             Collections.sort(properties);
+            if (node.getTypes() != null) {
+                properties.add(-Collections.binarySearch(properties, "@type") - 1, "@type");
+            }
             for (String property : properties) {
-                final List<Object> values;
+                final Collection<?> values;
                 // 4.3.2.1)
                 if ("@type".equals(property)) {
-                    values = (List<Object>) node.get("@type");
+                    values = node.getTypes();
                     property = RDF_TYPE;
                 }
                 // 4.3.2.2)
@@ -581,24 +870,11 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
                 else if (JsonLdUtils.isRelativeIri(property)) {
                     continue;
                 } else {
-                    values = (List<Object>) node.get(property);
-                }
-
-                Node subject;
-                if (id.indexOf("_:") == 0) {
-                    // NOTE: don't rename, just set it as a blank node
-                    subject = new BlankNode(id);
-                } else {
-                    subject = new IRI(id);
+                    values = node.getValues(property);
                 }
 
                 // RDF predicates
-                Node predicate;
-                if (property.startsWith("_:")) {
-                    predicate = new BlankNode(property);
-                } else {
-                    predicate = new IRI(property);
-                }
+                final Node predicate = term(property);
 
                 for (final Object item : values) {
                     // convert @list to triples
@@ -611,30 +887,30 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
                             last = objectToRDF(list.get(list.size() - 1));
                             firstBNode = new BlankNode(api.generateBlankNodeIdentifier());
                         }
-                        triples.add(new Quad(subject, predicate, firstBNode, graphName));
+                        triples.add(new Quad(subject, predicate, firstBNode, graphNode));
                         for (int i = 0; i < list.size() - 1; i++) {
                             final Node object = objectToRDF(list.get(i));
-                            triples.add(new Quad(firstBNode, first, object, graphName));
+                            triples.add(new Quad(firstBNode, first, object, graphNode));
                             final Node restBNode = new BlankNode(api.generateBlankNodeIdentifier());
-                            triples.add(new Quad(firstBNode, rest, restBNode, graphName));
+                            triples.add(new Quad(firstBNode, rest, restBNode, graphNode));
                             firstBNode = restBNode;
                         }
                         if (last != null) {
-                            triples.add(new Quad(firstBNode, first, last, graphName));
-                            triples.add(new Quad(firstBNode, rest, nil, graphName));
+                            triples.add(new Quad(firstBNode, first, last, graphNode));
+                            triples.add(new Quad(firstBNode, rest, nil, graphNode));
                         }
                     }
                     // convert value or node object to triple
                     else {
                         final Node object = objectToRDF(item);
                         if (object != null) {
-                            triples.add(new Quad(subject, predicate, object, graphName));
+                            triples.add(new Quad(subject, predicate, object, graphNode));
                         }
                     }
                 }
             }
         }
-        put(graphName, triples);
+        return triples;
     }
 
     /**
@@ -670,14 +946,11 @@ public class RDFDataset extends LinkedHashMap<String, Object> {
                         if (XSD_DECIMAL.equals(datatype)) {
                             return new Literal(value.toString(), XSD_DECIMAL, null);
                         }
-                        final DecimalFormat df = new DecimalFormat("0.0###############E0");
-                        df.setDecimalFormatSymbols(DecimalFormatSymbols.getInstance(Locale.US));
-                        return new Literal(df.format(value),
+                        return new Literal(CanonicalNumbers.formatDouble((Number) value),
                                 datatype == null ? XSD_DOUBLE : (String) datatype, null);
                     }
                 } else {
-                    final DecimalFormat df = new DecimalFormat("0");
-                    return new Literal(df.format(value),
+                    return new Literal(CanonicalNumbers.formatInteger((Number) value),
                             datatype == null ? XSD_INTEGER : (String) datatype, null);
                 }
             } else if (((Map<String, Object>) item).containsKey("@language")) {
@@ -0,0 +1,72 @@
+package com.github.jsonldjava.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link QuadSink} that collects the quads into an {@link RDFDataset}, so
+ * that existing {@link JsonLdTripleCallback}s can be used with producers that
+ * push quads.
+ *
+ * Duplicate quads within a graph are only added once, and prefixes are added
+ * as namespaces of the dataset.
+ */
+public class RDFDatasetSink implements QuadSink {
+
+    private final RDFDataset dataset;
+    private final Map<String, Set<RDFDataset.Quad>> seen = new HashMap<String, Set<RDFDataset.Quad>>();
+
+    /**
+     * Creates a sink collecting into a new, empty {@link RDFDataset}.
+     */
+    public RDFDatasetSink() {
+        this(new RDFDataset());
+    }
+
+    /**
+     * Creates a sink collecting into the given dataset.
+     *
+     * @param dataset
+     *            The dataset to add the quads to.
+     */
+    public RDFDatasetSink(RDFDataset dataset) {
+        this.dataset = dataset;
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        dataset.setNamespace(prefix, iri);
+    }
+
+    @Override
+    public void quad(RDFDataset.Quad quad) {
+        final RDFDataset.Node graph = quad.getGraph();
+        final String name = graph == null ? JsonLdConsts.DEFAULT : graph.getValue();
+        Set<RDFDataset.Quad> graphQuads = seen.get(name);
+        if (graphQuads == null) {
+            graphQuads = new HashSet<RDFDataset.Quad>();
+            seen.put(name, graphQuads);
+            List<RDFDataset.Quad> quads = dataset.getQuads(name);
+            if (quads == null) {
+                quads = new ArrayList<RDFDataset.Quad>();
+                dataset.put(name, quads);
+            }
+            graphQuads.addAll(quads);
+        }
+        // add quad if unique to its graph
+        if (graphQuads.add(quad)) {
+            dataset.getQuads(name).add(quad);
+        }
+    }
+
+    /**
+     * @return The dataset the quads have been collected into.
+     */
+    public RDFDataset getDataset() {
+        return dataset;
+    }
+}
@@ -4,6 +4,7 @@ import static com.github.jsonldjava.core.JsonLdConsts.RDF_LANGSTRING;
 import static com.github.jsonldjava.core.JsonLdConsts.XSD_STRING;
 import static com.github.jsonldjava.core.Regex.HEX;
 
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -43,6 +44,30 @@ public class RDFDatasetUtils {
 
     static void toNQuad(RDFDataset.Quad triple, String graphName, String bnode,
             StringBuilder output) {
+        toNQuad(triple, graphName, bnode, false, output);
+    }
+
+    /**
+     * Serializes a quad, replacing blank nodes as required for hashing when
+     * the blank node being hashed is given.
+     *
+     * @param triple
+     *            The quad to serialize.
+     * @param graphName
+     *            The name of the graph of the quad, or null for the default
+     *            graph.
+     * @param bnode
+     *            The blank node being hashed, which is written as _:a, while
+     *            any other blank node is written as _:z. Null to write blank
+     *            nodes as they are.
+     * @param hashGraph
+     *            True to also replace a blank node graph name by _:a or _:z,
+     *            as URDNA2015 does, rather than by _:g, as URGNA2012 does.
+     * @param output
+     *            The builder to append to.
+     */
+    static void toNQuad(RDFDataset.Quad triple, String graphName, String bnode,
+            boolean hashGraph, StringBuilder output) {
         final RDFDataset.Node s = triple.getSubject();
         final RDFDataset.Node p = triple.getPredicate();
         final RDFDataset.Node o = triple.getObject();
@@ -109,7 +134,11 @@ public class RDFDatasetUtils {
                 escape(graphName, output);
                 output.append(">");
             } else if (bnode != null) {
-                output.append(" _:g");
+                if (!hashGraph) {
+                    output.append(" _:g");
+                } else {
+                    output.append(bnode.equals(graphName) ? " _:a" : " _:z");
+                }
             } else {
                 output.append(" ").append(graphName);
             }
@@ -257,35 +286,6 @@ public class RDFDatasetUtils {
         // return rval;
     }
 
-    private static class Regex {
-        // define partial regexes
-        // final public static Pattern IRI =
-        // Pattern.compile("(?:<([^:]+:[^>]*)>)");
-        final public static Pattern IRI = Pattern.compile("(?:<([^>]*)>)");
-        final public static Pattern BNODE = Pattern.compile("(_:(?:[A-Za-z][A-Za-z0-9]*))");
-        final public static Pattern PLAIN = Pattern.compile("\"([^\"\\\\]*(?:\\\\.[^\"\\\\]*)*)\"");
-        final public static Pattern DATATYPE = Pattern.compile("(?:\\^\\^" + IRI + ")");
-        final public static Pattern LANGUAGE = Pattern.compile("(?:@([a-z]+(?:-[a-zA-Z0-9]+)*))");
-        final public static Pattern LITERAL = Pattern
-                .compile("(?:" + PLAIN + "(?:" + DATATYPE + "|" + LANGUAGE + ")?)");
-        final public static Pattern WS = Pattern.compile("[ \\t]+");
-        final public static Pattern WSO = Pattern.compile("[ \\t]*");
-        final public static Pattern EOLN = Pattern.compile("(?:\r\n)|(?:\n)|(?:\r)");
-        final public static Pattern EMPTY = Pattern.compile("^" + WSO + "$");
-
-        // define quad part regexes
-        final public static Pattern SUBJECT = Pattern.compile("(?:" + IRI + "|" + BNODE + ")" + WS);
-        final public static Pattern PROPERTY = Pattern.compile(IRI.pattern() + WS.pattern());
-        final public static Pattern OBJECT = Pattern
-                .compile("(?:" + IRI + "|" + BNODE + "|" + LITERAL + ")" + WSO);
-        final public static Pattern GRAPH = Pattern
-                .compile("(?:\\.|(?:(?:" + IRI + "|" + BNODE + ")" + WSO + "\\.))");
-
-        // full quad regex
-        final public static Pattern QUAD = Pattern
-                .compile("^" + WSO + SUBJECT + PROPERTY + OBJECT + GRAPH + WSO + "$");
-    }
-
     /**
      * Parses RDF in the form of N-Quads.
      *
@@ -297,77 +297,21 @@ public class RDFDatasetUtils {
      *             If there was an error parsing the N-Quads document.
      */
     public static RDFDataset parseNQuads(String input) throws JsonLdError {
-        // build RDF dataset
-        final RDFDataset dataset = new RDFDataset();
-
-        // split N-Quad input into lines
-        final String[] lines = Regex.EOLN.split(input);
-        int lineNumber = 0;
-        for (final String line : lines) {
-            lineNumber++;
-
-            // skip empty lines
-            if (Regex.EMPTY.matcher(line).matches()) {
-                continue;
-            }
-
-            // parse quad
-            final Matcher match = Regex.QUAD.matcher(line);
-            if (!match.matches()) {
-                throw new JsonLdError(JsonLdError.Error.SYNTAX_ERROR,
-                        "Error while parsing N-Quads; invalid quad. line:" + lineNumber);
-            }
-
-            // get subject
-            RDFDataset.Node subject;
-            if (match.group(1) != null) {
-                subject = new RDFDataset.IRI(unescape(match.group(1)));
-            } else {
-                subject = new RDFDataset.BlankNode(unescape(match.group(2)));
-            }
-
-            // get predicate
-            final RDFDataset.Node predicate = new RDFDataset.IRI(unescape(match.group(3)));
-
-            // get object
-            RDFDataset.Node object;
-            if (match.group(4) != null) {
-                object = new RDFDataset.IRI(unescape(match.group(4)));
-            } else if (match.group(5) != null) {
-                object = new RDFDataset.BlankNode(unescape(match.group(5)));
-            } else {
-                final String language = unescape(match.group(8));
-                final String datatype = match.group(7) != null ? unescape(match.group(7))
-                        : match.group(8) != null ? RDF_LANGSTRING : XSD_STRING;
-                final String unescaped = unescape(match.group(6));
-                object = new RDFDataset.Literal(unescaped, datatype, language);
-            }
-
-            // get graph name ('@default' is used for the default graph)
-            String name = "@default";
-            if (match.group(9) != null) {
-                name = unescape(match.group(9));
-            } else if (match.group(10) != null) {
-                name = unescape(match.group(10));
-            }
-
-            final RDFDataset.Quad triple = new RDFDataset.Quad(subject, predicate, object, name);
-
-            // initialise graph in dataset
-            if (!dataset.containsKey(name)) {
-                final List<RDFDataset.Quad> tmp = new ArrayList<RDFDataset.Quad>();
-                tmp.add(triple);
-                dataset.put(name, tmp);
-            }
-            // add triple if unique to its graph
-            else {
-                final List<RDFDataset.Quad> triples = (List<RDFDataset.Quad>) dataset.get(name);
-                if (!triples.contains(triple)) {
-                    triples.add(triple);
-                }
-            }
-        }
+        return new NQuadsParser(input).parse();
+    }
 
-        return dataset;
+    /**
+     * Parses RDF in the form of N-Quads, streaming the input from the given
+     * {@link Reader}.
+     *
+     * @param input
+     *            the N-Quads input to parse.
+     *
+     * @return an RDF dataset.
+     * @throws JsonLdError
+     *             If there was an error parsing the N-Quads document.
+     */
+    public static RDFDataset parseNQuads(Reader input) throws JsonLdError {
+        return new NQuadsParser(input).parse();
     }
 }
@@ -0,0 +1,220 @@
+package com.github.jsonldjava.core;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The term definitions of a {@link Context}, stored as a delta on top of the
+ * term definitions of the context it was created from.
+ *
+ * Cloning a context {@link #share() shares} its term definitions instead of
+ * copying them. A shared instance is never modified again; the first change
+ * to either context adds a new layer, holding only the terms changed by that
+ * context, on top of the shared one. Processing a local context therefore
+ * costs time and memory in the number of terms it defines, rather than in the
+ * number of terms in the active context.
+ *
+ * Iteration order is the same as that of a {@link LinkedHashMap} that had the
+ * same changes applied to it. Lookups walk the layers, and the number of
+ * layers is bounded by {@link #MAX_DEPTH}, after which the term definitions
+ * are copied into a single layer again.
+ */
+final class TermDefinitions extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = -2853424521286513484L;
+
+    static final int MAX_DEPTH = 16;
+
+    // marks a term that is not defined, as terms may be defined as null
+    private static final Object ABSENT = new Object();
+
+    private final TermDefinitions parent;
+    private final int depth;
+    // terms added by this layer, in the order they were added
+    private final Map<String, Object> entries = new LinkedHashMap<String, Object>();
+    // terms of the parent that this layer redefined in place
+    private final Map<String, Object> replaced = new HashMap<String, Object>();
+    // terms of the parent that this layer removed
+    private final Set<String> hidden = new HashSet<String>();
+    private int size;
+    private volatile boolean shared;
+    private transient volatile Map<String, Object> flat;
+
+    TermDefinitions() {
+        this.parent = null;
+        this.depth = 0;
+        this.size = 0;
+    }
+
+    private TermDefinitions(TermDefinitions parent) {
+        this.parent = parent;
+        this.depth = parent.depth + 1;
+        this.size = parent.size;
+    }
+
+    /**
+     * Marks these term definitions as shared between several contexts, so
+     * that they are never modified again.
+     *
+     * @return this instance.
+     */
+    TermDefinitions share() {
+        shared = true;
+        return this;
+    }
+
+    /**
+     * @return these term definitions if they may be modified, otherwise a new
+     *         layer on top of them.
+     */
+    TermDefinitions writable() {
+        if (!shared) {
+            return this;
+        }
+        if (depth < MAX_DEPTH) {
+            return new TermDefinitions(this);
+        }
+        final TermDefinitions result = new TermDefinitions();
+        result.entries.putAll(flatten());
+        result.size = result.entries.size();
+        return result;
+    }
+
+    private Object find(Object term) {
+        for (TermDefinitions layer = this; layer != null; layer = layer.parent) {
+            Object value = layer.entries.get(term);
+            if (value != null || layer.entries.containsKey(term)) {
+                return value;
+            }
+            if (layer.parent == null) {
+                break;
+            }
+            if (!layer.hidden.isEmpty() && layer.hidden.contains(term)) {
+                return ABSENT;
+            }
+            if (!layer.replaced.isEmpty()) {
+                value = layer.replaced.get(term);
+                if (value != null || layer.replaced.containsKey(term)) {
+                    return value;
+                }
+            }
+        }
+        return ABSENT;
+    }
+
+    @Override
+    public Object get(Object term) {
+        final Object value = find(term);
+        return value == ABSENT ? null : value;
+    }
+
+    @Override
+    public boolean containsKey(Object term) {
+        return find(term) != ABSENT;
+    }
+
+    @Override
+    public Object put(String term, Object definition) {
+        checkWritable();
+        flat = null;
+        if (entries.containsKey(term)) {
+            return entries.put(term, definition);
+        }
+        if (parent != null && !hidden.contains(term)) {
+            if (replaced.containsKey(term)) {
+                return replaced.put(term, definition);
+            }
+            final Object previous = parent.find(term);
+            if (previous != ABSENT) {
+                replaced.put(term, definition);
+                return previous;
+            }
+        }
+        entries.put(term, definition);
+        size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object term) {
+        checkWritable();
+        flat = null;
+        if (entries.containsKey(term)) {
+            size--;
+            return entries.remove(term);
+        }
+        if (parent != null && !hidden.contains(term)) {
+            final Object previous = replaced.containsKey(term) ? replaced.remove(term)
+                    : parent.find(term);
+            if (previous != ABSENT) {
+                hidden.add((String) term);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        checkWritable();
+        flat = null;
+        if (parent != null) {
+            hidden.addAll(parent.flatten().keySet());
+        }
+        entries.clear();
+        replaced.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return Collections.unmodifiableMap(flatten()).entrySet();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableMap(flatten()).keySet();
+    }
+
+    private Map<String, Object> flatten() {
+        if (parent == null) {
+            return entries;
+        }
+        Map<String, Object> result = flat;
+        if (result == null) {
+            result = new LinkedHashMap<String, Object>(size * 4 / 3 + 1);
+            for (final Map.Entry<String, Object> entry : parent.flatten().entrySet()) {
+                final String term = entry.getKey();
+                if (hidden.contains(term)) {
+                    continue;
+                }
+                if (replaced.containsKey(term)) {
+                    result.put(term, replaced.get(term));
+                } else {
+                    result.put(term, entry.getValue());
+                }
+            }
+            result.putAll(entries);
+            flat = result;
+        }
+        return result;
+    }
+
+    private void checkWritable() {
+        if (shared) {
+            throw new IllegalStateException("Shared term definitions can not be modified");
+        }
+    }
+}
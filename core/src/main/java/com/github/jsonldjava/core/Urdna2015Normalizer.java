@@ -0,0 +1,468 @@
+package com.github.jsonldjava.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import com.github.jsonldjava.core.NormalizeUtils.Permutator;
+import com.github.jsonldjava.core.RDFDataset.BlankNode;
+import com.github.jsonldjava.core.RDFDataset.Node;
+import com.github.jsonldjava.core.RDFDataset.Quad;
+
+/**
+ * Implements the
+ * <a href="https://www.w3.org/TR/rdf-canon/">URDNA2015 RDF Dataset
+ * Canonicalization algorithm</a>.
+ *
+ * Works directly on the {@link Quad}s of a dataset: each blank node is mapped
+ * to the quads it appears in, quads are only serialized to compute hashes and
+ * the final output, and the canonical dataset is built from relabelled quads
+ * rather than by parsing the output.
+ *
+ * Instances are not thread safe, and are meant to be used once.
+ */
+class Urdna2015Normalizer {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final JsonLdOptions options;
+    private final Appendable output;
+
+    private final List<Quad> quads = new ArrayList<Quad>();
+    // blank node identifier to the quads it appears in
+    private final Map<String, List<Quad>> bnodeQuads = new LinkedHashMap<String, List<Quad>>();
+    private final Map<String, String> firstDegreeHashes = new HashMap<String, String>();
+    private final UniqueNamer canonicalIssuer = new UniqueNamer("_:c14n");
+    // hashNDegreeQuads results for the current hash group, keyed by blank
+    // node and issuer state
+    private final Map<String, HashResult> nDegreeHashes = new HashMap<String, HashResult>();
+    // number of permutations that may still be tried, or -1 for no limit
+    private long budget;
+
+    private final MessageDigest md;
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * Creates a normalizer that writes the normalized N-Quads to the given
+     * output, if not null, instead of returning them.
+     */
+    Urdna2015Normalizer(JsonLdOptions options, Appendable output) {
+        this.options = options;
+        this.output = output;
+        final long limit = options.getNormalizationBudget();
+        this.budget = limit > 0 ? limit : -1;
+        this.md = newDigest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // required to be supported by every Java platform
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Normalizes the given dataset.
+     *
+     * @param dataset
+     *            The dataset to normalize, mapping graph names to lists of
+     *            quads.
+     * @return The output if one was given, the normalized N-Quads if the
+     *         format option is set, and otherwise the normalized
+     *         {@link RDFDataset}.
+     * @throws JsonLdError
+     *             If the format is unknown, or the output could not be
+     *             written to.
+     */
+    Object normalize(Map<String, Object> dataset) throws JsonLdError {
+        // 1 + 2)
+        for (final String graphName : dataset.keySet()) {
+            final String name = JsonLdConsts.DEFAULT.equals(graphName) ? null : graphName;
+            for (Quad quad : (List<Quad>) dataset.get(graphName)) {
+                if (name != null && quad.getGraph() == null) {
+                    quad = new Quad(quad.getSubject(), quad.getPredicate(), quad.getObject(),
+                            name);
+                }
+                quads.add(quad);
+                addBlankNodeQuad(quad.getSubject(), quad);
+                addBlankNodeQuad(quad.getObject(), quad);
+                addBlankNodeQuad(quad.getGraph(), quad);
+            }
+        }
+
+        // 3 + 4)
+        if (options.getExecutor() != null && bnodeQuads.size() > 1) {
+            hashFirstDegreeQuads(options.getExecutor());
+        }
+        final Map<String, List<String>> hashToBlankNodes = new TreeMap<String, List<String>>();
+        for (final String bnode : bnodeQuads.keySet()) {
+            final String hash = hashFirstDegreeQuads(bnode);
+            List<String> bnodes = hashToBlankNodes.get(hash);
+            if (bnodes == null) {
+                bnodes = new ArrayList<String>(1);
+                hashToBlankNodes.put(hash, bnodes);
+            }
+            bnodes.add(bnode);
+        }
+
+        // 5) name blank nodes with a unique first degree hash, in hash order
+        for (final List<String> bnodes : hashToBlankNodes.values()) {
+            if (bnodes.size() == 1) {
+                canonicalIssuer.getName(bnodes.get(0));
+            }
+        }
+
+        // 6) name the remaining blank nodes, hash group by hash group
+        for (final List<String> bnodes : hashToBlankNodes.values()) {
+            if (bnodes.size() == 1) {
+                continue;
+            }
+            final List<HashResult> results = new ArrayList<HashResult>();
+            nDegreeHashes.clear();
+            for (final String bnode : bnodes) {
+                if (canonicalIssuer.isNamed(bnode)) {
+                    continue;
+                }
+                final UniqueNamer issuer = new UniqueNamer("_:b");
+                issuer.getName(bnode);
+                results.add(hashNDegreeQuads(bnode, issuer));
+            }
+            Collections.sort(results, new Comparator<HashResult>() {
+                @Override
+                public int compare(HashResult a, HashResult b) {
+                    return a.hash.compareTo(b.hash);
+                }
+            });
+            for (final HashResult result : results) {
+                for (final String bnode : result.issuer.existing().keySet()) {
+                    canonicalIssuer.getName(bnode);
+                }
+            }
+        }
+
+        // 7) relabel and serialize the quads
+        final List<CanonicalQuad> normalized = new ArrayList<CanonicalQuad>(quads.size());
+        for (final Quad quad : quads) {
+            final Node graph = quad.getGraph();
+            final String graphName = graph == null ? null
+                    : graph.isBlankNode() ? canonicalIssuer.getName(graph.getValue())
+                            : graph.getValue();
+            final Quad canonical = new Quad(relabel(quad.getSubject()), quad.getPredicate(),
+                    relabel(quad.getObject()), graphName);
+            line.setLength(0);
+            RDFDatasetUtils.toNQuad(canonical, graphName, null, line);
+            normalized.add(new CanonicalQuad(line.toString(), canonical));
+        }
+        Collections.sort(normalized);
+
+        return output(normalized);
+    }
+
+    private Object output(List<CanonicalQuad> normalized) throws JsonLdError {
+        // stream to the given output
+        if (output != null) {
+            try {
+                for (final CanonicalQuad quad : normalized) {
+                    output.append(quad.nquad);
+                }
+            } catch (final IOException e) {
+                throw new JsonLdError(JsonLdError.Error.IO_ERROR, "Error while writing N-Quads",
+                        e);
+            }
+            return output;
+        }
+
+        // handle output format
+        if (options.format != null) {
+            if (JsonLdConsts.APPLICATION_NQUADS.equals(options.format)) {
+                final StringBuilder rval = new StringBuilder();
+                for (final CanonicalQuad quad : normalized) {
+                    rval.append(quad.nquad);
+                }
+                return rval.toString();
+            } else {
+                throw new JsonLdError(JsonLdError.Error.UNKNOWN_FORMAT, options.format);
+            }
+        }
+
+        final RDFDatasetSink sink = new RDFDatasetSink();
+        for (final CanonicalQuad quad : normalized) {
+            sink.quad(quad.quad);
+        }
+        return sink.getDataset();
+    }
+
+    private void addBlankNodeQuad(Node node, Quad quad) {
+        if (node == null || !node.isBlankNode()) {
+            return;
+        }
+        final String bnode = node.getValue();
+        List<Quad> list = bnodeQuads.get(bnode);
+        if (list == null) {
+            list = new ArrayList<Quad>();
+            bnodeQuads.put(bnode, list);
+        }
+        // a blank node appearing several times in a quad references it once
+        if (list.isEmpty() || list.get(list.size() - 1) != quad) {
+            list.add(quad);
+        }
+    }
+
+    private Node relabel(Node node) {
+        if (node.isBlankNode()) {
+            return new BlankNode(canonicalIssuer.getName(node.getValue()));
+        }
+        return node;
+    }
+
+    /**
+     * Computes the first degree hashes of all blank nodes concurrently.
+     */
+    private void hashFirstDegreeQuads(Executor executor) throws JsonLdError {
+        final List<String> bnodes = new ArrayList<String>(bnodeQuads.keySet());
+        final List<Callable<String>> tasks = new ArrayList<Callable<String>>(bnodes.size());
+        for (final String bnode : bnodes) {
+            final List<Quad> referenced = bnodeQuads.get(bnode);
+            tasks.add(new Callable<String>() {
+                @Override
+                public String call() {
+                    return hashFirstDegreeQuads(bnode, referenced, newDigest(),
+                            new StringBuilder(256));
+                }
+            });
+        }
+        final List<String> hashes = JsonLdUtils.invokeAll(executor, tasks);
+        for (int i = 0; i < bnodes.size(); i++) {
+            firstDegreeHashes.put(bnodes.get(i), hashes.get(i));
+        }
+    }
+
+    private String hashFirstDegreeQuads(String bnode) {
+        String hash = firstDegreeHashes.get(bnode);
+        if (hash == null) {
+            hash = hashFirstDegreeQuads(bnode, bnodeQuads.get(bnode), md, line);
+            firstDegreeHashes.put(bnode, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Hash First Degree Quads
+     *
+     * https://www.w3.org/TR/rdf-canon/#hash-1d-quads
+     */
+    private static String hashFirstDegreeQuads(String bnode, List<Quad> referenced,
+            MessageDigest md, StringBuilder line) {
+        // 1 + 2 + 3)
+        final List<String> nquads = new ArrayList<String>(referenced.size());
+        for (final Quad quad : referenced) {
+            final Node graph = quad.getGraph();
+            line.setLength(0);
+            RDFDatasetUtils.toNQuad(quad, graph == null ? null : graph.getValue(), bnode, true,
+                    line);
+            nquads.add(line.toString());
+        }
+        // 4)
+        Collections.sort(nquads);
+        // 5)
+        for (final String nquad : nquads) {
+            md.update(nquad.getBytes(StandardCharsets.UTF_8));
+        }
+        return digest(md);
+    }
+
+    /**
+     * Hash Related Blank Node
+     *
+     * https://www.w3.org/TR/rdf-canon/#hash-related-blank-node
+     */
+    private String hashRelatedBlankNode(String related, Quad quad, UniqueNamer issuer,
+            char position) {
+        // 1)
+        final String identifier;
+        if (canonicalIssuer.isNamed(related)) {
+            identifier = canonicalIssuer.getName(related);
+        } else if (issuer.isNamed(related)) {
+            identifier = issuer.getName(related);
+        } else {
+            identifier = hashFirstDegreeQuads(related);
+        }
+        // 2 + 3 + 4)
+        line.setLength(0);
+        line.append(position);
+        if (position != 'g') {
+            line.append('<').append(quad.getPredicate().getValue()).append('>');
+        }
+        line.append(identifier);
+        md.update(line.toString().getBytes(StandardCharsets.UTF_8));
+        // 5)
+        return digest();
+    }
+
+    /**
+     * Hash N-Degree Quads
+     *
+     * https://www.w3.org/TR/rdf-canon/#hash-nd-quads
+     */
+    private HashResult hashNDegreeQuads(String bnode, UniqueNamer issuer) throws JsonLdError {
+        // the canonical issuer doesn't change while a hash group is named
+        final StringBuilder key = new StringBuilder(bnode);
+        for (final String named : issuer.existing().keySet()) {
+            key.append(' ').append(named);
+        }
+        final String memoKey = key.toString();
+        HashResult result = nDegreeHashes.get(memoKey);
+        if (result == null) {
+            result = hashPermutations(bnode, issuer);
+            nDegreeHashes.put(memoKey, result);
+        }
+        return result;
+    }
+
+    private HashResult hashPermutations(String bnode, UniqueNamer issuer) throws JsonLdError {
+        // 1 + 2 + 3)
+        final Map<String, List<String>> hashToRelated = new TreeMap<String, List<String>>();
+        for (final Quad quad : bnodeQuads.get(bnode)) {
+            addRelated(hashToRelated, bnode, quad, quad.getSubject(), issuer, 's');
+            addRelated(hashToRelated, bnode, quad, quad.getObject(), issuer, 'o');
+            addRelated(hashToRelated, bnode, quad, quad.getGraph(), issuer, 'g');
+        }
+
+        // 4)
+        final StringBuilder dataToHash = new StringBuilder();
+
+        // 5)
+        for (final Map.Entry<String, List<String>> entry : hashToRelated.entrySet()) {
+            // 5.1)
+            dataToHash.append(entry.getKey());
+            // 5.2 + 5.3)
+            String chosenPath = null;
+            UniqueNamer chosenIssuer = null;
+
+            // 5.4)
+            final Permutator permutator = new Permutator(entry.getValue());
+            permutations: while (permutator.hasNext()) {
+                if (budget == 0) {
+                    throw new JsonLdError(JsonLdError.Error.NORMALIZATION_BUDGET_EXCEEDED,
+                            "more than " + options.getNormalizationBudget()
+                                    + " blank node permutations");
+                }
+                if (budget > 0) {
+                    budget--;
+                }
+                final List<String> permutation = permutator.next();
+                // 5.4.1 + 5.4.2 + 5.4.3)
+                UniqueNamer issuerCopy = issuer.clone();
+                final StringBuilder path = new StringBuilder();
+                final List<String> recursionList = new ArrayList<String>();
+
+                // 5.4.4)
+                for (final String related : permutation) {
+                    if (canonicalIssuer.isNamed(related)) {
+                        path.append(canonicalIssuer.getName(related));
+                    } else {
+                        if (!issuerCopy.isNamed(related)) {
+                            recursionList.add(related);
+                        }
+                        path.append(issuerCopy.getName(related));
+                    }
+                    if (NormalizeUtils.isGreater(path.toString(), chosenPath)) {
+                        continue permutations;
+                    }
+                }
+
+                // 5.4.5)
+                for (final String related : recursionList) {
+                    final HashResult result = hashNDegreeQuads(related, issuerCopy);
+                    path.append(issuerCopy.getName(related));
+                    path.append('<').append(result.hash).append('>');
+                    issuerCopy = result.issuer;
+                    if (NormalizeUtils.isGreater(path.toString(), chosenPath)) {
+                        continue permutations;
+                    }
+                }
+
+                // 5.4.6)
+                if (chosenPath == null || path.toString().compareTo(chosenPath) < 0) {
+                    chosenPath = path.toString();
+                    chosenIssuer = issuerCopy;
+                }
+            }
+
+            // 5.5 + 5.6)
+            dataToHash.append(chosenPath);
+            issuer = chosenIssuer;
+        }
+
+        // 6)
+        md.update(dataToHash.toString().getBytes(StandardCharsets.UTF_8));
+        return new HashResult(digest(), issuer);
+    }
+
+    private void addRelated(Map<String, List<String>> hashToRelated, String bnode, Quad quad,
+            Node node, UniqueNamer issuer, char position) {
+        if (node == null || !node.isBlankNode() || bnode.equals(node.getValue())) {
+            return;
+        }
+        final String related = node.getValue();
+        final String hash = hashRelatedBlankNode(related, quad, issuer, position);
+        List<String> list = hashToRelated.get(hash);
+        if (list == null) {
+            list = new ArrayList<String>();
+            hashToRelated.put(hash, list);
+        }
+        list.add(related);
+    }
+
+    private String digest() {
+        return digest(md);
+    }
+
+    private static String digest(MessageDigest md) {
+        final byte[] bytes = md.digest();
+        final char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    private static final class HashResult {
+        final String hash;
+        final UniqueNamer issuer;
+
+        HashResult(String hash, UniqueNamer issuer) {
+            this.hash = hash;
+            this.issuer = issuer;
+        }
+    }
+
+    private static final class CanonicalQuad implements Comparable<CanonicalQuad> {
+        final String nquad;
+        final Quad quad;
+
+        CanonicalQuad(String nquad, Quad quad) {
+            this.nquad = nquad;
+            this.quad = quad;
+        }
+
+        @Override
+        public int compareTo(CanonicalQuad o) {
+            return nquad.compareTo(o.nquad);
+        }
+    }
+}
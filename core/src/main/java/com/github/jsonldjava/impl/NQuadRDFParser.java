@@ -1,18 +1,30 @@
 package com.github.jsonldjava.impl;
 
+import java.io.InputStream;
+import java.io.Reader;
+
 import com.github.jsonldjava.core.JsonLdError;
+import com.github.jsonldjava.core.NQuadsParser;
 import com.github.jsonldjava.core.RDFDataset;
-import com.github.jsonldjava.core.RDFDatasetUtils;
 import com.github.jsonldjava.core.RDFParser;
 
+/**
+ * Parses N-Quads into an {@link RDFDataset}. Accepts the document as a
+ * {@link String}, or streams it from a {@link Reader} or a UTF-8 encoded
+ * {@link InputStream}.
+ */
 public class NQuadRDFParser implements RDFParser {
     @Override
     public RDFDataset parse(Object input) throws JsonLdError {
         if (input instanceof String) {
-            return RDFDatasetUtils.parseNQuads((String) input);
+            return new NQuadsParser((String) input).parse();
+        } else if (input instanceof Reader) {
+            return new NQuadsParser((Reader) input).parse();
+        } else if (input instanceof InputStream) {
+            return new NQuadsParser((InputStream) input).parse();
         } else {
             throw new JsonLdError(JsonLdError.Error.INVALID_INPUT,
-                    "NQuad Parser expected string input.");
+                    "NQuad Parser expected string, Reader or InputStream input.");
         }
     }
 
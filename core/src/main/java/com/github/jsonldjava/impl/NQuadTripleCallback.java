@@ -1,12 +1,43 @@
 package com.github.jsonldjava.impl;
 
+import java.io.IOException;
+
+import com.github.jsonldjava.core.JsonLdError;
 import com.github.jsonldjava.core.JsonLdTripleCallback;
+import com.github.jsonldjava.core.NQuadsWriter;
 import com.github.jsonldjava.core.RDFDataset;
 import com.github.jsonldjava.core.RDFDatasetUtils;
 
+/**
+ * Serializes the dataset as N-Quads. By default the sorted serialization is
+ * returned as a String. If an output is given, the quads are instead streamed
+ * to it in dataset order using an {@link NQuadsWriter}, and the output is
+ * returned.
+ */
 public class NQuadTripleCallback implements JsonLdTripleCallback {
+
+    private final Appendable output;
+
+    public NQuadTripleCallback() {
+        this(null);
+    }
+
+    public NQuadTripleCallback(Appendable output) {
+        this.output = output;
+    }
+
     @Override
     public Object call(RDFDataset dataset) {
-        return RDFDatasetUtils.toNQuads(dataset);
+        if (output == null) {
+            return RDFDatasetUtils.toNQuads(dataset);
+        }
+        try {
+            final NQuadsWriter writer = new NQuadsWriter(output);
+            writer.write(dataset);
+            writer.flush();
+        } catch (final IOException e) {
+            throw new JsonLdError(JsonLdError.Error.IO_ERROR, "Error while writing N-Quads", e);
+        }
+        return output;
     }
 }
@@ -5,6 +5,8 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -249,10 +251,262 @@ public class JsonLdUrl {
         return rval;
     }
 
+    /**
+     * Resolves a reference against a base IRI following RFC 3986 section 5.2.
+     *
+     * The common case of a hierarchical base and a relative reference made of
+     * plain ASCII IRI characters is resolved in a single pass over the
+     * pre-parsed (and cached) components of the base. Anything else, such as
+     * absolute or network-path references, opaque bases or percent-encoded
+     * characters, goes through {@link java.net.URI}.
+     *
+     * @param baseUri
+     *            the base IRI, may be null.
+     * @param pathToResolve
+     *            the reference to resolve.
+     * @return The resolved IRI, or null if the base is not a valid URI.
+     */
     public static String resolve(String baseUri, String pathToResolve) {
-        // TODO: some input will need to be normalized to perform the expected
-        // result with java
-        // TODO: we can do this without using java URI!
+        if (baseUri == null) {
+            return pathToResolve;
+        }
+        if (pathToResolve == null || "".equals(pathToResolve.trim())) {
+            return baseUri;
+        }
+        final Base base = Base.of(baseUri);
+        if (base == null || !isRelativeReference(pathToResolve)) {
+            return resolveWithURI(baseUri, pathToResolve);
+        }
+
+        final char first = pathToResolve.charAt(0);
+        if (first == '?') {
+            // T.query = R.query, the query of the base is dropped
+            return base.withoutQuery.concat(pathToResolve);
+        }
+        if (first == '#') {
+            return base.withQuery.concat(pathToResolve);
+        }
+
+        int pathEnd = 0;
+        final int length = pathToResolve.length();
+        while (pathEnd < length) {
+            final char c = pathToResolve.charAt(pathEnd);
+            if (c == '?' || c == '#') {
+                break;
+            }
+            pathEnd++;
+        }
+        final boolean absolutePath = first == '/';
+        final String dir = absolutePath ? "" : base.directory;
+        final int prefix = base.origin.length();
+        final char[] buf = new char[prefix + dir.length() + length + 1];
+        base.origin.getChars(0, prefix, buf, 0);
+        dir.getChars(0, dir.length(), buf, prefix);
+        pathToResolve.getChars(0, pathEnd, buf, prefix + dir.length());
+        int end = removeDotSegments(buf, prefix, prefix + dir.length() + pathEnd,
+                !absolutePath);
+        // query and fragment of the reference are kept as they are
+        pathToResolve.getChars(pathEnd, length, buf, end);
+        end += length - pathEnd;
+        return new String(buf, 0, end);
+    }
+
+    /**
+     * Removes dot segments in place from the absolute path in
+     * {@code buf[start, end)}. Empty segments are dropped as well, and
+     * {@code ..} segments never climb above the root.
+     *
+     * @param dotsEndDirectory
+     *            true if a trailing {@code .} or {@code ..} segment leaves a
+     *            trailing slash, which is the case for merged paths.
+     * @return The end of the normalized path.
+     */
+    private static int removeDotSegments(char[] buf, int start, int end,
+            boolean dotsEndDirectory) {
+        int out = start;
+        int in = start;
+        boolean directory = false;
+        while (in < end) {
+            while (in < end && buf[in] == '/') {
+                in++;
+            }
+            if (in == end) {
+                directory = true;
+                break;
+            }
+            final int segment = in;
+            while (in < end && buf[in] != '/') {
+                in++;
+            }
+            final int segmentLength = in - segment;
+            if (segmentLength == 1 && buf[segment] == '.') {
+                directory = dotsEndDirectory;
+            } else if (segmentLength == 2 && buf[segment] == '.' && buf[segment + 1] == '.') {
+                while (out > start && buf[--out] != '/') {
+                }
+                directory = dotsEndDirectory;
+            } else {
+                buf[out++] = '/';
+                System.arraycopy(buf, segment, buf, out, segmentLength);
+                out += segmentLength;
+                directory = false;
+            }
+        }
+        if (out == start || directory) {
+            buf[out++] = '/';
+        }
+        return out;
+    }
+
+    /**
+     * Checks that an IRI only uses characters that are allowed unescaped in
+     * RFC 3986, without percent-encoding, IP literals or more than one
+     * fragment.
+     */
+    private static boolean isPlain(String iri) {
+        boolean fragment = false;
+        for (int i = 0; i < iri.length(); i++) {
+            final char c = iri.charAt(i);
+            if (c == '#') {
+                if (fragment) {
+                    return false;
+                }
+                fragment = true;
+            } else if (c >= 128 || !PLAIN[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final boolean[] PLAIN = new boolean[128];
+    static {
+        for (final char c : ("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789"
+                + "-._~:/?@!$&'()*+,;=").toCharArray()) {
+            PLAIN[c] = true;
+        }
+    }
+
+    /**
+     * Checks for a plain reference without scheme or authority.
+     */
+    private static boolean isRelativeReference(String iri) {
+        if (iri.startsWith("//") || !isPlain(iri)) {
+            return false;
+        }
+        for (int i = 0; i < iri.length(); i++) {
+            final char c = iri.charAt(i);
+            if (c == ':') {
+                // either a scheme or a colon in the first path segment
+                return false;
+            }
+            if (c == '/' || c == '?' || c == '#') {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The parsed components of a hierarchical base IRI.
+     */
+    private static final class Base {
+
+        private static final int MAX_CACHED = 1024;
+        private static final Base OTHER = new Base("", "", "", "");
+        private static final Map<String, Base> CACHE = new ConcurrentHashMap<String, Base>();
+
+        /** scheme and authority */
+        final String origin;
+        /** the path up to and including its last slash */
+        final String directory;
+        final String withoutQuery;
+        final String withQuery;
+
+        private Base(String origin, String directory, String withoutQuery, String withQuery) {
+            this.origin = origin;
+            this.directory = directory;
+            this.withoutQuery = withoutQuery;
+            this.withQuery = withQuery;
+        }
+
+        /**
+         * Returns the parsed base, or null if it has to be resolved with
+         * {@link java.net.URI}.
+         */
+        static Base of(String iri) {
+            Base base = CACHE.get(iri);
+            if (base == null) {
+                base = parse(iri);
+                if (CACHE.size() >= MAX_CACHED) {
+                    CACHE.clear();
+                }
+                CACHE.put(iri, base);
+            }
+            return base == OTHER ? null : base;
+        }
+
+        private static Base parse(String iri) {
+            if (!isPlain(iri)) {
+                return OTHER;
+            }
+            final int length = iri.length();
+            int i = 0;
+            while (i < length && isSchemeChar(iri.charAt(i), i == 0)) {
+                i++;
+            }
+            // only hierarchical IRIs with a scheme
+            if (i == 0 || i + 1 >= length || iri.charAt(i) != ':' || iri.charAt(i + 1) != '/') {
+                return OTHER;
+            }
+            int pathStart = i + 1;
+            String origin = iri.substring(0, pathStart);
+            if (iri.startsWith("//", pathStart)) {
+                int authorityEnd = pathStart + 2;
+                while (authorityEnd < length && "/?#".indexOf(iri.charAt(authorityEnd)) == -1) {
+                    authorityEnd++;
+                }
+                if (authorityEnd < length && iri.charAt(authorityEnd) == '?') {
+                    // an empty path followed by a query
+                    return OTHER;
+                }
+                if (authorityEnd == pathStart + 2) {
+                    // an empty authority is dropped, so the path must not
+                    // look like one
+                    if (authorityEnd == length || iri.charAt(authorityEnd) != '/'
+                            || iri.startsWith("//", authorityEnd)) {
+                        return OTHER;
+                    }
+                } else {
+                    origin = iri.substring(0, authorityEnd);
+                }
+                pathStart = authorityEnd;
+            }
+            int queryStart = pathStart;
+            while (queryStart < length && iri.charAt(queryStart) != '?'
+                    && iri.charAt(queryStart) != '#') {
+                queryStart++;
+            }
+            int fragmentStart = iri.indexOf('#', queryStart);
+            if (fragmentStart == -1) {
+                fragmentStart = length;
+            }
+            final String path = iri.substring(pathStart, queryStart);
+            final String withoutQuery = origin + path;
+            return new Base(origin, path.isEmpty() ? "/" : path.substring(0, path.lastIndexOf('/') + 1),
+                    withoutQuery, withoutQuery + iri.substring(queryStart, fragmentStart));
+        }
+
+        private static boolean isSchemeChar(char c, boolean first) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (!first
+                    && ((c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.'));
+        }
+    }
+
+    /**
+     * Resolves a reference against a base IRI with {@link java.net.URI}.
+     */
+    static String resolveWithURI(String baseUri, String pathToResolve) {
         if (baseUri == null) {
             return pathToResolve;
         }
@@ -8,6 +8,8 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -306,6 +308,59 @@ public class JsonUtils {
         jw.writeObject(jsonObject);
     }
 
+    /**
+     * Writes the given JSON-LD Object to the given generator, without
+     * requiring the generator to have an {@link com.fasterxml.jackson.core.ObjectCodec}.
+     * The generator is neither flushed nor closed.
+     *
+     * @param generator
+     *            The generator that is to receive the serialized JSON-LD
+     *            object.
+     * @param jsonObject
+     *            The JSON-LD Object to serialize, made of maps, lists,
+     *            strings, numbers, booleans and nulls.
+     * @throws JsonGenerationException
+     *             If there is a JSON error during serialization.
+     * @throws IOException
+     *             If there is an IO error during serialization.
+     */
+    public static void write(JsonGenerator generator, Object jsonObject)
+            throws JsonGenerationException, IOException {
+        if (jsonObject instanceof Map) {
+            generator.writeStartObject();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) jsonObject).entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                write(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (jsonObject instanceof List) {
+            generator.writeStartArray();
+            for (final Object item : (List<?>) jsonObject) {
+                write(generator, item);
+            }
+            generator.writeEndArray();
+        } else if (jsonObject instanceof String) {
+            generator.writeString((String) jsonObject);
+        } else if (jsonObject instanceof Integer || jsonObject instanceof Long
+                || jsonObject instanceof Short || jsonObject instanceof Byte) {
+            generator.writeNumber(((Number) jsonObject).longValue());
+        } else if (jsonObject instanceof Double) {
+            generator.writeNumber((Double) jsonObject);
+        } else if (jsonObject instanceof Float) {
+            generator.writeNumber((Float) jsonObject);
+        } else if (jsonObject instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) jsonObject);
+        } else if (jsonObject instanceof BigInteger) {
+            generator.writeNumber((BigInteger) jsonObject);
+        } else if (jsonObject instanceof Boolean) {
+            generator.writeBoolean((Boolean) jsonObject);
+        } else if (jsonObject == null) {
+            generator.writeNull();
+        } else {
+            generator.writeObject(jsonObject);
+        }
+    }
+
     /**
      * Writes the given JSON-LD Object out to the given Writer, using
      * indentation and new lines to improve readability.
@@ -0,0 +1,156 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CanonicalNumbersTest {
+
+    private final DecimalFormat doubleFormat = new DecimalFormat("0.0###############E0",
+            DecimalFormatSymbols.getInstance(Locale.US));
+    private final DecimalFormat integerFormat = new DecimalFormat("0",
+            DecimalFormatSymbols.getInstance(Locale.US));
+
+    private void assertDouble(Number value) {
+        assertEquals(value.toString(), doubleFormat.format(value),
+                CanonicalNumbers.formatDouble(value));
+    }
+
+    private void assertDoubleBits(long bits) {
+        final double value = Double.longBitsToDouble(bits);
+        assertDouble(value);
+        assertEquals(Double.toString(value), doubleFormat.format(value),
+                CanonicalNumbers.formatDouble(value));
+    }
+
+    private void assertInteger(Number value) {
+        assertEquals(value.toString(), integerFormat.format(value),
+                CanonicalNumbers.formatInteger(value));
+    }
+
+    @Test
+    public void everyDoubleExponent() {
+        final long[] mantissas = { 0L, 1L, 2L, 5L, 0x8000000000000L, 0xFFFFFFFFFFFFFL,
+                0x999999999999AL, 0x3333333333333L, 0x1234567890ABCL };
+        for (long exponent = 0; exponent < 0x7FF; exponent++) {
+            for (final long mantissa : mantissas) {
+                final long bits = (exponent << 52) | mantissa;
+                assertDoubleBits(bits);
+                assertDoubleBits(bits | Long.MIN_VALUE);
+            }
+        }
+        assertDouble(Double.NaN);
+        assertDouble(Double.POSITIVE_INFINITY);
+        assertDouble(Double.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    public void powersOfTen() {
+        for (int exponent = -324; exponent <= 308; exponent++) {
+            final double value = Double.parseDouble("1E" + exponent);
+            assertDouble(value);
+            assertDouble(Math.nextUp(value));
+            assertDouble(Math.nextDown(value));
+            assertDouble(-value);
+        }
+    }
+
+    @Test
+    public void randomDoublesAndFloats() {
+        final Random random = new Random(754);
+        for (int i = 0; i < 100000; i++) {
+            assertDoubleBits(random.nextLong());
+            assertDouble(Float.intBitsToFloat(random.nextInt()));
+            assertDouble(random.nextDouble());
+            assertDouble((double) random.nextInt(100000) / 100);
+        }
+    }
+
+    @Test
+    public void toStringDigits() {
+        // the digits of Double.toString are those of DecimalFormat before
+        // JDK 19, which finds the shortest ones (JDK-4511638)
+        final String version = System.getProperty("java.specification.version");
+        if (version.startsWith("1.") || Integer.parseInt(version) < 19) {
+            assertTrue(CanonicalNumbers.TO_STRING_DIGITS);
+        }
+        for (final double value : new double[] { 2.0E23, 8.41E21, 5.0E-324, 1.0E23,
+                Double.MIN_NORMAL, Double.MAX_VALUE }) {
+            assertDouble(value);
+            assertDouble(-value);
+        }
+    }
+
+    @Test
+    public void roundTrips() {
+        final Random random = new Random(19);
+        for (int i = 0; i < 100000; i++) {
+            final double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(value)) {
+                assertEquals(Double.toString(value), value,
+                        Double.parseDouble(CanonicalNumbers.formatDouble(value)), 0);
+            }
+        }
+    }
+
+    @Test
+    public void integersAsDoubles() {
+        for (int i = Short.MIN_VALUE; i <= Short.MAX_VALUE; i++) {
+            assertDouble(i);
+            assertDouble((short) i);
+            assertDouble((double) i);
+        }
+        for (byte b = Byte.MIN_VALUE; b < Byte.MAX_VALUE; b++) {
+            assertDouble(b);
+        }
+        final Random random = new Random(17);
+        for (int i = 0; i < 100000; i++) {
+            assertDouble(random.nextLong());
+            assertDouble(random.nextInt());
+            // values with more than 17 digits, which are rounded half even
+            assertDouble(random.nextInt(100) * 1000L + 500 + 100000000000000000L * random.nextInt(90));
+        }
+        long power = 1;
+        for (int i = 0; i < 19; i++) {
+            power *= i == 0 ? 1 : 10;
+            for (final long value : new long[] { power, power - 1, power + 1, power * 5,
+                    power * 5 - 1, power * 9 + power / 2 }) {
+                assertDouble(value);
+                assertDouble(-value);
+            }
+        }
+        assertDouble(Long.MAX_VALUE);
+        assertDouble(Long.MIN_VALUE);
+        assertDouble(999999999999999999L);
+        assertDouble(99999999999999995L);
+        assertDouble(123456789012345675L);
+        assertDouble(123456789012345665L);
+        assertDouble(new BigInteger("123456789012345678901234567890"));
+        assertDouble(new BigDecimal("-1234.5678"));
+    }
+
+    @Test
+    public void integers() {
+        final Random random = new Random(10);
+        for (int i = 0; i < 100000; i++) {
+            assertInteger(random.nextLong());
+            assertInteger(random.nextInt());
+            assertInteger((short) random.nextInt());
+            assertInteger((byte) random.nextInt());
+        }
+        assertInteger(0);
+        assertInteger(Long.MIN_VALUE);
+        assertInteger(Long.MAX_VALUE);
+        assertInteger(new BigInteger("-123456789012345678901234567890"));
+        assertInteger(new BigDecimal("-0.4"));
+        assertInteger(new BigDecimal("2.5"));
+    }
+}
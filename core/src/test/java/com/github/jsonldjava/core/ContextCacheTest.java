@@ -0,0 +1,153 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class ContextCacheTest {
+
+    private static final String CONTEXT = "{\"@vocab\": \"http://schema.org/\","
+            + " \"ex\": \"http://example.com/\","
+            + " \"knows\": {\"@id\": \"http://schema.org/knows\", \"@type\": \"@id\"},"
+            + " \"name\": {\"@id\": \"http://schema.org/name\", \"@language\": \"en\"}}";
+
+    private static final String INPUT = "{\"@context\": " + CONTEXT + ","
+            + " \"@id\": \"ex:a\", \"name\": \"A\", \"knows\": \"ex:b\"}";
+
+    @Test
+    public void inlineContextIsProcessedOnce() throws Exception {
+        final ContextCache cache = new ContextCache();
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setContextCache(cache);
+
+        final Object context = JsonUtils.fromString(CONTEXT);
+        final Object expected = JsonLdProcessor.compact(JsonUtils.fromString(INPUT), context,
+                new JsonLdOptions());
+
+        // the document context and the compaction context are the same
+        assertEquals(expected,
+                JsonLdProcessor.compact(JsonUtils.fromString(INPUT), context, options));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+
+        assertEquals(expected, JsonLdProcessor.compact(JsonUtils.fromString(INPUT),
+                JsonUtils.fromString(CONTEXT), options.copy()));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(3, cache.getHitCount());
+    }
+
+    @Test
+    public void cachedContextIsNotShared() throws Exception {
+        final ContextCache cache = new ContextCache();
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setContextCache(cache);
+        final Object context = JsonUtils.fromString(CONTEXT);
+
+        final Context first = new Context(options).parse(context);
+        first.put(JsonLdConsts.LANGUAGE, "de");
+        first.getInverse();
+
+        final JsonLdOptions otherOptions = new JsonLdOptions();
+        otherOptions.setContextCache(cache);
+        final Context second = new Context(otherOptions).parse(context);
+        assertEquals(1, cache.getHitCount());
+        assertNotSame(first, second);
+        assertFalse(second.containsKey(JsonLdConsts.LANGUAGE));
+        assertEquals(new Context(new JsonLdOptions()).parse(context), second);
+        assertEquals("http://schema.org/knows", second.expandIri("knows", false, true, null, null));
+    }
+
+    @Test
+    public void baseIsPartOfTheKey() throws Exception {
+        final ContextCache cache = new ContextCache();
+        final Object context = JsonUtils.fromString("{\"@base\": \"sub/\"}");
+
+        final JsonLdOptions options = new JsonLdOptions("http://example.com/a/");
+        options.setContextCache(cache);
+        assertEquals("http://example.com/a/sub/",
+                new Context(options).parse(context).get(JsonLdConsts.BASE));
+
+        final JsonLdOptions otherOptions = new JsonLdOptions("http://example.com/b/");
+        otherOptions.setContextCache(cache);
+        assertEquals("http://example.com/b/sub/",
+                new Context(otherOptions).parse(context).get(JsonLdConsts.BASE));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void remoteContextIsLoadedOnce() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final DocumentLoader loader = new DocumentLoader() {
+            @Override
+            public RemoteDocument loadDocument(String url) throws JsonLdError {
+                loads.incrementAndGet();
+                try {
+                    return new RemoteDocument(url,
+                            JsonUtils.fromString("{\"@context\": " + CONTEXT + "}"));
+                } catch (final Exception e) {
+                    throw new JsonLdError(JsonLdError.Error.LOADING_DOCUMENT_FAILED, e);
+                }
+            }
+        };
+        final ContextCache cache = new ContextCache();
+        for (int i = 0; i < 3; i++) {
+            final JsonLdOptions options = new JsonLdOptions();
+            options.setDocumentLoader(loader);
+            options.setContextCache(cache);
+            final Map<String, Object> compacted = JsonLdProcessor.compact(
+                    JsonUtils.fromString(INPUT), "http://example.com/context.jsonld", options);
+            assertEquals("http://example.com/context.jsonld", compacted.get("@context"));
+            assertEquals("ex:b", compacted.get("knows"));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void loaderIsPartOfTheKey() throws Exception {
+        final ContextCache cache = new ContextCache();
+        final String url = "http://example.com/context.jsonld";
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setDocumentLoader(new DocumentLoader().addInjectedDoc(url,
+                "{\"@context\": {\"name\": \"http://schema.org/name\"}}"));
+        options.setContextCache(cache);
+        final JsonLdOptions otherOptions = new JsonLdOptions();
+        otherOptions.setDocumentLoader(new DocumentLoader().addInjectedDoc(url,
+                "{\"@context\": {\"name\": \"http://xmlns.com/foaf/0.1/name\"}}"));
+        otherOptions.setContextCache(cache);
+
+        assertEquals("http://schema.org/name",
+                new Context(options).parse(url).expandIri("name", false, true, null, null));
+        assertEquals("http://xmlns.com/foaf/0.1/name",
+                new Context(otherOptions).parse(url).expandIri("name", false, true, null, null));
+        assertEquals("http://schema.org/name", new Context(options.copy()).parse(url)
+                .expandIri("name", false, true, null, null));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        final ContextCache cache = new ContextCache(1);
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setContextCache(cache);
+        new Context(options).parse(JsonUtils.fromString("{\"a\": \"http://example.com/a\"}"));
+        new Context(options).parse(JsonUtils.fromString("{\"b\": \"http://example.com/b\"}"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertSame(cache, options.copy().getContextCache());
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class FramingIndexTest {
+
+    private static final String EX = "http://example.com/";
+
+    /**
+     * A graph of nodes with one of three types, some of which have a name, and
+     * each of which knows the next one.
+     */
+    private static List<Object> graph(int size) {
+        final List<Object> graph = new ArrayList<Object>();
+        for (int i = 0; i < size; i++) {
+            final Map<String, Object> node = new LinkedHashMap<String, Object>();
+            node.put("@id", EX + "n" + i);
+            node.put("@type", EX + "T" + (i % 3));
+            if (i % 2 == 0) {
+                node.put(EX + "name", "Node " + i);
+            }
+            node.put(EX + "knows",
+                    Collections.singletonMap("@id", EX + "n" + ((i + 1) % size)));
+            graph.add(node);
+        }
+        return graph;
+    }
+
+    private static List<String> framedIds(String frame) throws Exception {
+        final JsonLdOptions opts = new JsonLdOptions();
+        opts.setEmbed(false);
+        final Map<String, Object> framed = JsonLdProcessor.frame(graph(30),
+                JsonUtils.fromString(frame), opts);
+        final List<String> ids = new ArrayList<String>();
+        Object nodes = framed.get("@graph");
+        if (nodes == null) {
+            nodes = framed;
+        }
+        if (nodes instanceof Map) {
+            ids.add((String) ((Map<String, Object>) nodes).get("@id"));
+        } else {
+            for (final Object node : (List<Object>) nodes) {
+                ids.add((String) ((Map<String, Object>) node).get("@id"));
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> ids(int... numbers) {
+        final List<String> ids = new ArrayList<String>();
+        for (final int i : numbers) {
+            ids.add(EX + "n" + i);
+        }
+        return ids;
+    }
+
+    @Test
+    public void byType() throws Exception {
+        assertEquals(ids(1, 10, 13, 16, 19, 22, 25, 28, 4, 7),
+                framedIds("{\"@type\": \"" + EX + "T1\"}"));
+        assertEquals(20, framedIds("{\"@type\": [\"" + EX + "T1\", \"" + EX + "T0\"]}").size());
+        assertEquals(ids(), framedIds("{\"@type\": \"" + EX + "T9\"}"));
+        assertEquals(30, framedIds("{\"@type\": {}}").size());
+    }
+
+    @Test
+    public void byId() throws Exception {
+        assertEquals(ids(5), framedIds("{\"@id\": \"" + EX + "n5\"}"));
+        assertEquals(ids(12, 5),
+                framedIds("{\"@id\": [\"" + EX + "n5\", \"" + EX + "n12\", \"" + EX + "x\"]}"));
+        assertEquals(ids(), framedIds("{\"@id\": \"" + EX + "x\"}"));
+    }
+
+    @Test
+    public void byProperty() throws Exception {
+        assertEquals(15, framedIds("{\"" + EX + "name\": {}}").size());
+        assertEquals(15, framedIds("{\"" + EX + "name\": {}, \"" + EX + "knows\": {}}").size());
+        assertEquals(30, framedIds("{\"" + EX + "name\": {\"@default\": \"none\"}, \"" + EX
+                + "knows\": {}}").size());
+        assertEquals(ids(), framedIds("{\"" + EX + "other\": {}}"));
+        assertEquals(30, framedIds("{}").size());
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class InverseContextTest {
+
+    private static final String CONTEXT = "{\"@vocab\": \"http://schema.org/\","
+            + " \"ex\": \"http://example.com/\","
+            + " \"knows\": {\"@id\": \"http://schema.org/knows\", \"@type\": \"@id\"},"
+            + " \"knownBy\": {\"@reverse\": \"http://schema.org/knows\"},"
+            + " \"name\": {\"@id\": \"http://schema.org/name\", \"@language\": \"en\"},"
+            + " \"names\": {\"@id\": \"http://schema.org/name\", \"@container\": \"@language\"},"
+            + " \"label\": {\"@id\": \"http://schema.org/name\", \"@language\": null},"
+            + " \"tags\": {\"@id\": \"http://schema.org/tag\", \"@container\": \"@list\"},"
+            + " \"tag\": \"http://schema.org/tag\"}";
+
+    private static final String INPUT = "{\"@context\": " + CONTEXT + ","
+            + " \"@id\": \"ex:a\", \"name\": \"A\", \"label\": \"plain\","
+            + " \"names\": {\"de\": \"Ah\"}, \"knows\": \"ex:b\", \"knownBy\": {\"@id\": \"ex:c\"},"
+            + " \"tags\": [\"x\", \"y\"], \"tag\": \"z\"}";
+
+    @Test
+    public void inverseMap() throws Exception {
+        final Context context = new Context().parse(JsonUtils.fromString(CONTEXT));
+        final Map<String, Object> inverse = context.getInverse();
+        assertSame(inverse, context.getInverse());
+
+        final Map<String, Object> name = (Map<String, Object>) inverse
+                .get("http://schema.org/name");
+        assertEquals(Arrays.asList(JsonLdConsts.NONE, JsonLdConsts.LANGUAGE),
+                new ArrayList<String>(name.keySet()));
+        final Map<String, Object> none = (Map<String, Object>) name.get(JsonLdConsts.NONE);
+        assertEquals(JsonUtils.fromString("{\"en\": \"name\", \"@null\": \"label\"}"),
+                none.get(JsonLdConsts.LANGUAGE));
+        assertEquals(JsonUtils.fromString("{}"), none.get(JsonLdConsts.TYPE));
+
+        final Map<String, Object> knows = (Map<String, Object>) ((Map<String, Object>) inverse
+                .get("http://schema.org/knows")).get(JsonLdConsts.NONE);
+        assertEquals(JsonUtils.fromString("{\"@id\": \"knows\", \"@reverse\": \"knownBy\"}"),
+                knows.get(JsonLdConsts.TYPE));
+
+        final Map<String, Object> tag = (Map<String, Object>) ((Map<String, Object>) inverse
+                .get("http://schema.org/tag")).get(JsonLdConsts.NONE);
+        assertEquals(JsonUtils.fromString("{\"@language\": \"tag\", \"@none\": \"tag\"}"),
+                tag.get(JsonLdConsts.LANGUAGE));
+        assertEquals(JsonUtils.fromString("{\"@none\": \"tag\"}"), tag.get(JsonLdConsts.TYPE));
+    }
+
+    @Test
+    public void selectTerm() throws Exception {
+        final Context context = new Context().parse(JsonUtils.fromString(CONTEXT));
+        final InverseContext inverse = context.getInverseContext();
+        assertTrue(inverse.containsIri("http://schema.org/name"));
+        assertFalse(inverse.containsIri("http://schema.org/other"));
+
+        final List<String> none = Arrays.asList(JsonLdConsts.NONE);
+        assertEquals("name", inverse.selectTerm("http://schema.org/name", none,
+                JsonLdConsts.LANGUAGE, Arrays.asList("de", "en")));
+        assertEquals("names",
+                inverse.selectTerm("http://schema.org/name",
+                        Arrays.asList(JsonLdConsts.LANGUAGE, JsonLdConsts.NONE),
+                        JsonLdConsts.LANGUAGE, Arrays.asList("de", JsonLdConsts.LANGUAGE)));
+        assertEquals("tags", inverse.selectTerm("http://schema.org/tag",
+                Arrays.asList(JsonLdConsts.LIST), JsonLdConsts.TYPE, none));
+        assertNull(inverse.selectTerm("http://schema.org/knows", none, JsonLdConsts.TYPE,
+                Arrays.asList("http://example.com/type")));
+        assertNull(inverse.selectTerm("http://schema.org/other", none, JsonLdConsts.TYPE, none));
+    }
+
+    @Test
+    public void compactionIsUnchanged() throws Exception {
+        final Map<String, Object> compacted = JsonLdProcessor.compact(
+                JsonUtils.fromString(INPUT), JsonUtils.fromString(CONTEXT), new JsonLdOptions());
+        assertEquals(JsonUtils.fromString("{\"en\": \"A\", \"de\": \"Ah\"}"),
+                compacted.get("names"));
+        assertEquals("plain", compacted.get("label"));
+        assertEquals("ex:b", compacted.get("knows"));
+        assertEquals(JsonUtils.fromString("{\"@id\": \"ex:c\"}"), compacted.get("knownBy"));
+        assertEquals(Arrays.asList("x", "y"), compacted.get("tags"));
+        assertEquals("z", compacted.get("tag"));
+    }
+
+    @Test
+    public void parsedContextGetsNewInverse() throws Exception {
+        final Context context = new Context().parse(JsonUtils.fromString(CONTEXT));
+        final InverseContext inverse = context.getInverseContext();
+        final Map<String, Object> map = context.getInverse();
+
+        final Context nested = context
+                .parse(JsonUtils.fromString("{\"given\": \"http://schema.org/givenName\"}"));
+        assertNotSame(inverse, nested.getInverseContext());
+        assertNotSame(map, nested.getInverse());
+        assertTrue(nested.getInverseContext().containsIri("http://schema.org/givenName"));
+        assertFalse(inverse.containsIri("http://schema.org/givenName"));
+    }
+
+    @Test
+    public void cachedContextSharesInverse() throws Exception {
+        final ContextCache cache = new ContextCache();
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setContextCache(cache);
+        final Object context = JsonUtils.fromString(CONTEXT);
+
+        final Context first = new Context(options).parse(context);
+        final Context second = new Context(options).parse(context);
+        assertNotSame(first, second);
+        assertSame(first.getInverseContext(), second.getInverseContext());
+    }
+
+    @Test
+    public void sharedBetweenThreads() throws Exception {
+        final Context context = new Context().parse(JsonUtils.fromString(CONTEXT));
+        final Object expanded = JsonLdProcessor.expand(JsonUtils.fromString(INPUT));
+        final Object expected = new JsonLdApi(new JsonLdOptions()).compact(context, null,
+                expanded);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Object>> results = new ArrayList<Future<Object>>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return new JsonLdApi(new JsonLdOptions()).compact(context, null,
+                                expanded);
+                    }
+                }));
+            }
+            for (final Future<Object> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
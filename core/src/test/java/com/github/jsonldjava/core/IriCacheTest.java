@@ -0,0 +1,96 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class IriCacheTest {
+
+    private static Context context(String context) throws Exception {
+        return new Context(new JsonLdOptions("http://example.com/base/"))
+                .parse(JsonUtils.fromString(context));
+    }
+
+    @Test
+    public void memoizedResults() throws Exception {
+        final Context ctx = context("{\"@vocab\": \"http://example.com/vocab#\","
+                + " \"ex\": \"http://example.com/\", \"name\": \"ex:name\", \"none\": null}");
+        for (int i = 0; i < 2; i++) {
+            assertEquals("http://example.com/name", ctx.expandIri("name", false, true, null, null));
+            assertEquals("http://example.com/a", ctx.expandIri("ex:a", true, true, null, null));
+            assertEquals("http://example.com/vocab#a", ctx.expandIri("a", true, true, null, null));
+            assertEquals("http://example.com/base/a", ctx.expandIri("a", true, false, null, null));
+            assertNull(ctx.expandIri("none", false, true, null, null));
+            assertEquals("name", ctx.compactIri("http://example.com/name", true));
+            assertEquals("ex:a", ctx.compactIri("http://example.com/a", true));
+            assertEquals("a", ctx.compactIri("http://example.com/vocab#a", true));
+        }
+        assertSame(ctx.expandIri("ex:b", false, true, null, null),
+                ctx.expandIri("ex:b", false, true, null, null));
+    }
+
+    @Test
+    public void notSharedWithDerivedContexts() throws Exception {
+        final Context ctx = context("{\"ex\": \"http://example.com/\"}");
+        assertEquals("http://example.com/a", ctx.expandIri("ex:a", false, true, null, null));
+        assertEquals("ex:a", ctx.compactIri("http://example.com/a", true));
+
+        final Context derived = ctx.parse(JsonUtils.fromString(
+                "{\"ex\": \"http://example.org/\", \"a\": \"http://example.com/a\"}"));
+        assertEquals("http://example.org/a", derived.expandIri("ex:a", false, true, null, null));
+        assertEquals("a", derived.compactIri("http://example.com/a", true));
+
+        // the clone of an unmodified context gives the same results
+        final Context clone = ctx.clone();
+        assertEquals("http://example.com/a", clone.expandIri("ex:a", false, true, null, null));
+        assertEquals("ex:a", clone.compactIri("http://example.com/a", true));
+    }
+
+    @Test
+    public void bounded() throws Exception {
+        final Context ctx = context("{\"ex\": \"http://example.com/\"}");
+        for (int i = 0; i < IriCache.MAX_SIZE * 2; i++) {
+            assertEquals("http://example.com/" + i,
+                    ctx.expandIri("ex:" + i, false, true, null, null));
+        }
+    }
+
+    @Test
+    public void sharedBetweenThreads() throws Exception {
+        final Context ctx = context("{\"ex\": \"http://example.com/\"}");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 0; i < 10000; i++) {
+                            assertEquals("http://example.com/" + (i % 100),
+                                    ctx.expandIri("ex:" + (i % 100), false, true, null, null));
+                            assertEquals("ex:" + (i % 100),
+                                    ctx.compactIri("http://example.com/" + (i % 100), true));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
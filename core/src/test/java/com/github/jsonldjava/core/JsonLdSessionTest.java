@@ -0,0 +1,167 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class JsonLdSessionTest {
+
+    private static final String CONTEXT = "{\"@context\": {\"ex\": \"http://example.com/\","
+            + " \"name\": \"ex:name\", \"knows\": {\"@id\": \"ex:knows\", \"@type\": \"@id\"},"
+            + " \"tags\": {\"@id\": \"ex:tag\", \"@container\": \"@set\"}}}";
+
+    private static List<Object> documents() throws Exception {
+        final List<Object> documents = new ArrayList<Object>();
+        for (int i = 0; i < 50; i++) {
+            documents.add(JsonUtils.fromString("{\"@id\": \"http://example.com/n" + i + "\","
+                    + " \"http://example.com/name\": \"Node " + i + "\","
+                    + " \"http://example.com/knows\": {\"@id\": \"http://example.com/n" + (i + 1)
+                    + "\"}, \"http://example.com/tag\": [\"a\", {\"@value\": " + i + "}],"
+                    + " \"http://example.com/address\": {\"http://example.com/city\": \"C" + i
+                    + "\"}}"));
+        }
+        // a document with its own context
+        documents.add(JsonUtils.fromString("{\"@context\": {\"@vocab\": \"http://example.com/\"},"
+                + " \"name\": \"own context\"}"));
+        return documents;
+    }
+
+    @Test
+    public void sameAsProcessor() throws Exception {
+        final Object context = JsonUtils.fromString(CONTEXT);
+        final JsonLdOptions options = new JsonLdOptions();
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        final JsonLdSession session = new JsonLdSession(context, options);
+        for (final Object document : documents()) {
+            assertEquals(JsonLdProcessor.compact(document, context, options),
+                    session.compact(document));
+            assertEquals(JsonLdProcessor.expand(document, options), session.expand(document));
+            assertEquals(JsonLdProcessor.toRDF(document, options), session.toRDF(document));
+        }
+    }
+
+    @Test
+    public void expandContext() throws Exception {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setExpandContext(JsonUtils.fromString(CONTEXT));
+        final JsonLdSession session = new JsonLdSession(options);
+        final Object document = JsonUtils.fromString("{\"name\": \"A\", \"knows\": \"ex:b\"}");
+        final List<Object> expected = JsonLdProcessor.expand(document, options);
+        assertEquals(2, ((Map<?, ?>) expected.get(0)).size());
+        assertEquals(expected, session.expand(document));
+        // changing the options does not change the session
+        options.setExpandContext(null);
+        assertEquals(expected, session.expand(document));
+    }
+
+    @Test
+    public void batches() throws Exception {
+        final Object context = JsonUtils.fromString(CONTEXT);
+        final List<Object> documents = documents();
+        final JsonLdSession sequential = new JsonLdSession(context, new JsonLdOptions());
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final JsonLdOptions options = new JsonLdOptions();
+            options.setExecutor(pool);
+            final JsonLdSession parallel = new JsonLdSession(context, options);
+
+            final List<Map<String, Object>> compacted = sequential.compactAll(documents);
+            assertEquals(documents.size(), compacted.size());
+            for (int i = 0; i < documents.size(); i++) {
+                assertEquals(sequential.compact(documents.get(i)), compacted.get(i));
+            }
+            assertEquals(compacted, parallel.compactAll(documents));
+            assertEquals(sequential.expandAll(documents), parallel.expandAll(documents));
+            assertEquals(sequential.toRDFAll(documents), parallel.toRDFAll(documents));
+            assertEquals(compacted, parallel.compactAll(documents.stream()::iterator));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void streams() throws Exception {
+        final Object context = JsonUtils.fromString(CONTEXT);
+        final List<Object> documents = documents();
+        final JsonLdOptions options = new JsonLdOptions();
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        final JsonLdSession session = new JsonLdSession(context, options);
+
+        assertEquals(session.compactAll(documents),
+                session.compactAll(documents.stream()).collect(Collectors.toList()));
+        assertEquals(session.expandAll(documents),
+                session.expandAll(documents.parallelStream()).collect(Collectors.toList()));
+        assertEquals(session.toRDFAll(documents),
+                session.toRDFAll(documents.stream()).collect(Collectors.toList()));
+
+        // documents are only processed as the results are consumed
+        final AtomicInteger created = new AtomicInteger();
+        final Stream<Object> infinite = Stream.generate(() -> {
+            final int i = created.getAndIncrement();
+            return documents.get(i % documents.size());
+        });
+        final List<Map<String, Object>> first = session.compactAll(infinite).limit(3)
+                .collect(Collectors.toList());
+        assertEquals(session.compactAll(documents.subList(0, 3)), first);
+        assertTrue(String.valueOf(created.get()), created.get() <= 3);
+    }
+
+    @Test
+    public void errorInBatch() throws Exception {
+        final List<Object> documents = documents();
+        documents.add(JsonUtils.fromString("{\"@id\": 1}"));
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final JsonLdOptions options = new JsonLdOptions();
+            options.setExecutor(pool);
+            new JsonLdSession(JsonUtils.fromString(CONTEXT), options).expandAll(documents);
+            fail("Expected an invalid @id value");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.INVALID_ID_VALUE, e.getType());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sharedBetweenThreads() throws Exception {
+        final JsonLdSession session = new JsonLdSession(JsonUtils.fromString(CONTEXT),
+                new JsonLdOptions());
+        final List<Object> documents = documents();
+        final List<Map<String, Object>> expected = session.compactAll(documents);
+        final ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<List<Map<String, Object>>>> results = new ArrayList<Future<List<Map<String, Object>>>>();
+            for (int i = 0; i < 16; i++) {
+                results.add(threads.submit(new Callable<List<Map<String, Object>>>() {
+                    @Override
+                    public List<Map<String, Object>> call() throws Exception {
+                        return session.compactAll(documents);
+                    }
+                }));
+            }
+            for (final Future<List<Map<String, Object>>> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+}
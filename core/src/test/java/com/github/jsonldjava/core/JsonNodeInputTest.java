@@ -0,0 +1,126 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class JsonNodeInputTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String INPUT = "{\"@context\": {\"ex\": \"http://example.com/\","
+            + " \"name\": \"ex:name\", \"age\": \"ex:age\", \"knows\": {\"@id\": \"ex:knows\","
+            + " \"@type\": \"@id\"}}, \"@id\": \"ex:a\", \"name\": \"A\", \"age\": 42,"
+            + " \"ex:height\": 1.85, \"ex:big\": 12345678901234567890, \"ex:alive\": true,"
+            + " \"ex:nothing\": null, \"knows\": [\"ex:b\", \"ex:c\"],"
+            + " \"ex:address\": {\"ex:city\": \"Z\"}}";
+
+    @Test
+    public void viewMatchesParsedJson() throws Exception {
+        assertEquals(JsonUtils.fromString(INPUT), JsonNodeView.of(MAPPER.readTree(INPUT)));
+    }
+
+    @Test
+    public void expandCompactAndToRDF() throws Exception {
+        final Object input = JsonUtils.fromString(INPUT);
+        final JsonNode node = MAPPER.readTree(INPUT);
+        final Object context = ((Map<String, Object>) input).get("@context");
+        final JsonLdOptions options = new JsonLdOptions();
+
+        assertEquals(JsonLdProcessor.expand(input, options),
+                JsonLdProcessor.expand(node, options));
+        assertEquals(JsonLdProcessor.compact(input, context, options),
+                JsonLdProcessor.compact(node, context, options));
+        assertEquals(JsonLdProcessor.flatten(input, context, options),
+                JsonLdProcessor.flatten(node, context, options));
+
+        options.useNamespaces = true;
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        assertEquals(JsonLdProcessor.toRDF(input, options), JsonLdProcessor.toRDF(node, options));
+
+        assertEquals(new JsonLdApi(options).expand(new Context(options), input),
+                new JsonLdApi(options).expand(new Context(options), node));
+    }
+
+    @Test
+    public void expandTokenBuffer() throws Exception {
+        final JsonFactory factory = MAPPER.getFactory();
+        final TokenBuffer buffer = new TokenBuffer(MAPPER, false);
+        final JsonParser parser = factory.createParser("[" + INPUT + ", " + INPUT + "]");
+        parser.nextToken();
+        buffer.copyCurrentStructure(parser);
+
+        final List<Object> expanded = new ArrayList<Object>();
+        final JsonLdOptions options = new JsonLdOptions();
+        new JsonLdApi(options).expand(new Context(options), buffer, new JsonLdNodeCallback() {
+            @Override
+            public void call(Map<String, Object> node) {
+                expanded.add(node);
+            }
+        });
+        final List<Object> expected = JsonLdProcessor.expand(JsonUtils.fromString(INPUT),
+                options);
+        expected.addAll(JsonLdProcessor.expand(JsonUtils.fromString(INPUT), options));
+        assertEquals(expected, expanded);
+    }
+
+    @Test
+    public void compactToGenerator() throws Exception {
+        final Object input = JsonUtils.fromString(INPUT);
+        final Object context = ((Map<String, Object>) input).get("@context");
+        final JsonLdOptions options = new JsonLdOptions();
+
+        final StringWriter writer = new StringWriter();
+        // a generator without codec
+        try (JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+            JsonLdProcessor.compact(MAPPER.readTree(INPUT), context, options, generator);
+        }
+        assertEquals(JsonUtils.toString(JsonLdProcessor.compact(input, context, options)),
+                writer.toString());
+    }
+
+    @Test
+    public void matchesExpansionTestSuite() throws Exception {
+        final File dir = new File(getClass().getResource("/json-ld.org").toURI());
+        int compared = 0;
+        for (final File file : dir.listFiles()) {
+            if (!file.getName().startsWith("expand-") || !file.getName().endsWith("-in.jsonld")) {
+                continue;
+            }
+            final String base = "http://json-ld.org/test-suite/tests/" + file.getName();
+            Object expected;
+            try (InputStream in = new FileInputStream(file)) {
+                expected = JsonLdProcessor.expand(JsonUtils.fromInputStream(in),
+                        new JsonLdOptions(base));
+            } catch (final JsonLdError e) {
+                expected = e.getType();
+            }
+            Object actual;
+            try (InputStream in = new FileInputStream(file)) {
+                actual = JsonLdProcessor.expand(MAPPER.readTree(in), new JsonLdOptions(base));
+            } catch (final JsonLdError e) {
+                actual = e.getType();
+            }
+            assertEquals(file.getName(), expected, actual);
+            compared++;
+        }
+        assertTrue(compared > 50);
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.core.JsonLdConsts.Keyword;
+
+public class KeywordTest {
+
+    private static final List<String> KEYWORDS = Arrays.asList("@base", "@container",
+            "@context", "@default", "@embed", "@explicit", "@graph", "@id", "@index",
+            "@language", "@list", "@omitDefault", "@preserve", "@requireAll", "@reverse", "@set",
+            "@type", "@value", "@vocab");
+
+    @Test
+    public void keywords() {
+        final Set<Keyword> found = new HashSet<Keyword>();
+        for (final String keyword : KEYWORDS) {
+            assertTrue(keyword, JsonLdUtils.isKeyword(keyword));
+            // new instances are recognized as well
+            final Keyword result = Keyword.of(new String(keyword));
+            assertEquals(keyword, keyword.substring(1).replaceAll("([A-Z])", "_$1")
+                    .toUpperCase(Locale.ROOT), result.name());
+            found.add(result);
+        }
+        assertEquals(Keyword.values().length, found.size());
+    }
+
+    @Test
+    public void notKeywords() {
+        for (final Object value : new Object[] { null, 1, "", "@", "@ID", "@idx", "id", " @id",
+                "@embedChildren", "@none", "@null", "http://example.com/" }) {
+            assertNull(String.valueOf(value), Keyword.of(value));
+            assertFalse(String.valueOf(value), JsonLdUtils.isKeyword(value));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class MergeValueTest {
+
+    private static List<Object> merge(Map<String, Object> node, String... values)
+            throws Exception {
+        for (final String value : values) {
+            JsonLdUtils.mergeValue(node, "p", JsonUtils.fromString(value));
+        }
+        return (List<Object>) node.get("p");
+    }
+
+    @Test
+    public void setSemantics() throws Exception {
+        final List<Object> values = merge(new LinkedHashMap<String, Object>(),
+                "{\"@id\": \"a\"}", "{\"@id\": \"a\"}", "{\"@value\": \"a\"}",
+                "{\"@value\": \"a\", \"@language\": \"en\"}",
+                "{\"@language\": \"en\", \"@value\": \"a\"}", "{\"@value\": 1}",
+                "{\"@value\": 1.0}", "{\"@value\": 1}", "{\"@value\": true}",
+                "{\"@value\": \"true\"}", "{\"@value\": {\"x\": [1, 2]}, \"@type\": \"@json\"}",
+                "{\"@value\": {\"x\": [1, 2]}, \"@type\": \"@json\"}",
+                "{\"@value\": {\"x\": [2, 1]}, \"@type\": \"@json\"}",
+                "{\"@list\": [1]}", "{\"@list\": [1]}");
+        assertEquals(JsonUtils.fromString("[{\"@id\": \"a\"}, {\"@value\": \"a\"},"
+                + " {\"@value\": \"a\", \"@language\": \"en\"}, {\"@value\": 1},"
+                + " {\"@value\": 1.0}, {\"@value\": true}, {\"@value\": \"true\"},"
+                + " {\"@value\": {\"x\": [1, 2]}, \"@type\": \"@json\"},"
+                + " {\"@list\": [1]}, {\"@list\": [1]}]"), values);
+    }
+
+    @Test
+    public void sameAsDeepContains() throws Exception {
+        final Map<String, Object> node = new LinkedHashMap<String, Object>();
+        final List<Object> expected = new ArrayList<Object>();
+        for (int i = 0; i < 3000; i++) {
+            final Object value = JsonUtils.fromString(i % 3 == 0
+                    ? "{\"@id\": \"http://example.com/" + (i % 1000) + "\"}"
+                    : "{\"@value\": \"" + (i % 700) + "\", \"@type\": \"http://example.com/T"
+                            + (i % 2) + "\"}");
+            if (!JsonLdUtils.deepContains(expected, value)) {
+                expected.add(value);
+            }
+            JsonLdUtils.mergeValue(node, "p", value);
+        }
+        assertEquals(expected, node.get("p"));
+    }
+
+    @Test
+    public void keyedByAllMembers() throws Exception {
+        final List<Object> values = merge(new LinkedHashMap<String, Object>(),
+                "{\"@id\": \"a\"}", "{\"@id\": \"a\", \"@index\": \"i\"}",
+                "{\"@id\": \"a\", \"@index\": \"i\"}", "{\"@id\": \"a\", \"x\": \"b\"}",
+                "{\"@id\": \"a\", \"x\": \"b\"}", "{\"@id\": \"a\", \"@index\": null}",
+                "{\"@value\": \"a\", \"@type\": \"t\"}",
+                "{\"@value\": \"a\", \"@type\": \"t\", \"@language\": \"en\"}", "{}", "{}");
+        assertEquals(JsonUtils.fromString("[{\"@id\": \"a\"},"
+                + " {\"@id\": \"a\", \"@index\": \"i\"}, {\"@id\": \"a\", \"x\": \"b\"},"
+                + " {\"@id\": \"a\", \"@index\": null},"
+                + " {\"@value\": \"a\", \"@type\": \"t\"},"
+                + " {\"@value\": \"a\", \"@type\": \"t\", \"@language\": \"en\"}, {}]"),
+                values);
+    }
+
+    @Test
+    public void droppedIndex() throws Exception {
+        final Map<String, Object> node = new LinkedHashMap<String, Object>();
+        merge(node, "\"a\"", "{\"@id\": \"b\"}");
+        JsonLdUtils.dropValueIndexes(node);
+        assertEquals(JsonUtils.fromString("[\"a\", {\"@id\": \"b\"}, \"c\"]"),
+                merge(node, "\"a\"", "{\"@id\": \"b\"}", "\"c\""));
+    }
+
+    @Test
+    public void changedOutsideMergeValue() throws Exception {
+        final Map<String, Object> node = new LinkedHashMap<String, Object>();
+        final List<Object> values = merge(node, "\"a\"", "\"b\"");
+        values.remove("a");
+        merge(node, "\"a\"", "\"b\"");
+        assertEquals(Arrays.asList("b", "a"), values);
+
+        // a list not created by mergeValue
+        node.put("p", new ArrayList<Object>(Arrays.asList("a")));
+        assertEquals(Arrays.asList("a", "b"), merge(node, "\"a\"", "\"b\"", "\"b\""));
+    }
+}
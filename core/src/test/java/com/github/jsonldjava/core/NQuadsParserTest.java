@@ -0,0 +1,168 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.core.RDFDataset.Quad;
+import com.github.jsonldjava.impl.NQuadRDFParser;
+
+public class NQuadsParserTest {
+
+    @Test
+    public void parseTerms() throws Exception {
+        final RDFDataset dataset = RDFDatasetUtils.parseNQuads(
+                "<http://example.com/s> <http://example.com/p> <http://example.com/o> .\n"
+                        + "_:b0 <http://example.com/p> \"plain\" <http://example.com/g> .\n"
+                        + "_:b0 <http://example.com/p> \"chat\"@fr-BE _:g .\n"
+                        + "_:b0 <http://example.com/p> \"1\"^^<http://www.w3.org/2001/XMLSchema#integer> .\n");
+
+        final List<Quad> defaultGraph = dataset.getQuads("@default");
+        assertEquals(2, defaultGraph.size());
+        assertEquals("http://example.com/s", defaultGraph.get(0).getSubject().getValue());
+        assertTrue(defaultGraph.get(0).getObject().isIRI());
+        assertTrue(defaultGraph.get(1).getSubject().isBlankNode());
+        assertEquals("_:b0", defaultGraph.get(1).getSubject().getValue());
+        assertEquals("1", defaultGraph.get(1).getObject().getValue());
+        assertEquals(JsonLdConsts.XSD_INTEGER, defaultGraph.get(1).getObject().getDatatype());
+
+        final Quad plain = dataset.getQuads("http://example.com/g").get(0);
+        assertEquals("plain", plain.getObject().getValue());
+        assertEquals(JsonLdConsts.XSD_STRING, plain.getObject().getDatatype());
+        assertEquals("http://example.com/g", plain.getGraph().getValue());
+
+        final Quad language = dataset.getQuads("_:g").get(0);
+        assertEquals("fr-BE", language.getObject().getLanguage());
+        assertEquals(JsonLdConsts.RDF_LANGSTRING, language.getObject().getDatatype());
+        assertTrue(language.getGraph().isBlankNode());
+    }
+
+    @Test
+    public void parseCommentsAndBlankLines() throws Exception {
+        final RDFDataset dataset = RDFDatasetUtils
+                .parseNQuads("# a comment\n\n   \t\n<http://example.com/s> "
+                        + "<http://example.com/p> <http://example.com/o> . # trailing\r\n"
+                        + "\r\n<http://example.com/s> <http://example.com/p> \"x\".");
+        assertEquals(2, dataset.getQuads("@default").size());
+    }
+
+    @Test
+    public void parseEscapes() throws Exception {
+        final RDFDataset dataset = RDFDatasetUtils.parseNQuads(
+                "<http://example.com/s\\u00E9> <http://example.com/p> "
+                        + "\"tab\\tquote\\\"backslash\\\\e\\u00E9smile\\U0001F600\" .");
+        final Quad quad = dataset.getQuads("@default").get(0);
+        assertEquals("http://example.com/s\u00E9", quad.getSubject().getValue());
+        assertEquals("tab\tquote\"backslash\\e\u00E9smile\uD83D\uDE00",
+                quad.getObject().getValue());
+    }
+
+    @Test
+    public void escapeRoundTrip() throws Exception {
+        final String value = "line\nbreak \"quoted\" back\\slash \u0001 \u00E9 \uD83D\uDE00";
+        final RDFDataset dataset = new RDFDataset();
+        dataset.addQuad("http://example.com/s", "http://example.com/p", value, null, null,
+                "@default");
+        final RDFDataset parsed = RDFDatasetUtils.parseNQuads(RDFDatasetUtils.toNQuads(dataset));
+        assertEquals(value, parsed.getQuads("@default").get(0).getObject().getValue());
+    }
+
+    @Test
+    public void blankNodeLabelFollowedByDot() throws Exception {
+        final RDFDataset dataset = RDFDatasetUtils
+                .parseNQuads("_:a.b <http://example.com/p> _:c.\n_:d <http://example.com/p> _:e _:f.");
+        final List<Quad> quads = dataset.getQuads("@default");
+        assertEquals("_:a.b", quads.get(0).getSubject().getValue());
+        assertEquals("_:c", quads.get(0).getObject().getValue());
+        assertEquals("_:f", dataset.getQuads("_:f").get(0).getGraph().getValue());
+    }
+
+    @Test
+    public void duplicatesAreRemoved() throws Exception {
+        final RDFDataset dataset = RDFDatasetUtils
+                .parseNQuads("<http://example.com/s> <http://example.com/p> \"o\" .\n"
+                        + "<http://example.com/s> <http://example.com/p> \"o\" .\n"
+                        + "<http://example.com/s> <http://example.com/p> \"o\" <http://example.com/g> .\n");
+        assertEquals(1, dataset.getQuads("@default").size());
+        assertEquals(1, dataset.getQuads("http://example.com/g").size());
+    }
+
+    @Test
+    public void pullQuads() throws Exception {
+        final NQuadsParser parser = new NQuadsParser(
+                "<http://example.com/s> <http://example.com/p> \"1\" .\n"
+                        + "<http://example.com/s> <http://example.com/p> \"2\" .\n");
+        assertEquals("1", parser.next().getObject().getValue());
+        assertEquals("2", parser.next().getObject().getValue());
+        assertNull(parser.next());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void streamLargeInput() throws Exception {
+        // exercise quads (and blank node labels) straddling the read buffer
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            input.append("_:s").append(i).append(" <http://example.com/p> _:o").append(i)
+                    .append(".\n");
+        }
+        final Reader reader = new StringReader(input.toString()) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                // return odd sized chunks
+                return super.read(cbuf, off, Math.min(len, 7));
+            }
+        };
+        final RDFDataset streamed = new NQuadsParser(reader).parse();
+        assertEquals(5000, streamed.getQuads("@default").size());
+        assertEquals(RDFDatasetUtils.parseNQuads(input.toString()), streamed);
+        for (int i = 0; i < 5000; i++) {
+            assertEquals("_:o" + i,
+                    streamed.getQuads("@default").get(i).getObject().getValue());
+        }
+
+        final RDFDataset fromStream = (RDFDataset) new NQuadRDFParser().parse(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(streamed, fromStream);
+    }
+
+    @Test
+    public void errorPositions() throws Exception {
+        assertSyntaxError("<http://example.com/s> <http://example.com/p> .",
+                "line 1, column 47");
+        assertSyntaxError("\n\n<http://example.com/s> \"p\" <http://example.com/o> .",
+                "line 3, column 24");
+        assertSyntaxError("<http://example.com/s> <http://example.com/p> \"open\n\" .",
+                "line 1, column 52");
+        assertSyntaxError("<http://example.com/s> <http://example.com/p> <http://example.com/o>",
+                "line 1, column 69");
+        assertSyntaxError(
+                "<http://example.com/s> <http://example.com/p> <http://example.com/o> . x",
+                "line 1, column 72");
+        assertSyntaxError("<http://example.com/s> <http://example.com/p> \"\\q\" .",
+                "line 1, column 49");
+        assertSyntaxError("<http://example.com/s> <http://example.com/p> \"o\"@ .",
+                "line 1, column 51");
+        assertSyntaxError("_:a. <http://example.com/p> \"o\" .", "line 1, column 4");
+    }
+
+    private static void assertSyntaxError(String input, String position) {
+        try {
+            RDFDatasetUtils.parseNQuads(input);
+            fail("Expected a syntax error for: " + input);
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.SYNTAX_ERROR, e.getType());
+            assertTrue(e.getMessage(), e.getMessage().endsWith(position));
+        }
+    }
+}
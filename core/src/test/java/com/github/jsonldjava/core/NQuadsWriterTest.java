@@ -0,0 +1,101 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.impl.NQuadTripleCallback;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class NQuadsWriterTest {
+
+    private static final String INPUT = "{\"@context\": {\"@vocab\": \"http://example.com/\"},"
+            + " \"@graph\": [{\"@id\": \"http://example.com/a\", \"name\": \"A \\\"quoted\\\" é\","
+            + " \"knows\": {\"name\": \"nested\\nline\"}},"
+            + " {\"@id\": \"_:g\", \"@graph\": {\"@id\": \"http://example.com/b\", \"age\": 42}}]}";
+
+    private static RDFDataset dataset() throws Exception {
+        final Map<String, Object> input = (Map<String, Object>) JsonUtils.fromString(INPUT);
+        return (RDFDataset) JsonLdProcessor.toRDF(input, new JsonLdOptions());
+    }
+
+    private static String sortLines(String nquads) {
+        final String[] lines = nquads.split("\n");
+        Arrays.sort(lines);
+        final StringBuilder sorted = new StringBuilder();
+        for (final String line : lines) {
+            sorted.append(line).append('\n');
+        }
+        return sorted.toString();
+    }
+
+    @Test
+    public void writeDatasetToWriter() throws Exception {
+        final RDFDataset dataset = dataset();
+        final StringWriter output = new StringWriter();
+        final NQuadsWriter writer = new NQuadsWriter(output);
+        writer.write(dataset);
+        writer.flush();
+
+        assertEquals(RDFDatasetUtils.toNQuads(dataset), sortLines(output.toString()));
+        assertEquals(dataset, RDFDatasetUtils.parseNQuads(output.toString()));
+    }
+
+    @Test
+    public void writeDatasetToOutputStream() throws Exception {
+        final RDFDataset dataset = dataset();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (NQuadsWriter writer = new NQuadsWriter(output)) {
+            writer.write(dataset);
+        }
+        final StringBuilder expected = new StringBuilder();
+        new NQuadsWriter(expected).write(dataset);
+
+        assertEquals(expected.toString(), new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writeSingleQuads() throws Exception {
+        final StringBuilder output = new StringBuilder();
+        final NQuadsWriter writer = new NQuadsWriter(output);
+        writer.write(new RDFDataset.Quad("http://example.com/s", "http://example.com/p",
+                "_:o", "http://example.com/g"));
+        writer.write(new RDFDataset.Quad("_:s", "http://example.com/p", "tab\there", null,
+                null, null));
+        assertEquals(
+                "<http://example.com/s> <http://example.com/p> _:o <http://example.com/g> .\n"
+                        + "_:s <http://example.com/p> \"tab\\there\" .\n",
+                output.toString());
+    }
+
+    @Test
+    public void toRDFToWriter() throws Exception {
+        final Object input = JsonUtils.fromString(INPUT);
+        final StringWriter output = new StringWriter();
+        final Object result = JsonLdProcessor.toRDF(input, new NQuadTripleCallback(output),
+                new JsonLdOptions());
+        assertSame(output, result);
+
+        final JsonLdOptions options = new JsonLdOptions();
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        assertEquals(JsonLdProcessor.toRDF(input, options), sortLines(output.toString()));
+    }
+
+    @Test
+    public void normalizeToWriter() throws Exception {
+        final Object input = JsonUtils.fromString(INPUT);
+        final StringWriter output = new StringWriter();
+        JsonLdProcessor.normalize(input, new JsonLdOptions(), output);
+
+        final JsonLdOptions options = new JsonLdOptions();
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        assertEquals(JsonLdProcessor.normalize(input, options), output.toString());
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class NodeMapTest {
+
+    private static NodeMap nodeMap(String input) throws Exception {
+        final JsonLdOptions opts = new JsonLdOptions();
+        final NodeMap nodeMap = new NodeMap();
+        new JsonLdApi(opts).generateNodeMap(
+                JsonLdProcessor.expand(JsonUtils.fromString(input), opts), nodeMap);
+        return nodeMap;
+    }
+
+    private static Map<String, Object> toMaps(NodeMap nodeMap) {
+        final Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for (final Map.Entry<String, Map<String, NodeObject>> graph : nodeMap.entrySet()) {
+            final Map<String, Object> nodes = new LinkedHashMap<String, Object>();
+            for (final NodeObject node : graph.getValue().values()) {
+                nodes.put(node.getId(), node.toMap());
+            }
+            result.put(graph.getKey(), nodes);
+        }
+        return result;
+    }
+
+    @Test
+    public void typedNodes() throws Exception {
+        final NodeMap nodeMap = nodeMap("{\"@context\": {\"@vocab\": \"http://example.com/\"},"
+                + " \"@graph\": [{\"@id\": \"http://example.com/a\", \"@type\": [\"T\", \"U\"],"
+                + " \"name\": [\"A\", \"A\"], \"knows\": {\"@id\": \"http://example.com/b\"}},"
+                + " {\"@id\": \"http://example.com/a\", \"@type\": \"T\", \"name\": \"B\"},"
+                + " {\"@id\": \"http://example.com/c\", \"@graph\": {\"name\": \"C\"}}]}");
+        final Map<String, NodeObject> graph = nodeMap.get(JsonLdConsts.DEFAULT);
+
+        final NodeObject a = graph.get("http://example.com/a");
+        assertEquals("http://example.com/a", a.getId());
+        assertEquals(Arrays.asList("http://example.com/T", "http://example.com/U"),
+                new ArrayList<String>(a.getTypes()));
+        assertEquals(JsonUtils.fromString("[{\"@value\": \"A\"}, {\"@value\": \"B\"}]"),
+                a.getValues("http://example.com/name"));
+        assertEquals(Arrays.asList("http://example.com/knows", "http://example.com/name"),
+                a.getProperties());
+        assertNull(a.getValues("http://example.com/other"));
+        assertTrue(graph.get("http://example.com/b").isReference());
+        assertFalse(a.isReference());
+        assertEquals(1, nodeMap.get("http://example.com/c").size());
+    }
+
+    @Test
+    public void manyProperties() {
+        final NodeObject node = new NodeObject("http://example.com/a");
+        for (int i = 0; i < 60; i++) {
+            node.addValue("http://example.com/p" + (i % 20), "v" + (i % 3));
+        }
+        assertEquals(20, node.getProperties().size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Arrays.asList("v" + (i % 3), "v" + ((i + 20) % 3), "v" + ((i + 40) % 3)),
+                    node.getValues("http://example.com/p" + i));
+        }
+        assertNull(node.getValues("http://example.com/p20"));
+    }
+
+    @Test
+    public void sameAsMaps() throws Exception {
+        final String input = "{\"@context\": {\"@vocab\": \"http://example.com/\"},"
+                + " \"@id\": \"http://example.com/a\", \"name\": \"A\", \"knows\":"
+                + " {\"@id\": \"_:b\", \"name\": \"B\", \"@reverse\": {\"likes\": {\"name\": \"C\"}}}}";
+        assertEquals(JsonUtils.fromString("{\"@default\": {"
+                + "\"http://example.com/a\": {\"@id\": \"http://example.com/a\","
+                + " \"http://example.com/knows\": [{\"@id\": \"_:b0\"}],"
+                + " \"http://example.com/name\": [{\"@value\": \"A\"}]},"
+                + " \"_:b0\": {\"@id\": \"_:b0\", \"http://example.com/name\": [{\"@value\": \"B\"}]},"
+                + " \"_:b1\": {\"@id\": \"_:b1\", \"http://example.com/likes\": [{\"@id\": \"_:b0\"}],"
+                + " \"http://example.com/name\": [{\"@value\": \"C\"}]}}}"),
+                toMaps(nodeMap(input)));
+    }
+}
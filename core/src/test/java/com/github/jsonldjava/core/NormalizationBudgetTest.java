@@ -0,0 +1,82 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class NormalizationBudgetTest {
+
+    /**
+     * A ring of blank nodes that all look the same, which makes every
+     * permutation of their neighbours equally likely to be the least one.
+     */
+    private static String ring(int size) {
+        final StringBuilder nquads = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            nquads.append("_:n").append(i).append(" <http://example.com/next> _:n")
+                    .append((i + 1) % size).append(" .\n");
+            nquads.append("_:n").append(i).append(" <http://example.com/link> _:n")
+                    .append((i + size / 2) % size).append(" .\n");
+        }
+        return nquads.toString();
+    }
+
+    private static String normalize(String algorithm, long budget, String nquads)
+            throws JsonLdError {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setNormalizationAlgorithm(algorithm);
+        options.setNormalizationBudget(budget);
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        return (String) new JsonLdApi(options).normalize(RDFDatasetUtils.parseNQuads(nquads));
+    }
+
+    private static void assertBudgetExceeded(String algorithm) {
+        try {
+            normalize(algorithm, 10, ring(12));
+            fail("Expected the normalization budget to be exceeded");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.NORMALIZATION_BUDGET_EXCEEDED, e.getType());
+        }
+    }
+
+    @Test
+    public void urgna2012BudgetExceeded() throws Exception {
+        assertBudgetExceeded(JsonLdOptions.URGNA2012);
+    }
+
+    @Test
+    public void urdna2015BudgetExceeded() throws Exception {
+        assertBudgetExceeded(JsonLdOptions.URDNA2015);
+    }
+
+    @Test
+    public void budgetDoesNotChangeOutput() throws Exception {
+        for (final String algorithm : new String[] { JsonLdOptions.URGNA2012,
+                JsonLdOptions.URDNA2015 }) {
+            final String unlimited = normalize(algorithm, 0, ring(12));
+            assertEquals(unlimited, normalize(algorithm, 1000000, ring(12)));
+            assertFalse(unlimited.contains("_:n"));
+        }
+    }
+
+    @Test
+    public void symmetricBlankNodesFinish() throws Exception {
+        final String nquads = ring(16);
+        final String normalized = normalize(JsonLdOptions.URGNA2012, 0, nquads);
+        assertEquals(32, normalized.split("\n").length);
+        assertTrue(normalized.startsWith("_:c14n"));
+        assertEquals(32, normalize(JsonLdOptions.URDNA2015, 0, nquads).split("\n").length);
+    }
+
+    @Test
+    public void isGreater() {
+        assertFalse(NormalizeUtils.isGreater("_:b1", null));
+        assertFalse(NormalizeUtils.isGreater("_:b1", "_:b1_:b2"));
+        assertTrue(NormalizeUtils.isGreater("_:b2", "_:b1_:b2"));
+        assertTrue(NormalizeUtils.isGreater("_:b1_:b2_:b3", "_:b1_:b2"));
+        assertFalse(NormalizeUtils.isGreater("_:b1_:b2", "_:b1_:b2"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class ParallelExpansionTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static final int SIZE = 3 * JsonLdApi.PARALLEL_EXPANSION_THRESHOLD + 17;
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private static Map<String, Object> context() throws Exception {
+        final Map<String, Object> context = new LinkedHashMap<String, Object>();
+        context.put("@vocab", "http://example.com/");
+        context.put("knows", JsonUtils.fromString("{\"@type\": \"@id\"}"));
+        return context;
+    }
+
+    private static List<Object> nodes() throws Exception {
+        final List<Object> nodes = new ArrayList<Object>();
+        for (int i = 0; i < SIZE; i++) {
+            final Map<String, Object> node = new LinkedHashMap<String, Object>();
+            node.put("@context", context());
+            if (i % 3 != 0) {
+                node.put("@id", "http://example.com/n" + i);
+            }
+            node.put("name", "Node " + i);
+            node.put("knows", "http://example.com/n" + (i + 1));
+            final Map<String, Object> address = new LinkedHashMap<String, Object>();
+            address.put("number", i);
+            node.put("address", address);
+            nodes.add(node);
+        }
+        // an array in the array is flattened into the result
+        nodes.add(JsonUtils.fromString("[{\"http://example.com/name\": \"last\"}]"));
+        return nodes;
+    }
+
+    private static JsonLdOptions parallel() {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setExecutor(POOL);
+        return options;
+    }
+
+    @Test
+    public void expandArray() throws Exception {
+        final List<Object> input = nodes();
+        final List<Object> expected = JsonLdProcessor.expand(input, new JsonLdOptions());
+        assertEquals(SIZE + 1, expected.size());
+        assertEquals(expected, JsonLdProcessor.expand(input, parallel()));
+    }
+
+    @Test
+    public void expandGraph() throws Exception {
+        final Map<String, Object> input = new LinkedHashMap<String, Object>();
+        input.put("@context", context());
+        input.put("@graph", nodes());
+        assertEquals(JsonLdProcessor.expand(input, new JsonLdOptions()),
+                JsonLdProcessor.expand(input, parallel()));
+    }
+
+    @Test
+    public void nestedGraphIsExpandedInTurn() throws Exception {
+        final Map<String, Object> named = new LinkedHashMap<String, Object>();
+        named.put("@id", "http://example.com/graph");
+        named.put("@graph", nodes());
+        final Map<String, Object> input = new LinkedHashMap<String, Object>();
+        input.put("@context", context());
+        input.put("@graph", named);
+        final AtomicInteger tasks = new AtomicInteger();
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.incrementAndGet();
+                command.run();
+            }
+        });
+        assertEquals(JsonLdProcessor.expand(input, new JsonLdOptions()),
+                JsonLdProcessor.expand(input, options));
+        assertEquals(0, tasks.get());
+        JsonLdProcessor.expand(nodes(), options);
+        assertTrue(tasks.get() > 1);
+    }
+
+    @Test
+    public void toRDFBlankNodes() throws Exception {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        final JsonLdOptions parallel = parallel();
+        parallel.format = JsonLdConsts.APPLICATION_NQUADS;
+        final List<Object> input = nodes();
+        assertEquals(JsonLdProcessor.toRDF(input, options),
+                JsonLdProcessor.toRDF(input, parallel));
+    }
+
+    @Test
+    public void errorInChunk() throws Exception {
+        final List<Object> input = nodes();
+        input.set(SIZE - 1, JsonUtils.fromString("{\"@id\": 1}"));
+        try {
+            JsonLdProcessor.expand(input, parallel());
+            fail("Expected an invalid @id value");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.INVALID_ID_VALUE, e.getType());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class ParallelNormalizationTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    /**
+     * Blank nodes linked at random, with a few literals to tell some of them
+     * apart, so that there are both unique and duplicate hashes.
+     */
+    private static String randomGraph(int size, long seed) {
+        final Random random = new Random(seed);
+        final StringBuilder nquads = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            nquads.append("_:n").append(i).append(" <http://example.com/p> _:n")
+                    .append(random.nextInt(size)).append(" .\n");
+            if (random.nextInt(4) == 0) {
+                nquads.append("_:n").append(i).append(" <http://example.com/v> \"")
+                        .append(random.nextInt(3)).append("\" _:g").append(random.nextInt(2))
+                        .append(" .\n");
+            }
+        }
+        return nquads.toString();
+    }
+
+    private static String normalize(String algorithm, boolean parallel, String nquads)
+            throws JsonLdError {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setNormalizationAlgorithm(algorithm);
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        if (parallel) {
+            options.setExecutor(POOL);
+        }
+        return (String) new JsonLdApi(options).normalize(RDFDatasetUtils.parseNQuads(nquads));
+    }
+
+    @Test
+    public void sameOutputAsSequential() throws Exception {
+        for (final String algorithm : new String[] { JsonLdOptions.URGNA2012,
+                JsonLdOptions.URDNA2015 }) {
+            for (long seed = 0; seed < 20; seed++) {
+                final String nquads = randomGraph(40, seed);
+                assertEquals(normalize(algorithm, false, nquads),
+                        normalize(algorithm, true, nquads));
+            }
+        }
+    }
+
+    @Test
+    public void budgetExceededInTask() throws Exception {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setExecutor(POOL);
+        options.setNormalizationBudget(10);
+        final StringBuilder nquads = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            nquads.append("_:n").append(i).append(" <http://example.com/p> _:n")
+                    .append((i + 1) % 12).append(" .\n");
+            nquads.append("_:n").append(i).append(" <http://example.com/q> _:n")
+                    .append((i + 6) % 12).append(" .\n");
+        }
+        try {
+            new JsonLdApi(options).normalize(RDFDatasetUtils.parseNQuads(nquads.toString()));
+            fail("Expected the normalization budget to be exceeded");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.NORMALIZATION_BUDGET_EXCEEDED, e.getType());
+        }
+    }
+}
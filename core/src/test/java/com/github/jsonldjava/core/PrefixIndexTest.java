@@ -0,0 +1,86 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class PrefixIndexTest {
+
+    private static final String[] PARTS = { "", "a", "b", "ab", "/", "#", ":", "http://" };
+
+    private static String iri(Random random) {
+        final StringBuilder iri = new StringBuilder();
+        final int parts = random.nextInt(6);
+        for (int i = 0; i < parts; i++) {
+            iri.append(PARTS[random.nextInt(PARTS.length)]);
+        }
+        return iri.toString();
+    }
+
+    private static Set<String> fromIndex(PrefixIndex index, String iri) {
+        final Set<String> result = new TreeSet<String>();
+        for (int i = index.longest(iri); i >= 0; i = index.shorter(i)) {
+            for (final String term : index.terms(i)) {
+                result.add(term + " " + index.iri(i));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> fromScan(Map<String, Object> termDefinitions, String iri) {
+        final Set<String> result = new TreeSet<String>();
+        for (final Map.Entry<String, Object> entry : termDefinitions.entrySet()) {
+            final Map<String, Object> definition = (Map<String, Object>) entry.getValue();
+            if (entry.getKey().contains(":") || definition == null) {
+                continue;
+            }
+            final String id = (String) definition.get(JsonLdConsts.ID);
+            if (iri.startsWith(id)) {
+                result.add(entry.getKey() + " " + id);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void sameAsScan() {
+        final Random random = new Random(23);
+        for (int n = 0; n < 200; n++) {
+            final Map<String, Object> termDefinitions = new LinkedHashMap<String, Object>();
+            final int size = random.nextInt(40);
+            for (int i = 0; i < size; i++) {
+                termDefinitions.put((i % 7 == 0 ? "p:" : "t") + i, i % 11 == 0 ? null
+                        : Collections.<String, Object> singletonMap(JsonLdConsts.ID, iri(random)));
+            }
+            final PrefixIndex index = PrefixIndex.create(termDefinitions);
+            for (int i = 0; i < 100; i++) {
+                final String iri = iri(random);
+                assertEquals(termDefinitions + " " + iri, fromScan(termDefinitions, iri),
+                        fromIndex(index, iri));
+            }
+        }
+    }
+
+    @Test
+    public void shortestCompactIri() throws Exception {
+        final Context ctx = new Context().parse(JsonUtils.fromString("{"
+                + "\"ex\": \"http://example.com/\", \"exv\": \"http://example.com/vocab/\","
+                + " \"e\": \"http://example.com/vocab/\", \"a\": \"http://example.com/vocab/a\","
+                + " \"term\": {\"@id\": \"http://example.com/vocab/term\", \"@type\": \"@id\"}}"));
+        assertEquals("e:b", ctx.compactIri("http://example.com/vocab/b", true));
+        assertEquals("ex:b", ctx.compactIri("http://example.com/b", true));
+        assertEquals("a", ctx.compactIri("http://example.com/vocab/a", true));
+        assertEquals("a:b", ctx.compactIri("http://example.com/vocab/ab", true));
+        assertEquals("e:term", ctx.compactIri("http://example.com/vocab/term", null, true, true));
+        assertEquals("http://example.org/b", ctx.compactIri("http://example.org/b", true));
+    }
+}
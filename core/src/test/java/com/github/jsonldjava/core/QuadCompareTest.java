@@ -2,6 +2,7 @@ package com.github.jsonldjava.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
@@ -22,8 +23,12 @@ public class QuadCompareTest {
         final Quad q2 = new Quad("http://example.com/s1", "http://example.com/p1",
                 "http://example.com/o1", "http://example.com/g1");
         assertEquals(0, q.compareTo(q2));
-        // Should still compare equal, even if extra attributes are added
-        q2.put("example", "value");
+        // Quads are immutable, so no extra attributes can be added
+        try {
+            q2.put("example", "value");
+            fail("Expected quads to be immutable");
+        } catch (final UnsupportedOperationException e) {
+        }
         assertEquals(0, q.compareTo(q2));
     }
 
@@ -63,4 +68,14 @@ public class QuadCompareTest {
         assertNotEquals(0, q.compareTo(q2));
     }
 
+    @Test
+    public void compareToDefaultGraph() throws Exception {
+        final Quad q2 = new Quad("http://example.com/s1", "http://example.com/p1",
+                "http://example.com/o1", "@default");
+        final Quad q3 = new Quad("http://example.com/s1", "http://example.com/p1",
+                "http://example.com/o1", null);
+        assertNotEquals(0, q.compareTo(q2));
+        assertEquals(-q.compareTo(q2), q2.compareTo(q));
+        assertEquals(0, q2.compareTo(q3));
+    }
 }
@@ -0,0 +1,85 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class QuadSinkTest {
+
+    private static final String INPUT = "{\"@context\": {\"ex\": \"http://example.com/\","
+            + " \"@vocab\": \"http://example.com/vocab#\"},"
+            + " \"@graph\": [{\"@id\": \"ex:a\", \"name\": \"A\", \"knows\": {\"@id\": \"ex:b\"}},"
+            + " {\"@id\": \"ex:g\", \"@graph\": {\"@id\": \"ex:c\", \"name\": \"C\"}}]}";
+
+    private static final String NQUADS = "<http://example.com/s> <http://example.com/p> \"o\" .\n"
+            + "<http://example.com/s> <http://example.com/p> \"o\" .\n"
+            + "<http://example.com/s> <http://example.com/p> \"o\" <http://example.com/g> .\n";
+
+    private static class RecordingSink implements QuadSink {
+        final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void start() {
+            events.add("start");
+        }
+
+        @Override
+        public void prefix(String prefix, String iri) {
+            events.add("prefix " + prefix + " " + iri);
+        }
+
+        @Override
+        public void quad(RDFDataset.Quad quad) {
+            events.add("quad");
+        }
+
+        @Override
+        public void end() {
+            events.add("end");
+        }
+    }
+
+    @Test
+    public void toRDFMatchesDataset() throws Exception {
+        final Object input = JsonUtils.fromString(INPUT);
+        final JsonLdOptions options = new JsonLdOptions();
+        options.useNamespaces = true;
+        final RDFDataset expected = (RDFDataset) JsonLdProcessor.toRDF(input, options);
+
+        final RDFDatasetSink sink = new RDFDatasetSink();
+        JsonLdProcessor.toRDF(input, options, sink);
+        assertEquals(RDFDatasetUtils.toNQuads(expected),
+                RDFDatasetUtils.toNQuads(sink.getDataset()));
+        assertEquals(expected.getNamespaces(), sink.getDataset().getNamespaces());
+    }
+
+    @Test
+    public void toRDFCallsSinkInOrder() throws Exception {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.useNamespaces = true;
+        final RecordingSink sink = new RecordingSink();
+        JsonLdProcessor.toRDF(JsonUtils.fromString(INPUT), options, sink);
+        assertEquals(Arrays.asList("start", "prefix ex http://example.com/", "quad", "quad",
+                "quad", "end"), sink.events);
+    }
+
+    @Test
+    public void parseNQuadsToSink() throws Exception {
+        final RecordingSink sink = new RecordingSink();
+        new NQuadsParser(NQUADS).parse(sink);
+        assertEquals(Arrays.asList("start", "quad", "quad", "quad", "end"), sink.events);
+
+        final RDFDatasetSink datasetSink = new RDFDatasetSink();
+        new NQuadsParser(NQUADS).parse(datasetSink);
+        final RDFDataset dataset = datasetSink.getDataset();
+        assertEquals(1, dataset.getQuads(JsonLdConsts.DEFAULT).size());
+        assertEquals(1, dataset.getQuads("http://example.com/g").size());
+        assertEquals(RDFDatasetUtils.parseNQuads(NQUADS), dataset);
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.core.RDFDataset.BlankNode;
+import com.github.jsonldjava.core.RDFDataset.IRI;
+import com.github.jsonldjava.core.RDFDataset.Literal;
+import com.github.jsonldjava.core.RDFDataset.Quad;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class RDFTermTest {
+
+    private static Map<String, Object> map(String json) throws Exception {
+        return new LinkedHashMap<String, Object>((Map<String, Object>) JsonUtils.fromString(json));
+    }
+
+    @Test
+    public void mapViews() throws Exception {
+        final Literal literal = new Literal("a", null, "en");
+        final Map<String, Object> expected = map("{\"type\": \"literal\", \"value\": \"a\","
+                + " \"datatype\": \"http://www.w3.org/2001/XMLSchema#string\","
+                + " \"language\": \"en\"}");
+        assertEquals(expected, literal);
+        assertEquals(literal, expected);
+        assertEquals(expected.hashCode(), literal.hashCode());
+        assertEquals(expected.toString(), literal.toString());
+        assertEquals(map("{\"type\": \"IRI\", \"value\": \"http://example.com/\"}"),
+                new IRI("http://example.com/"));
+        assertEquals(map("{\"type\": \"blank node\", \"value\": \"_:b0\"}"),
+                new BlankNode("_:b0"));
+
+        final Quad quad = new Quad("_:b0", "http://example.com/p", "http://example.com/o",
+                "http://example.com/g");
+        final Map<String, Object> expectedQuad = new LinkedHashMap<String, Object>();
+        expectedQuad.put("subject", new BlankNode("_:b0"));
+        expectedQuad.put("predicate", new IRI("http://example.com/p"));
+        expectedQuad.put("object", new IRI("http://example.com/o"));
+        expectedQuad.put("name", new IRI("http://example.com/g"));
+        assertEquals(expectedQuad, quad);
+        assertEquals(expectedQuad.hashCode(), quad.hashCode());
+        assertEquals(expectedQuad.keySet(), quad.keySet());
+
+        final Quad defaultGraph = new Quad("_:b0", "http://example.com/p", "o", null, null,
+                "@default");
+        assertEquals(3, defaultGraph.size());
+        assertFalse(defaultGraph.containsKey("name"));
+    }
+
+    @Test
+    public void equality() throws Exception {
+        assertEquals(new IRI("http://example.com/"), new IRI("http://example.com/"));
+        assertNotEquals(new IRI("_:b0"), new BlankNode("_:b0"));
+        assertNotEquals(new Literal("1", null, null),
+                new Literal("1", JsonLdConsts.XSD_INTEGER, null));
+        assertEquals(new Quad("http://example.com/s", "http://example.com/p", "1", null, "en",
+                null), new Quad("http://example.com/s", "http://example.com/p", "1", null, "en",
+                        "@default"));
+    }
+
+    @Test
+    public void immutable() throws Exception {
+        try {
+            new IRI("http://example.com/").put("value", "http://example.com/other");
+            fail("Expected terms to be immutable");
+        } catch (final UnsupportedOperationException e) {
+        }
+    }
+
+    @Test
+    public void sharedTerms() throws Exception {
+        final RDFDataset dataset = new RDFDataset();
+        dataset.addQuad("http://example.com/s1", "http://example.com/p", "http://example.com/o",
+                "http://example.com/g");
+        dataset.addQuad("http://example.com/s2", "http://example.com/p", "v", null, null,
+                "http://example.com/g");
+        final Quad first = dataset.getQuads("http://example.com/g").get(0);
+        final Quad second = dataset.getQuads("http://example.com/g").get(1);
+        assertSame(first.getPredicate(), second.getPredicate());
+        assertSame(first.getGraph(), second.getGraph());
+        assertSame(new Literal("a", "http://example.com/" + "type", null).getDatatype(),
+                new Literal("b", new String("http://example.com/type"), null).getDatatype());
+    }
+}
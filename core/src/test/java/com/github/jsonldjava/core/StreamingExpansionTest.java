@@ -0,0 +1,140 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class StreamingExpansionTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static List<Object> expandStreaming(JsonParser parser, JsonLdOptions options)
+            throws JsonLdError {
+        final List<Object> result = new ArrayList<Object>();
+        JsonLdProcessor.expand(parser, options, new JsonLdNodeCallback() {
+            @Override
+            public void call(Map<String, Object> node) {
+                result.add(node);
+            }
+        });
+        return result;
+    }
+
+    private static List<Object> expandStreaming(String json) throws Exception {
+        return expandStreaming(JSON_FACTORY.createParser(json), new JsonLdOptions());
+    }
+
+    private static void assertSameExpansion(String json) throws Exception {
+        assertEquals(JsonLdProcessor.expand(JsonUtils.fromString(json)), expandStreaming(json));
+    }
+
+    @Test
+    public void topLevelArray() throws Exception {
+        assertSameExpansion("[{\"@id\": \"http://example.com/a\", \"http://example.com/p\": 1},"
+                + " \"free floating\", [{\"@id\": \"http://example.com/b\", \"http://example.com/p\": 2}],"
+                + " {\"@context\": {\"p\": \"http://example.com/p\"}, \"p\": 3},"
+                + " {\"@graph\": {\"@id\": \"http://example.com/c\", \"http://example.com/p\": 4}}]");
+    }
+
+    @Test
+    public void topLevelGraph() throws Exception {
+        assertSameExpansion("{\"@context\": {\"@vocab\": \"http://example.com/\", \"data\": \"@graph\"},"
+                + " \"unmapped:not\": \"dropped\", \"data\": [{\"@id\": \"a\", \"p\": 1},"
+                + " {\"@id\": \"b\", \"p\": [2, 3]}, {\"p\": {\"@id\": \"c\"}}]}");
+        assertSameExpansion("{\"@context\": {\"@vocab\": \"http://example.com/\"},"
+                + " \"@graph\": {\"@id\": \"a\", \"p\": 1}}");
+    }
+
+    @Test
+    public void namedGraphIsNotStreamed() throws Exception {
+        assertSameExpansion("{\"@context\": {\"@vocab\": \"http://example.com/\"},"
+                + " \"@id\": \"g\", \"@graph\": [{\"@id\": \"a\", \"p\": 1}]}");
+        assertSameExpansion("{\"@id\": \"http://example.com/a\", \"http://example.com/p\": 1}");
+        assertSameExpansion("\"scalar\"");
+    }
+
+    @Test
+    public void membersAfterGraph() throws Exception {
+        assertSameExpansion("{\"@graph\": [{\"@id\": \"http://example.com/a\","
+                + " \"http://example.com/p\": 1}], \"dropped\": true}");
+        assertSameExpansion("{\"@graph\": [{\"@id\": \"http://example.com/a\","
+                + " \"http://example.com/p\": 1.5}], \"@id\": \"http://example.com/g\"}");
+        assertSameExpansion("{\"@graph\": [{\"@id\": \"a\", \"p\": 1.5}, {\"p\": [2, 3]}],"
+                + " \"@context\": {\"@vocab\": \"http://example.com/\"}}");
+        assertSameExpansion("{\"@graph\": [{\"@id\": \"a\", \"p\": 1}],"
+                + " \"@context\": {\"@vocab\": \"http://example.com/\"}, \"@id\": \"g\"}");
+        assertSameExpansion("{\"data\": [{\"@id\": \"a\", \"p\": 1}],"
+                + " \"@context\": {\"@vocab\": \"http://example.com/\", \"data\": \"@graph\"}}");
+        assertSameExpansion("{\"@graph\": {\"@id\": \"a\", \"p\": 1},"
+                + " \"@context\": {\"@vocab\": \"http://example.com/\"}}");
+    }
+
+    @Test
+    public void membersAfterStreamedGraph() throws Exception {
+        // a @graph after the @context is expanded as it is read
+        try {
+            expandStreaming("{\"@context\": {}, \"@graph\": [{\"@id\": \"http://example.com/a\","
+                    + " \"http://example.com/p\": 1}], \"@id\": \"http://example.com/g\"}");
+            fail("Expected an error for @id after @graph");
+        } catch (final JsonLdError e) {
+            assertEquals(JsonLdError.Error.NOT_IMPLEMENTED, e.getType());
+        }
+    }
+
+    @Test
+    public void nodesArePassedAsTheyAreRead() throws Exception {
+        final JsonParser parser = JSON_FACTORY.createParser(
+                "[{\"@id\": \"http://example.com/a\", \"http://example.com/p\": 1},"
+                        + " {\"@id\": \"http://example.com/b\", \"http://example.com/p\": 2}] ");
+        final List<Integer> columns = new ArrayList<Integer>();
+        JsonLdProcessor.expand(parser, new JsonLdOptions(), new JsonLdNodeCallback() {
+            @Override
+            public void call(Map<String, Object> node) {
+                columns.add(parser.getCurrentLocation().getColumnNr());
+            }
+        });
+        assertEquals(Arrays.asList(60, 120), columns);
+    }
+
+    @Test
+    public void matchesExpansionTestSuite() throws Exception {
+        final File dir = new File(getClass().getResource("/json-ld.org").toURI());
+        int compared = 0;
+        for (final File file : dir.listFiles()) {
+            if (!file.getName().startsWith("expand-") || !file.getName().endsWith("-in.jsonld")) {
+                continue;
+            }
+            final String base = "http://json-ld.org/test-suite/tests/" + file.getName();
+            Object expected;
+            try (InputStream in = new FileInputStream(file)) {
+                expected = JsonLdProcessor.expand(JsonUtils.fromInputStream(in),
+                        new JsonLdOptions(base));
+            } catch (final JsonLdError e) {
+                expected = e.getType();
+            }
+            Object actual;
+            try (InputStream in = new FileInputStream(file)) {
+                actual = expandStreaming(JSON_FACTORY.createParser(in), new JsonLdOptions(base));
+            } catch (final JsonLdError e) {
+                actual = e.getType();
+            }
+            assertEquals(file.getName(), expected, actual);
+            compared++;
+        }
+        assertTrue(compared > 50);
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class StreamingOutputTest {
+
+    private static final String CONTEXT = "{\"@context\": {\"ex\": \"http://example.com/\","
+            + " \"name\": \"ex:name\", \"knows\": {\"@id\": \"ex:knows\", \"@type\": \"@id\"}}}";
+
+    private static final String FRAME = CONTEXT.substring(0, CONTEXT.length() - 1)
+            + ", \"name\": {}}";
+
+    private static final String ONE = "{\"@id\": \"http://example.com/a\","
+            + " \"http://example.com/name\": \"A\"}";
+
+    private static final String MANY = "[{\"@id\": \"http://example.com/a\","
+            + " \"http://example.com/name\": \"A\", \"http://example.com/knows\":"
+            + " {\"@id\": \"http://example.com/b\", \"http://example.com/name\": \"B\"}},"
+            + " {\"@id\": \"http://example.com/c\", \"http://example.com/name\": [\"C\", \"D\"]}]";
+
+    private interface Operation {
+        Object result(JsonLdOptions opts) throws Exception;
+
+        void write(JsonLdOptions opts, JsonGenerator output) throws Exception;
+    }
+
+    private static void assertSameOutput(String message, Operation operation,
+            JsonLdOptions opts) throws Exception {
+        Object expected;
+        try {
+            expected = JsonUtils.toString(operation.result(opts.copy()));
+        } catch (final JsonLdError e) {
+            expected = e.getType();
+        }
+        Object actual;
+        final StringWriter writer = new StringWriter();
+        // a generator without codec
+        try (JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+            operation.write(opts.copy(), generator);
+            generator.flush();
+            actual = writer.toString();
+        } catch (final JsonLdError e) {
+            actual = e.getType();
+        }
+        assertEquals(message, expected, actual);
+    }
+
+    private static Operation compact(final Object input, final Object context) {
+        return new Operation() {
+            @Override
+            public Object result(JsonLdOptions opts) throws Exception {
+                return JsonLdProcessor.compact(input, context, opts);
+            }
+
+            @Override
+            public void write(JsonLdOptions opts, JsonGenerator output) throws Exception {
+                JsonLdProcessor.compact(input, context, opts, output);
+            }
+        };
+    }
+
+    private static Operation flatten(final Object input, final Object context) {
+        return new Operation() {
+            @Override
+            public Object result(JsonLdOptions opts) throws Exception {
+                return JsonLdProcessor.flatten(input, context, opts);
+            }
+
+            @Override
+            public void write(JsonLdOptions opts, JsonGenerator output) throws Exception {
+                JsonLdProcessor.flatten(input, context, opts, output);
+            }
+        };
+    }
+
+    private static Operation frame(final Object input, final Object frame) {
+        return new Operation() {
+            @Override
+            public Object result(JsonLdOptions opts) throws Exception {
+                return JsonLdProcessor.frame(JsonUtils.fromString(JsonUtils.toString(input)),
+                        frame, opts);
+            }
+
+            @Override
+            public void write(JsonLdOptions opts, JsonGenerator output) throws Exception {
+                JsonLdProcessor.frame(JsonUtils.fromString(JsonUtils.toString(input)), frame,
+                        opts, output);
+            }
+        };
+    }
+
+    @Test
+    public void sameAsResult() throws Exception {
+        final Object context = JsonUtils.fromString(CONTEXT);
+        for (final String input : new String[] { ONE, MANY, "[]" }) {
+            for (final boolean compactArrays : new boolean[] { true, false }) {
+                for (final boolean omitGraph : new boolean[] { true, false }) {
+                    final JsonLdOptions opts = new JsonLdOptions();
+                    opts.setCompactArrays(compactArrays);
+                    opts.setOmitGraph(omitGraph);
+                    final String message = input + " " + compactArrays + " " + omitGraph;
+                    final Object document = JsonUtils.fromString(input);
+                    assertSameOutput(message, compact(document, context), opts);
+                    assertSameOutput(message, compact(document, null), opts);
+                    assertSameOutput(message, flatten(document, context), opts);
+                    assertSameOutput(message, flatten(document, null), opts);
+                    if (!"[]".equals(input)) {
+                        // framing an empty document fails with either
+                        assertSameOutput(message, frame(document, JsonUtils.fromString(FRAME)),
+                                opts);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void matchesTestSuite() throws Exception {
+        final File dir = new File(getClass().getResource("/json-ld.org").toURI());
+        int compared = 0;
+        for (final File file : dir.listFiles()) {
+            final String name = file.getName();
+            if (!name.endsWith("-in.jsonld")) {
+                continue;
+            }
+            final String prefix = name.substring(0, name.length() - "-in.jsonld".length());
+            final File context = new File(dir, prefix + "-context.jsonld");
+            final File frame = new File(dir, prefix + "-frame.jsonld");
+            final JsonLdOptions opts = new JsonLdOptions(
+                    "http://json-ld.org/test-suite/tests/" + name);
+            final Object input = read(file);
+            if (name.startsWith("compact-") && context.exists()) {
+                assertSameOutput(name, compact(input, read(context)), opts);
+            } else if (name.startsWith("flatten-")) {
+                assertSameOutput(name, flatten(input, context.exists() ? read(context) : null),
+                        opts);
+            } else if (name.startsWith("frame-") && frame.exists()) {
+                assertSameOutput(name, frame(input, read(frame)), opts);
+            } else {
+                continue;
+            }
+            compared++;
+        }
+        assertTrue(compared > 100);
+    }
+
+    private static Object read(File file) throws Exception {
+        try (InputStream in = new FileInputStream(file)) {
+            return JsonUtils.fromInputStream(in);
+        }
+    }
+}
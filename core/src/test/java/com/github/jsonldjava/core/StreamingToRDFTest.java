@@ -0,0 +1,78 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class StreamingToRDFTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String INPUT = "{\"@context\": {\"@vocab\": \"http://example.com/\","
+            + " \"knows\": {\"@type\": \"@id\"}, \"items\": {\"@container\": \"@list\"}},"
+            + " \"@graph\": ["
+            + " {\"@id\": \"http://example.com/a\", \"name\": \"A\", \"knows\": \"http://example.com/b\","
+            + "  \"address\": {\"city\": \"X\"}, \"items\": [1, 2.5, true]},"
+            + " {\"@id\": \"http://example.com/b\", \"@type\": \"Person\", \"name\": {\"@value\": \"B\", \"@language\": \"en\"}},"
+            + " {\"@id\": \"http://example.com/g\", \"@graph\": [{\"@id\": \"http://example.com/c\","
+            + "  \"name\": \"C\", \"parent\": {\"name\": \"D\"}}]},"
+            + " {\"name\": \"anonymous\"}]}";
+
+    private static List<RDFDataset.Quad> toRDFStreaming(String json) throws Exception {
+        final List<RDFDataset.Quad> quads = new ArrayList<RDFDataset.Quad>();
+        JsonLdProcessor.toRDF(JSON_FACTORY.createParser(json), new JsonLdOptions(),
+                new QuadSink() {
+                    @Override
+                    public void quad(RDFDataset.Quad quad) {
+                        quads.add(quad);
+                    }
+                });
+        return quads;
+    }
+
+    private static String normalize(List<RDFDataset.Quad> quads) throws JsonLdError {
+        final RDFDataset dataset = new RDFDataset();
+        for (final RDFDataset.Quad quad : quads) {
+            final String graphName = quad.getGraph() == null ? JsonLdConsts.DEFAULT
+                    : quad.getGraph().getValue();
+            if (!dataset.containsKey(graphName)) {
+                dataset.put(graphName, new ArrayList<RDFDataset.Quad>());
+            }
+            dataset.getQuads(graphName).add(quad);
+        }
+        final JsonLdOptions options = new JsonLdOptions();
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        return (String) new JsonLdApi(options).normalize(dataset);
+    }
+
+    @Test
+    public void matchesToRDF() throws Exception {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        final String expected = (String) JsonLdProcessor.normalize(JsonUtils.fromString(INPUT),
+                options);
+
+        final List<RDFDataset.Quad> quads = toRDFStreaming(INPUT);
+        assertEquals(17, quads.size());
+        assertEquals(expected, normalize(quads));
+    }
+
+    @Test
+    public void blankNodeIdentifiersAreScopedToTopLevelObjects() throws Exception {
+        final List<RDFDataset.Quad> quads = toRDFStreaming(
+                "[{\"@id\": \"_:x\", \"http://example.com/p\": 1},"
+                        + " {\"@id\": \"_:x\", \"http://example.com/p\": 2},"
+                        + " {\"http://example.com/p\": 3}]");
+        assertEquals(3, quads.size());
+        assertNotEquals(quads.get(0).getSubject(), quads.get(1).getSubject());
+        assertNotEquals(quads.get(1).getSubject(), quads.get(2).getSubject());
+        assertNotEquals(quads.get(0).getSubject(), quads.get(2).getSubject());
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+public class TermDefinitionsTest {
+
+    private static void assertSameContent(Map<String, Object> expected,
+            TermDefinitions actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<String>(expected.keySet()),
+                new ArrayList<String>(actual.keySet()));
+        assertEquals(new ArrayList<Object>(expected.values()),
+                new ArrayList<Object>(actual.values()));
+        for (int i = 0; i < 20; i++) {
+            final String term = "t" + i;
+            assertEquals(expected.containsKey(term), actual.containsKey(term));
+            assertEquals(expected.get(term), actual.get(term));
+        }
+    }
+
+    @Test
+    public void behavesLikeLinkedHashMap() {
+        final Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            Map<String, Object> expected = new LinkedHashMap<String, Object>();
+            TermDefinitions actual = new TermDefinitions();
+            // keep a few shared versions around, to check they do not change
+            final List<Map<String, Object>> snapshots = new ArrayList<Map<String, Object>>();
+            final List<TermDefinitions> shared = new ArrayList<TermDefinitions>();
+
+            for (int step = 0; step < 200; step++) {
+                final String term = "t" + random.nextInt(20);
+                final int op = random.nextInt(10);
+                if (op == 0 && random.nextInt(10) == 0) {
+                    expected.clear();
+                    actual.clear();
+                } else if (op < 4) {
+                    final Object value = random.nextInt(5) == 0 ? null : "v" + step;
+                    assertEquals(expected.put(term, value), actual.put(term, value));
+                } else if (op < 7) {
+                    assertEquals(expected.remove(term), actual.remove(term));
+                } else if (op < 9) {
+                    // clone
+                    snapshots.add(new LinkedHashMap<String, Object>(expected));
+                    shared.add(actual.share());
+                    actual = actual.writable();
+                } else {
+                    // continue from an older version
+                    final int index = random.nextInt(shared.size() + 1) - 1;
+                    if (index >= 0) {
+                        expected = new LinkedHashMap<String, Object>(snapshots.get(index));
+                        actual = shared.get(index).writable();
+                    }
+                }
+                assertSameContent(expected, actual);
+            }
+            for (int i = 0; i < shared.size(); i++) {
+                assertSameContent(snapshots.get(i), shared.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void sharedIsNotModified() {
+        final TermDefinitions definitions = new TermDefinitions();
+        definitions.put("a", "A");
+        assertSame(definitions, definitions.writable());
+
+        definitions.share();
+        final TermDefinitions child = definitions.writable();
+        assertNotSame(definitions, child);
+        child.put("a", "B");
+        child.put("b", "C");
+        assertEquals("A", definitions.get("a"));
+        assertFalse(definitions.containsKey("b"));
+        assertEquals(1, definitions.size());
+        try {
+            definitions.put("c", "D");
+        } catch (final IllegalStateException e) {
+            return;
+        }
+        throw new AssertionError("Shared term definitions were modified");
+    }
+
+    @Test
+    public void depthIsBounded() {
+        TermDefinitions definitions = new TermDefinitions();
+        for (int i = 0; i < TermDefinitions.MAX_DEPTH * 3; i++) {
+            definitions = definitions.share().writable();
+            definitions.put("t" + i, "v" + i);
+        }
+        assertEquals(TermDefinitions.MAX_DEPTH * 3, definitions.size());
+        assertEquals("v0", definitions.get("t0"));
+    }
+
+    @Test
+    public void nestedContextDoesNotChangeParent() throws Exception {
+        final Context parent = new Context().parse(JsonUtils
+                .fromString("{\"name\": \"http://schema.org/name\", \"ex\": \"http://example.com/\"}"));
+        final Context child = parent.parse(JsonUtils
+                .fromString("{\"name\": \"http://xmlns.com/foaf/0.1/name\", \"ex\": null}"));
+
+        assertEquals("http://schema.org/name", parent.expandIri("name", false, true, null, null));
+        assertEquals("http://xmlns.com/foaf/0.1/name",
+                child.expandIri("name", false, true, null, null));
+        assertTrue(parent.getTermDefinition("ex") != null);
+        assertNull(child.getTermDefinition("ex"));
+        assertEquals("ex:a", parent.compactIri("http://example.com/a", false));
+        assertEquals("http://example.com/a", child.compactIri("http://example.com/a", false));
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.jsonldjava.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Urdna2015Test {
+
+    // https://www.w3.org/TR/rdf-canon/#example-5
+    private static final String UNIQUE_HASHES = "<http://example.com/#p> <http://example.com/#q> _:e0 .\n"
+            + "<http://example.com/#p> <http://example.com/#r> _:e1 .\n"
+            + "_:e0 <http://example.com/#s> <http://example.com/#u> .\n"
+            + "_:e1 <http://example.com/#t> <http://example.com/#u> .\n";
+
+    private static final String UNIQUE_HASHES_NORMALIZED = "<http://example.com/#p> <http://example.com/#q> _:c14n0 .\n"
+            + "<http://example.com/#p> <http://example.com/#r> _:c14n1 .\n"
+            + "_:c14n0 <http://example.com/#s> <http://example.com/#u> .\n"
+            + "_:c14n1 <http://example.com/#t> <http://example.com/#u> .\n";
+
+    // https://www.w3.org/TR/rdf-canon/#example-8
+    private static final String SHARED_HASHES = "<http://example.com/#p> <http://example.com/#q> _:e0 .\n"
+            + "<http://example.com/#p> <http://example.com/#q> _:e1 .\n"
+            + "_:e0 <http://example.com/#p> _:e2 .\n"
+            + "_:e1 <http://example.com/#p> _:e3 .\n"
+            + "_:e2 <http://example.com/#r> _:e3 .\n";
+
+    private static final String SHARED_HASHES_NORMALIZED = "<http://example.com/#p> <http://example.com/#q> _:c14n2 .\n"
+            + "<http://example.com/#p> <http://example.com/#q> _:c14n3 .\n"
+            + "_:c14n0 <http://example.com/#r> _:c14n1 .\n"
+            + "_:c14n2 <http://example.com/#p> _:c14n1 .\n"
+            + "_:c14n3 <http://example.com/#p> _:c14n0 .\n";
+
+    private static final String GRAPHS = "_:a <http://example.com/p> _:b _:g .\n"
+            + "_:b <http://example.com/p> _:a _:g .\n"
+            + "_:g <http://example.com/name> \"graph\" .\n"
+            + "_:c <http://example.com/p> _:d <http://example.com/g> .\n"
+            + "_:d <http://example.com/p> \"d\"@en <http://example.com/g> .\n";
+
+    private static JsonLdOptions urdna2015() {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setNormalizationAlgorithm(JsonLdOptions.URDNA2015);
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        return options;
+    }
+
+    private static String normalize(String nquads) throws JsonLdError {
+        return (String) new JsonLdApi(urdna2015()).normalize(RDFDatasetUtils.parseNQuads(nquads));
+    }
+
+    @Test
+    public void uniqueHashes() throws Exception {
+        assertEquals(UNIQUE_HASHES_NORMALIZED, normalize(UNIQUE_HASHES));
+    }
+
+    @Test
+    public void sharedHashes() throws Exception {
+        assertEquals(SHARED_HASHES_NORMALIZED, normalize(SHARED_HASHES));
+    }
+
+    @Test
+    public void independentOfLabelsAndOrder() throws Exception {
+        final Random random = new Random(42);
+        for (final String nquads : new String[] { UNIQUE_HASHES, SHARED_HASHES, GRAPHS }) {
+            final String expected = normalize(nquads);
+            for (int i = 0; i < 10; i++) {
+                final List<String> lines = new ArrayList<String>();
+                for (final String line : nquads.split("\n")) {
+                    lines.add(line.replaceAll("_:(\\w+)", "_:x" + i + "$1") + "\n");
+                }
+                Collections.shuffle(lines, random);
+                final StringBuilder shuffled = new StringBuilder();
+                for (final String line : lines) {
+                    shuffled.append(line);
+                }
+                assertEquals(expected, normalize(shuffled.toString()));
+            }
+        }
+    }
+
+    @Test
+    public void outputsAgree() throws Exception {
+        final String expected = normalize(GRAPHS);
+
+        final StringBuilder output = new StringBuilder();
+        assertSame(output,
+                new JsonLdApi(urdna2015()).normalize(RDFDatasetUtils.parseNQuads(GRAPHS), output));
+        assertEquals(expected, output.toString());
+
+        final JsonLdOptions options = urdna2015();
+        options.format = null;
+        final RDFDataset dataset = (RDFDataset) new JsonLdApi(options)
+                .normalize(RDFDatasetUtils.parseNQuads(GRAPHS));
+        assertEquals(expected, RDFDatasetUtils.toNQuads(dataset));
+        assertEquals(RDFDatasetUtils.parseNQuads(expected), dataset);
+    }
+
+    @Test
+    public void defaultIsUrgna2012() throws Exception {
+        final JsonLdOptions options = new JsonLdOptions();
+        assertEquals(JsonLdOptions.URGNA2012, options.getNormalizationAlgorithm());
+        options.format = JsonLdConsts.APPLICATION_NQUADS;
+        final Object byDefault = new JsonLdApi(options)
+                .normalize(RDFDatasetUtils.parseNQuads(SHARED_HASHES));
+        options.setNormalizationAlgorithm(null);
+        assertEquals(byDefault,
+                new JsonLdApi(options).normalize(RDFDatasetUtils.parseNQuads(SHARED_HASHES)));
+        assertEquals(JsonLdOptions.URDNA2015, urdna2015().copy().getNormalizationAlgorithm());
+    }
+
+    @Test(expected = JsonLdError.class)
+    public void unknownAlgorithm() throws Exception {
+        final JsonLdOptions options = new JsonLdOptions();
+        options.setNormalizationAlgorithm("URDNA2042");
+        new JsonLdApi(options).normalize(RDFDatasetUtils.parseNQuads(UNIQUE_HASHES));
+    }
+}
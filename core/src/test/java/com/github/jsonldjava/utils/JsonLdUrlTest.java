@@ -0,0 +1,110 @@
+package com.github.jsonldjava.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class JsonLdUrlTest {
+
+    private static final String RFC_BASE = "http://a/b/c/d;p?q";
+
+    // RFC 3986 section 5.4, except "g:h" which java.net.URI does not resolve
+    private static final String[][] RFC_EXAMPLES = { { "g", "http://a/b/c/g" },
+            { "./g", "http://a/b/c/g" }, { "g/", "http://a/b/c/g/" }, { "/g", "http://a/g" },
+            { "//g", "http://g" }, { "?y", "http://a/b/c/d;p?y" }, { "g?y", "http://a/b/c/g?y" },
+            { "#s", "http://a/b/c/d;p?q#s" }, { "g#s", "http://a/b/c/g#s" },
+            { "g?y#s", "http://a/b/c/g?y#s" }, { ";x", "http://a/b/c/;x" },
+            { "g;x", "http://a/b/c/g;x" }, { "g;x?y#s", "http://a/b/c/g;x?y#s" },
+            { "", "http://a/b/c/d;p?q" }, { ".", "http://a/b/c/" }, { "./", "http://a/b/c/" },
+            { "..", "http://a/b/" }, { "../", "http://a/b/" }, { "../g", "http://a/b/g" },
+            { "../..", "http://a/" }, { "../../", "http://a/" }, { "../../g", "http://a/g" },
+            { "../../../g", "http://a/g" }, { "../../../../g", "http://a/g" },
+            { "/./g", "http://a/g" }, { "/../g", "http://a/g" }, { "g.", "http://a/b/c/g." },
+            { ".g", "http://a/b/c/.g" }, { "g..", "http://a/b/c/g.." },
+            { "..g", "http://a/b/c/..g" }, { "./../g", "http://a/b/g" },
+            { "./g/.", "http://a/b/c/g/" }, { "g/./h", "http://a/b/c/g/h" },
+            { "g/../h", "http://a/b/c/h" }, { "g;x=1/./y", "http://a/b/c/g;x=1/y" },
+            { "g;x=1/../y", "http://a/b/c/y" }, { "g?y/./x", "http://a/b/c/g?y/./x" },
+            { "g?y/../x", "http://a/b/c/g?y/../x" }, { "g#s/./x", "http://a/b/c/g#s/./x" },
+            { "g#s/../x", "http://a/b/c/g#s/../x" } };
+
+    @Test
+    public void rfcExamples() {
+        for (final String[] example : RFC_EXAMPLES) {
+            assertEquals(example[0], example[1], JsonLdUrl.resolve(RFC_BASE, example[0]));
+            assertEquals(example[0], JsonLdUrl.resolveWithURI(RFC_BASE, example[0]),
+                    JsonLdUrl.resolve(RFC_BASE, example[0]));
+        }
+    }
+
+    @Test
+    public void specialBases() {
+        assertEquals("g", JsonLdUrl.resolve(null, "g"));
+        assertEquals("http://a/b#f", JsonLdUrl.resolve("http://a/b#f", " "));
+        assertEquals("http://a/g", JsonLdUrl.resolve("http://a", "g"));
+        assertEquals("http://a/g", JsonLdUrl.resolve("http://a#f", "g"));
+        assertEquals("http://a?y", JsonLdUrl.resolve("http://a", "?y"));
+        assertEquals("file:/a/g", JsonLdUrl.resolve("file:///a/b", "g"));
+        assertEquals("tag:example/a/g", JsonLdUrl.resolve("tag:example/a/b", "g"));
+        assertEquals("tag:g", JsonLdUrl.resolve("tag:example", "g"));
+        assertEquals("http://a/b/%20", JsonLdUrl.resolve("http://a/b/c", "%20"));
+        assertEquals("http://a/b/\u00e9", JsonLdUrl.resolve("http://a/b/c", "\u00e9"));
+        assertNull(JsonLdUrl.resolve("http://a/b c", "g"));
+    }
+
+    private static final String[] SCHEMES = { "http:", "urn:", "file:", "s+1.a-b:" };
+    private static final String[] AUTHORITIES = { "", "//", "//a", "//u@a:80", "//a.b:",
+            "//a!$&'()*+,;=" };
+    private static final String[] SEGMENTS = { "", ".", "..", "a", "b", ".a", "a..", ";p", "a:b",
+            "a=1", "~", "%41", "\u00e9", " ", "a b", "[", "@" };
+    private static final String[] SUFFIXES = { "", "?", "?q", "?q/./../x", "#", "#f", "#f/../x",
+            "?q#f", "#f#g", "?q?r" };
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String path(Random random, boolean absolute) {
+        final StringBuilder path = new StringBuilder();
+        final int segments = random.nextInt(6);
+        for (int i = 0; i < segments; i++) {
+            if (i > 0 || absolute) {
+                path.append('/');
+            }
+            path.append(pick(random, SEGMENTS));
+        }
+        if (random.nextInt(4) == 0) {
+            path.append('/');
+        }
+        return path.toString();
+    }
+
+    private static String resolve(String base, String reference, boolean legacy) {
+        try {
+            return legacy ? JsonLdUrl.resolveWithURI(base, reference)
+                    : JsonLdUrl.resolve(base, reference);
+        } catch (final IllegalArgumentException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    @Test
+    public void sameAsURIResolution() {
+        final Random random = new Random(3986);
+        for (int i = 0; i < 50000; i++) {
+            final String base = pick(random, SCHEMES)
+                    + (random.nextInt(5) == 0 ? "" : pick(random, AUTHORITIES))
+                    + path(random, random.nextInt(5) > 0) + pick(random, SUFFIXES);
+            final String reference = (random.nextInt(8) == 0 ? pick(random, AUTHORITIES) : "")
+                    + path(random, random.nextInt(3) == 0) + pick(random, SUFFIXES);
+            // twice, the second time with the cached base
+            for (int j = 0; j < 2; j++) {
+                assertEquals(base + " " + reference, resolve(base, reference, true),
+                        resolve(base, reference, false));
+            }
+        }
+    }
+}